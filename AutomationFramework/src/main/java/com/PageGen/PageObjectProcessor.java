@@ -0,0 +1,296 @@
+package com.PageGen;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+
+import org.openqa.selenium.support.FindAll;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.FindBys;
+import org.openqa.selenium.support.How;
+
+/**
+ * Generates a {@code <Page>_Elements} binder for every class with @FindBy,
+ * @FindBys or @FindAll fields, replacing PageFactory.initElements.
+ *
+ * The binder holds each field's locator as a constant and assigns plain
+ * {@code WebUtils.ResolvingElement} / {@code ResolvingElementList} objects, so
+ * building a page object needs no reflection and no dynamic proxies. A page
+ * calls {@code <Page>_Elements.bind(this, we)} from its constructor. Locators
+ * are built exactly as PageFactory builds them; fields without an annotation
+ * are not bound (PageFactory would fall back to id-or-name on the field name).
+ * Annotated fields must be WebElement or List&lt;WebElement&gt; and must not be
+ * private, static or final.
+ *
+ * Runs during test compilation; see the maven-compiler-plugin configuration.
+ */
+@SupportedAnnotationTypes({ "org.openqa.selenium.support.FindBy", "org.openqa.selenium.support.FindBys",
+		"org.openqa.selenium.support.FindAll" })
+public class PageObjectProcessor extends AbstractProcessor {
+
+	private static final String GENERATED_SUFFIX = "_Elements";
+
+	@Override
+	public SourceVersion getSupportedSourceVersion() {
+		return SourceVersion.latestSupported();
+	}
+
+	@Override
+	public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+		Map<TypeElement, Set<Element>> pages = new LinkedHashMap<>();
+		for (TypeElement annotation : annotations) {
+			for (Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+				if (element.getKind() == ElementKind.FIELD) {
+					pages.computeIfAbsent((TypeElement) element.getEnclosingElement(), p -> new LinkedHashSet<>())
+							.add(element);
+				}
+			}
+		}
+		for (Map.Entry<TypeElement, Set<Element>> page : pages.entrySet()) {
+			List<VariableElement> fields = new ArrayList<>();
+			// declaration order, not the order the annotations were reported in
+			for (Element member : page.getKey().getEnclosedElements()) {
+				if (page.getValue().contains(member)) {
+					fields.add((VariableElement) member);
+				}
+			}
+			generate(page.getKey(), fields);
+		}
+		return false;
+	}
+
+	/* ==========================Code Generation======================== */
+
+	private void generate(TypeElement page, List<VariableElement> fields) {
+		String packageName = processingEnv.getElementUtils().getPackageOf(page).getQualifiedName().toString();
+		String binderName = binderName(page);
+
+		StringBuilder constants = new StringBuilder();
+		StringBuilder assignments = new StringBuilder();
+		boolean valid = true;
+		boolean hasElements = false;
+		boolean hasLists = false;
+		for (VariableElement field : fields) {
+			String by = locatorFor(field);
+			Boolean list = fieldKind(field);
+			if (by == null || list == null || !checkModifiers(field)) {
+				valid = false;
+				continue;
+			}
+			hasElements |= !list;
+			hasLists |= list;
+			String name = field.getSimpleName().toString();
+			constants.append("\tprivate static final By ").append(name).append(" = ").append(by).append(";\n");
+			// parameters and constants are spelled so no field name can shadow them
+			assignments.append("\t\t$page.").append(name).append(" = new ")
+					.append(list ? "ResolvingElementList" : "ResolvingElement")
+					.append("(new CachingElementLocator($webUtil, ").append(binderName).append('.').append(name)
+					.append("));\n");
+		}
+		if (!valid) {
+			return;
+		}
+
+		StringBuilder source = new StringBuilder();
+		if (!packageName.isEmpty()) {
+			source.append("package ").append(packageName).append(";\n\n");
+		}
+		source.append("import javax.annotation.processing.Generated;\n\n");
+		source.append("import org.openqa.selenium.By;\n\n");
+		source.append("import WebUtils.CachingElementLocatorFactory.CachingElementLocator;\n");
+		if (hasElements) {
+			source.append("import WebUtils.ResolvingElement;\n");
+		}
+		if (hasLists) {
+			source.append("import WebUtils.ResolvingElementList;\n");
+		}
+		source.append("import WebUtils.WebUtil;\n\n");
+		source.append("/** Element bindings for {@link ").append(page.getQualifiedName())
+				.append("}, generated from its locator annotations. */\n");
+		source.append("@Generated(\"").append(PageObjectProcessor.class.getName()).append("\")\n");
+		source.append("final class ").append(binderName).append(" {\n\n");
+		source.append(constants).append("\n");
+		source.append("\tprivate ").append(binderName).append("() {\n\t}\n\n");
+		source.append("\tstatic void bind(").append(page.getQualifiedName()).append(" $page, WebUtil $webUtil) {\n");
+		source.append(assignments);
+		source.append("\t}\n}\n");
+
+		String qualifiedName = packageName.isEmpty() ? binderName : packageName + "." + binderName;
+		try (Writer out = processingEnv.getFiler().createSourceFile(qualifiedName, page).openWriter()) {
+			out.write(source.toString());
+		} catch (IOException e) {
+			error(page, "Could not write " + qualifiedName + ": " + e.getMessage());
+		}
+	}
+
+	/** SearchProduct_Elements, or Outer_Inner_Elements for a nested page class. */
+	private static String binderName(TypeElement page) {
+		StringBuilder name = new StringBuilder(page.getSimpleName());
+		for (Element outer = page.getEnclosingElement(); !(outer instanceof PackageElement); outer = outer
+				.getEnclosingElement()) {
+			name.insert(0, outer.getSimpleName() + "_");
+		}
+		return name.append(GENERATED_SUFFIX).toString();
+	}
+
+	/* ==========================Locators======================== */
+
+	/** Java expression for the field's By, built the way PageFactory's Annotations would. */
+	private String locatorFor(VariableElement field) {
+		FindBy findBy = field.getAnnotation(FindBy.class);
+		FindBys findBys = field.getAnnotation(FindBys.class);
+		FindAll findAll = field.getAnnotation(FindAll.class);
+		int count = (findBy != null ? 1 : 0) + (findBys != null ? 1 : 0) + (findAll != null ? 1 : 0);
+		if (count > 1) {
+			error(field, "Use only one of @FindBy, @FindBys and @FindAll");
+			return null;
+		}
+		if (findBy != null) {
+			return locatorFor(field, findBy);
+		}
+		FindBy[] parts = findBys != null ? findBys.value() : findAll.value();
+		StringBuilder by = new StringBuilder(findBys != null ? "new org.openqa.selenium.support.pagefactory.ByChained("
+				: "new org.openqa.selenium.support.pagefactory.ByAll(");
+		for (int i = 0; i < parts.length; i++) {
+			String part = locatorFor(field, parts[i]);
+			if (part == null) {
+				return null;
+			}
+			by.append(i == 0 ? "" : ", ").append(part);
+		}
+		return by.append(")").toString();
+	}
+
+	private String locatorFor(VariableElement field, FindBy findBy) {
+		List<String> finders = new ArrayList<>();
+		if (findBy.how() != How.UNSET) {
+			finders.add(byExpression(findBy.how(), findBy.using()));
+		}
+		addFinder(finders, How.ID, findBy.id());
+		addFinder(finders, How.NAME, findBy.name());
+		addFinder(finders, How.CLASS_NAME, findBy.className());
+		addFinder(finders, How.CSS, findBy.css());
+		addFinder(finders, How.TAG_NAME, findBy.tagName());
+		addFinder(finders, How.LINK_TEXT, findBy.linkText());
+		addFinder(finders, How.PARTIAL_LINK_TEXT, findBy.partialLinkText());
+		addFinder(finders, How.XPATH, findBy.xpath());
+		if (finders.size() != 1) {
+			error(field, "@FindBy must specify exactly one locator, found " + finders.size());
+			return null;
+		}
+		return finders.get(0);
+	}
+
+	private static void addFinder(List<String> finders, How how, String value) {
+		if (!value.isEmpty()) {
+			finders.add(byExpression(how, value));
+		}
+	}
+
+	private static String byExpression(How how, String value) {
+		String literal = literal(value);
+		switch (how) {
+		case ID:
+			return "By.id(" + literal + ")";
+		case NAME:
+			return "By.name(" + literal + ")";
+		case CLASS_NAME:
+			return "By.className(" + literal + ")";
+		case CSS:
+			return "By.cssSelector(" + literal + ")";
+		case TAG_NAME:
+			return "By.tagName(" + literal + ")";
+		case LINK_TEXT:
+			return "By.linkText(" + literal + ")";
+		case PARTIAL_LINK_TEXT:
+			return "By.partialLinkText(" + literal + ")";
+		case XPATH:
+			return "By.xpath(" + literal + ")";
+		case ID_OR_NAME:
+			return "new org.openqa.selenium.support.ByIdOrName(" + literal + ")";
+		default:
+			throw new IllegalArgumentException("No locator for " + how);
+		}
+	}
+
+	private static String literal(String value) {
+		StringBuilder out = new StringBuilder("\"");
+		for (char c : value.toCharArray()) {
+			switch (c) {
+			case '"':
+				out.append("\\\"");
+				break;
+			case '\\':
+				out.append("\\\\");
+				break;
+			case '\n':
+				out.append("\\n");
+				break;
+			case '\r':
+				out.append("\\r");
+				break;
+			case '\t':
+				out.append("\\t");
+				break;
+			default:
+				if (c < 0x20) {
+					out.append(String.format("\\u%04x", (int) c));
+				} else {
+					out.append(c);
+				}
+			}
+		}
+		return out.append('"').toString();
+	}
+
+	/* ==========================Field Checks======================== */
+
+	/** FALSE for WebElement, TRUE for List&lt;WebElement&gt;, null (with an error) otherwise. */
+	private Boolean fieldKind(VariableElement field) {
+		TypeMirror webElement = processingEnv.getElementUtils().getTypeElement("org.openqa.selenium.WebElement")
+				.asType();
+		TypeMirror type = field.asType();
+		if (processingEnv.getTypeUtils().isSameType(type, webElement)) {
+			return Boolean.FALSE;
+		}
+		TypeMirror list = processingEnv.getTypeUtils().getDeclaredType(
+				processingEnv.getElementUtils().getTypeElement("java.util.List"), webElement);
+		if (processingEnv.getTypeUtils().isSameType(type, list)) {
+			return Boolean.TRUE;
+		}
+		error(field, "Locator fields must be WebElement or List<WebElement>, not " + type);
+		return null;
+	}
+
+	private boolean checkModifiers(VariableElement field) {
+		Set<Modifier> modifiers = field.getModifiers();
+		if (modifiers.contains(Modifier.PRIVATE) || modifiers.contains(Modifier.STATIC)
+				|| modifiers.contains(Modifier.FINAL)) {
+			error(field, "Locator fields are assigned by the generated binder and must not be private, static or final");
+			return false;
+		}
+		return true;
+	}
+
+	private void error(Element element, String message) {
+		processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, message, element);
+	}
+}
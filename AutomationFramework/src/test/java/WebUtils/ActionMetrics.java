@@ -0,0 +1,306 @@
+package WebUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Latency of every WebUtil operation, per operation, test and element name.
+ *
+ * WebUtil opens a {@link Span} at the start of each public method and ends it
+ * in a finally block; the span is recorded into a {@link LatencyHistogram}
+ * keyed by operation, the test running on the thread (see
+ * {@link #setCurrentTest(String)}) and the element name passed to the method.
+ * A span counts as an error if an exception escapes it or a FAIL is logged
+ * while it is open. At suite end {@link #writeReports(Path)} exports everything
+ * as JSON and in the Prometheus text format. Every span also goes to the
+ * {@link TraceRecorder} timeline.
+ */
+public final class ActionMetrics {
+
+	private static final double[] PERCENTILES = { 50, 95, 99 };
+
+	private static final Map<Key, LatencyHistogram> HISTOGRAMS = new ConcurrentHashMap<>();
+	private static final ThreadLocal<String> CURRENT_TEST = new ThreadLocal<>();
+	private static final ThreadLocal<Span> CURRENT_SPAN = new ThreadLocal<>();
+
+	private ActionMetrics() {
+	}
+
+	/* ==========================Recording======================== */
+
+	/** Tags the operations that follow on this thread with the test name. */
+	public static void setCurrentTest(String testName) {
+		CURRENT_TEST.set(testName);
+	}
+
+	public static void clearCurrentTest() {
+		CURRENT_TEST.remove();
+	}
+
+	public static String getCurrentTest() {
+		return CURRENT_TEST.get();
+	}
+
+	/** Starts timing an operation on this thread; the caller must {@link Span#end()} it. */
+	public static Span start(String operation, String element) {
+		Span span = new Span(operation, element, CURRENT_TEST.get(), CURRENT_SPAN.get());
+		CURRENT_SPAN.set(span);
+		return span;
+	}
+
+	/** Marks the innermost open span on this thread as failed, if there is one. */
+	public static void markError() {
+		Span span = CURRENT_SPAN.get();
+		if (span != null) {
+			span.error = true;
+		}
+	}
+
+	public static void reset() {
+		HISTOGRAMS.clear();
+	}
+
+	public static final class Span {
+		private final String operation;
+		private final String element;
+		private final String test;
+		private final Span parent;
+		private final long startNanos = System.nanoTime();
+		private boolean error;
+		private boolean ended;
+		private long nanos;
+		private Consumer<Span> listener;
+
+		private Span(String operation, String element, String test, Span parent) {
+			this.operation = operation;
+			this.element = element;
+			this.test = test;
+			this.parent = parent;
+		}
+
+		/** Called once, after the span has ended and been recorded; see {@link FailureRecorder}. */
+		public Span onEnd(Consumer<Span> listener) {
+			this.listener = listener;
+			return this;
+		}
+
+		/**
+		 * Keeps the span timing but stops it being the thread's current span, so
+		 * actions started before it ends are not nested under it. Used when the
+		 * span outlives the call that started it, e.g. until a stream is closed.
+		 */
+		public Span detach() {
+			if (CURRENT_SPAN.get() == this) {
+				if (parent == null) {
+					CURRENT_SPAN.remove();
+				} else {
+					CURRENT_SPAN.set(parent);
+				}
+			}
+			return this;
+		}
+
+		/** Marks the span failed and hands the exception back for rethrowing. */
+		public <T extends Throwable> T fail(T e) {
+			error = true;
+			return e;
+		}
+
+		public void end() {
+			if (ended) {
+				return;
+			}
+			ended = true;
+			nanos = System.nanoTime() - startNanos;
+			HISTOGRAMS.computeIfAbsent(new Key(operation, test, element), k -> new LatencyHistogram())
+					.record(nanos, error);
+			Map<String, Object> args = new LinkedHashMap<>();
+			args.put("element", element);
+			args.put("test", test);
+			args.put("error", error);
+			TraceRecorder.complete(operation, "webutil", startNanos, nanos, args);
+			if (CURRENT_SPAN.get() == this) {
+				if (parent == null) {
+					CURRENT_SPAN.remove();
+				} else {
+					CURRENT_SPAN.set(parent);
+				}
+			}
+			if (listener != null) {
+				listener.accept(this);
+			}
+		}
+
+		public String getOperation() {
+			return operation;
+		}
+
+		public String getElement() {
+			return element;
+		}
+
+		public String getTest() {
+			return test;
+		}
+
+		public boolean isError() {
+			return error;
+		}
+
+		/** Duration in nanoseconds; zero until the span has ended. */
+		public long getDurationNanos() {
+			return nanos;
+		}
+	}
+
+	/* ==========================Export======================== */
+
+	/** Histograms by operation, test and element, sorted by operation name. */
+	public static List<OperationStats> getStats() {
+		List<OperationStats> stats = new ArrayList<>();
+		for (Map.Entry<Key, LatencyHistogram> entry : HISTOGRAMS.entrySet()) {
+			stats.add(new OperationStats(entry.getKey(), entry.getValue()));
+		}
+		stats.sort(Comparator.comparing(OperationStats::getOperation)
+				.thenComparing(s -> String.valueOf(s.getTest())).thenComparing(s -> String.valueOf(s.getElement())));
+		return stats;
+	}
+
+	/** Writes action-latency.json and action-latency.prom into the directory. */
+	public static void writeReports(Path directory) throws IOException {
+		Files.createDirectories(directory);
+		List<OperationStats> stats = getStats();
+		writeJson(directory.resolve("action-latency.json"), stats);
+		writePrometheus(directory.resolve("action-latency.prom"), stats);
+	}
+
+	private static void writeJson(Path file, List<OperationStats> stats) throws IOException {
+		List<Map<String, Object>> operations = new ArrayList<>();
+		for (OperationStats s : stats) {
+			Map<String, Object> row = new LinkedHashMap<>();
+			row.put("operation", s.getOperation());
+			row.put("test", s.getTest());
+			row.put("element", s.getElement());
+			row.put("count", s.getHistogram().getCount());
+			row.put("errors", s.getHistogram().getErrors());
+			row.put("meanMs", round(s.getHistogram().getMeanMillis()));
+			for (double p : PERCENTILES) {
+				row.put("p" + (int) p + "Ms", round(s.getHistogram().getPercentileMillis(p)));
+			}
+			row.put("maxMs", round(s.getHistogram().getMaxMillis()));
+			operations.add(row);
+		}
+		Map<String, Object> document = new LinkedHashMap<>();
+		document.put("generatedAt", Instant.now().toString());
+		document.put("operations", operations);
+		Files.write(file, JsonLinesWriter.toJson(document).getBytes(StandardCharsets.UTF_8));
+	}
+
+	private static void writePrometheus(Path file, List<OperationStats> stats) throws IOException {
+		try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			out.write("# HELP webutil_action_duration_seconds Duration of WebUtil operations.\n");
+			out.write("# TYPE webutil_action_duration_seconds summary\n");
+			for (OperationStats s : stats) {
+				String labels = labels(s);
+				for (double p : PERCENTILES) {
+					out.write("webutil_action_duration_seconds{" + labels + ",quantile=\"" + p / 100 + "\"} "
+							+ s.getHistogram().getPercentileMillis(p) / 1000 + "\n");
+				}
+				out.write("webutil_action_duration_seconds_sum{" + labels + "} " + s.getHistogram().getSumMillis() / 1000
+						+ "\n");
+				out.write("webutil_action_duration_seconds_count{" + labels + "} " + s.getHistogram().getCount() + "\n");
+			}
+			out.write("# HELP webutil_action_duration_max_seconds Slowest single WebUtil operation.\n");
+			out.write("# TYPE webutil_action_duration_max_seconds gauge\n");
+			for (OperationStats s : stats) {
+				out.write("webutil_action_duration_max_seconds{" + labels(s) + "} " + s.getHistogram().getMaxMillis() / 1000
+						+ "\n");
+			}
+			out.write("# HELP webutil_action_errors_total WebUtil operations that failed.\n");
+			out.write("# TYPE webutil_action_errors_total counter\n");
+			for (OperationStats s : stats) {
+				out.write("webutil_action_errors_total{" + labels(s) + "} " + s.getHistogram().getErrors() + "\n");
+			}
+		}
+	}
+
+	private static String labels(OperationStats s) {
+		return "operation=\"" + escape(s.getOperation()) + "\",test=\"" + escape(s.getTest()) + "\",element=\""
+				+ escape(s.getElement()) + "\"";
+	}
+
+	private static String escape(String value) {
+		return value == null ? "" : value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n");
+	}
+
+	private static double round(double millis) {
+		return Math.round(millis * 1000) / 1000.0;
+	}
+
+	private static final class Key {
+		private final String operation;
+		private final String test;
+		private final String element;
+
+		private Key(String operation, String test, String element) {
+			this.operation = operation;
+			this.test = test;
+			this.element = element;
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (!(o instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) o;
+			return operation.equals(other.operation) && Objects.equals(test, other.test)
+					&& Objects.equals(element, other.element);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(operation, test, element);
+		}
+	}
+
+	public static final class OperationStats {
+		private final Key key;
+		private final LatencyHistogram histogram;
+
+		private OperationStats(Key key, LatencyHistogram histogram) {
+			this.key = key;
+			this.histogram = histogram;
+		}
+
+		public String getOperation() {
+			return key.operation;
+		}
+
+		/** Test that ran the operation, or null outside a test. */
+		public String getTest() {
+			return key.test;
+		}
+
+		/** Element name passed to the operation, or null if it has none. */
+		public String getElement() {
+			return key.element;
+		}
+
+		public LatencyHistogram getHistogram() {
+			return histogram;
+		}
+	}
+}
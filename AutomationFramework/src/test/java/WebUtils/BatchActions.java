@@ -0,0 +1,393 @@
+package WebUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.Select;
+
+import com.aventstack.extentreports.Status;
+
+/**
+ * Runs a list of click, clear, type, check and select actions in one browser
+ * round trip and reports an outcome for every element touched.
+ *
+ * Actions are applied in the order they were added. A failing element (hidden,
+ * disabled, detached, no such option) is recorded and the batch carries on, so
+ * the caller only needs to retry what actually failed. XPath, CSS, id, name,
+ * class name and tag name locators are resolved inside the script and act on
+ * every match; link-text locators are resolved with findElements first.
+ *
+ * The script acts through the DOM: clicks are element.click(), and typing and
+ * clearing go through {@link FastFill}'s script, which sets the value and fires
+ * input and change events. That is what page frameworks listen for but is not
+ * real key-by-key input; a field FastFill refuses (not a text field,
+ * read-only, over maxlength, value rewritten by the page) is a failed outcome. A script click is not
+ * hit-tested, so it succeeds on an element covered by an overlay, and it fires
+ * no pointer or mouse events. Where that matters, {@link #runNative()} makes
+ * the same actions with native WebDriver calls, one element at a time. If any
+ * element handed in is already stale, {@link #run()} falls back to native
+ * calls as well. A click that navigates away should be the last action.
+ */
+public final class BatchActions {
+
+	private static final String BATCH_SCRIPT = "var actions = arguments[0], results = [];"
+			+ "function fire(el, type) { el.dispatchEvent(new Event(type, { bubbles: true })); }"
+			+ FastFill.FILL_FUNCTION
+			+ "function setValue(el, value) {"
+			+ "  var filled = fastFill(el, value, true);"
+			+ "  if (filled !== true) { throw new Error(filled); }"
+			+ "}"
+			+ "function find(action) {"
+			+ "  if (action.element) { return [action.element]; }"
+			+ "  if (!action.locator) { return []; }"
+			+ "  if (action.using === 'xpath') {"
+			+ "    var found = document.evaluate(action.locator, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null), list = [];"
+			+ "    for (var i = 0; i < found.snapshotLength; i++) { list.push(found.snapshotItem(i)); }"
+			+ "    return list;"
+			+ "  }"
+			+ "  return Array.prototype.slice.call(document.querySelectorAll(action.locator));"
+			+ "}"
+			+ "function perform(action, el) {"
+			+ "  if (!el.isConnected) { throw new Error('element is no longer attached to the page'); }"
+			+ "  if (el.getClientRects().length === 0) { throw new Error('element is not displayed'); }"
+			+ "  if (el.disabled) { throw new Error('element is disabled'); }"
+			+ "  if (action.op === 'click') { el.scrollIntoView({ block: 'center' }); el.click(); }"
+			+ "  else if (action.op === 'clear') { setValue(el, ''); }"
+			+ "  else if (action.op === 'type') { setValue(el, action.value); }"
+			+ "  else if (action.op === 'check') { if (el.checked !== action.value) { el.click(); } }"
+			+ "  else if (action.op === 'select') {"
+			+ "    var index = -1;"
+			+ "    for (var i = 0; i < el.options.length; i++) {"
+			+ "      if (el.options[i].text.replace(/\\s+/g, ' ').trim() === action.value) { index = i; break; }"
+			+ "    }"
+			+ "    if (index < 0) { throw new Error('no option with visible text: ' + action.value); }"
+			+ "    el.selectedIndex = index; fire(el, 'input'); fire(el, 'change');"
+			+ "  }"
+			+ "}"
+			+ "for (var a = 0; a < actions.length; a++) {"
+			+ "  var targets;"
+			+ "  try { targets = find(actions[a]); } catch (e) { results.push([a, -1, String(e && e.message || e)]); continue; }"
+			+ "  if (targets.length === 0) { results.push([a, -1, 'no elements found']); continue; }"
+			+ "  for (var t = 0; t < targets.length; t++) {"
+			+ "    try { perform(actions[a], targets[t]); results.push([a, t, null]); }"
+			+ "    catch (e) { results.push([a, t, String(e && e.message || e)]); }"
+			+ "  }"
+			+ "}"
+			+ "return results;";
+
+	private final WebDriver driver;
+	private final BiConsumer<Status, String> logger;
+	private final List<Action> actions = new ArrayList<>();
+
+	public BatchActions(WebDriver driver) {
+		this(driver, null);
+	}
+
+	/** The logger, if given, receives a FAIL line per failed element and a summary line per run. */
+	public BatchActions(WebDriver driver, BiConsumer<Status, String> logger) {
+		this.driver = driver;
+		this.logger = logger;
+	}
+
+	/* ==========================Building======================== */
+
+	public BatchActions click(WebElement element, String name) {
+		return add("click", element, null, null, name);
+	}
+
+	/** Clicks every element matching the locator. */
+	public BatchActions click(By locator) {
+		return add("click", null, locator, null, String.valueOf(locator));
+	}
+
+	public BatchActions clear(WebElement element, String name) {
+		return add("clear", element, null, null, name);
+	}
+
+	public BatchActions clear(By locator) {
+		return add("clear", null, locator, null, String.valueOf(locator));
+	}
+
+	/** Replaces the element's value with the text. */
+	public BatchActions type(WebElement element, String text, String name) {
+		return add("type", element, null, text, name);
+	}
+
+	public BatchActions type(By locator, String text) {
+		return add("type", null, locator, text, String.valueOf(locator));
+	}
+
+	/** Clicks a checkbox or radio button only if its state differs from checked. */
+	public BatchActions check(WebElement element, boolean checked, String name) {
+		return add("check", element, null, checked, name);
+	}
+
+	public BatchActions check(By locator, boolean checked) {
+		return add("check", null, locator, checked, String.valueOf(locator));
+	}
+
+	public BatchActions select(WebElement element, String visibleText, String name) {
+		return add("select", element, null, visibleText, name);
+	}
+
+	public BatchActions select(By locator, String visibleText) {
+		return add("select", null, locator, visibleText, String.valueOf(locator));
+	}
+
+	private BatchActions add(String op, WebElement element, By locator, Object value, String name) {
+		actions.add(new Action(op, element, locator, value, name));
+		return this;
+	}
+
+	/* ==========================Running======================== */
+
+	/**
+	 * Performs every queued action and returns one outcome per element, in
+	 * action order. A locator that matched nothing yields a single failed
+	 * outcome. The queue is kept, so the same batch can be run again.
+	 */
+	public List<ActionOutcome> run() {
+		List<ActionOutcome> outcomes;
+		if (driver instanceof JavascriptExecutor) {
+			try {
+				outcomes = runScript();
+			} catch (StaleElementReferenceException e) {
+				outcomes = performEachNatively();
+			}
+		} else {
+			outcomes = performEachNatively();
+		}
+		report(outcomes);
+		return outcomes;
+	}
+
+	/**
+	 * Like {@link #run()}, but every element gets its own native WebDriver
+	 * call: clicks are real, hit-tested pointer input and typing is key by key.
+	 * Costs a round trip per element instead of one for the batch.
+	 */
+	public List<ActionOutcome> runNative() {
+		List<ActionOutcome> outcomes = performEachNatively();
+		report(outcomes);
+		return outcomes;
+	}
+
+	private List<ActionOutcome> runScript() {
+		// One script entry per element handed in or per locator the script can evaluate;
+		// other locators are expanded here, one entry per match.
+		List<Map<String, Object>> payload = new ArrayList<>();
+		List<Integer> owners = new ArrayList<>();
+		for (int i = 0; i < actions.size(); i++) {
+			Action action = actions.get(i);
+			Map<String, Object> entry = new HashMap<>();
+			entry.put("op", action.op);
+			entry.put("value", action.value);
+			By.Remotable.Parameters params = action.locator == null ? null : scriptLocator(action.locator);
+			if (action.element != null) {
+				entry.put("element", action.element);
+			} else if (params != null) {
+				entry.put("using", params.using());
+				entry.put("locator", String.valueOf(params.value()));
+			} else {
+				List<WebElement> found = driver.findElements(action.locator);
+				for (WebElement element : found) {
+					Map<String, Object> copy = new HashMap<>(entry);
+					copy.put("element", element);
+					payload.add(copy);
+					owners.add(i);
+				}
+				if (!found.isEmpty()) {
+					continue;
+				}
+			}
+			payload.add(entry);
+			owners.add(i);
+		}
+
+		List<?> rows = (List<?>) ((JavascriptExecutor) driver).executeScript(BATCH_SCRIPT, payload);
+		List<ActionOutcome> outcomes = new ArrayList<>(rows.size());
+		int[] seen = new int[actions.size()];
+		for (Object row : rows) {
+			List<?> cells = (List<?>) row;
+			int owner = owners.get(((Number) cells.get(0)).intValue());
+			boolean matched = ((Number) cells.get(1)).intValue() >= 0;
+			Object error = cells.get(2);
+			Action action = actions.get(owner);
+			int index = matched && action.element == null ? seen[owner]++ : -1;
+			outcomes.add(new ActionOutcome(action.op, describe(action, index), error == null,
+					error == null ? null : String.valueOf(error)));
+		}
+		return outcomes;
+	}
+
+	private List<ActionOutcome> performEachNatively() {
+		List<ActionOutcome> outcomes = new ArrayList<>();
+		for (Action action : actions) {
+			List<WebElement> targets;
+			if (action.element != null) {
+				targets = List.of(action.element);
+			} else {
+				try {
+					targets = driver.findElements(action.locator);
+				} catch (RuntimeException e) {
+					outcomes.add(new ActionOutcome(action.op, describe(action, -1), false, e.getMessage()));
+					continue;
+				}
+				if (targets.isEmpty()) {
+					outcomes.add(new ActionOutcome(action.op, describe(action, -1), false, "no elements found"));
+					continue;
+				}
+			}
+			for (int i = 0; i < targets.size(); i++) {
+				String target = describe(action, action.element != null ? -1 : i);
+				try {
+					performNative(action, targets.get(i));
+					outcomes.add(new ActionOutcome(action.op, target, true, null));
+				} catch (RuntimeException e) {
+					outcomes.add(new ActionOutcome(action.op, target, false,
+							e.getClass().getSimpleName() + ": " + e.getMessage()));
+				}
+			}
+		}
+		return outcomes;
+	}
+
+	private static void performNative(Action action, WebElement element) {
+		switch (action.op) {
+		case "click":
+			element.click();
+			break;
+		case "clear":
+			element.clear();
+			break;
+		case "type":
+			element.clear();
+			element.sendKeys((String) action.value);
+			break;
+		case "check":
+			if (element.isSelected() != (Boolean) action.value) {
+				element.click();
+			}
+			break;
+		case "select":
+			new Select(element).selectByVisibleText((String) action.value);
+			break;
+		default:
+			throw new IllegalStateException("Unknown action: " + action.op);
+		}
+	}
+
+	private void report(List<ActionOutcome> outcomes) {
+		if (logger == null) {
+			return;
+		}
+		int failed = 0;
+		for (ActionOutcome outcome : outcomes) {
+			if (!outcome.isSuccess()) {
+				failed++;
+				logger.accept(Status.FAIL, outcome.toString());
+			}
+		}
+		logger.accept(failed == 0 ? Status.PASS : Status.WARNING, "Batch of " + actions.size() + " actions: "
+				+ (outcomes.size() - failed) + " of " + outcomes.size() + " elements succeeded");
+	}
+
+	/**
+	 * XPath or CSS form of the locator if a script can evaluate it itself, else
+	 * null. By.id, By.name, By.className and By.tagName are turned into the
+	 * equivalent CSS selector.
+	 */
+	static By.Remotable.Parameters scriptLocator(By locator) {
+		if (!(locator instanceof By.Remotable)) {
+			return null;
+		}
+		By.Remotable.Parameters params = ((By.Remotable) locator).getRemoteParameters();
+		String value = String.valueOf(params.value());
+		switch (params.using()) {
+		case "xpath":
+		case "css selector":
+			return params;
+		case "id":
+			return new By.Remotable.Parameters("css selector", "[id=" + cssString(value) + "]");
+		case "name":
+			return new By.Remotable.Parameters("css selector", "[name=" + cssString(value) + "]");
+		case "class name":
+			return new By.Remotable.Parameters("css selector", "[class~=" + cssString(value) + "]");
+		case "tag name":
+			return value.matches("[A-Za-z][A-Za-z0-9-]*") ? new By.Remotable.Parameters("css selector", value) : null;
+		default:
+			return null;
+		}
+	}
+
+	private static String cssString(String value) {
+		return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\a ") + "\"";
+	}
+
+	private static String describe(Action action, int index) {
+		return index < 0 ? action.name : action.name + " [" + index + "]";
+	}
+
+	private static final class Action {
+		private final String op;
+		private final WebElement element;
+		private final By locator;
+		private final Object value;
+		private final String name;
+
+		private Action(String op, WebElement element, By locator, Object value, String name) {
+			this.op = op;
+			this.element = element;
+			this.locator = locator;
+			this.value = value;
+			this.name = name;
+		}
+	}
+
+	/* ==========================Results======================== */
+
+	public static final class ActionOutcome {
+		private final String action;
+		private final String target;
+		private final boolean success;
+		private final String error;
+
+		ActionOutcome(String action, String target, boolean success, String error) {
+			this.action = action;
+			this.target = target;
+			this.success = success;
+			this.error = error;
+		}
+
+		/** click, clear, type, check or select. */
+		public String getAction() {
+			return action;
+		}
+
+		/** Element name or locator, with the match index for locators that matched several elements. */
+		public String getTarget() {
+			return target;
+		}
+
+		public boolean isSuccess() {
+			return success;
+		}
+
+		public String getError() {
+			return error;
+		}
+
+		@Override
+		public String toString() {
+			return action + " " + target + (success ? " succeeded" : " failed: " + error);
+		}
+	}
+}
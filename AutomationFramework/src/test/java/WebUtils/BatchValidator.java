@@ -0,0 +1,351 @@
+package WebUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.Select;
+
+import com.aventstack.extentreports.Status;
+
+/**
+ * Soft assertions on many elements, evaluated together in one script call.
+ *
+ * Expectations are collected first, then {@link #validate()} reads every
+ * actual value in a single round trip, compares them with the same rules as
+ * WebUtil's validate* methods (text and attributes ignore case) and logs every
+ * mismatch at once instead of stopping at the first. {@link #assertAll()} does
+ * the same and then throws if anything failed.
+ *
+ * Each check looks at the first element matching its locator. Link-text
+ * locators are resolved with findElements first; all others in the browser.
+ * If an element handed in is already stale, the checks fall back to native
+ * WebDriver calls.
+ */
+public final class BatchValidator {
+
+	private static final String VALIDATE_SCRIPT = "var checks = arguments[0], results = [];"
+			+ "function shown(el) {"
+			+ "  if (el.localName === 'option' || el.localName === 'optgroup') { el = el.closest('select') || el; }"
+			+ "  for (var e = el; e && e.nodeType === 1; e = e.parentElement) {"
+			+ "    var style = window.getComputedStyle(e);"
+			+ "    if (style.display === 'none' || style.opacity === '0') { return false; }"
+			+ "  }"
+			+ "  return window.getComputedStyle(el).visibility !== 'hidden' && el.getClientRects().length > 0;"
+			+ "}"
+			+ "function find(check) {"
+			+ "  if (check.element) { return check.element; }"
+			+ "  if (!check.locator) { return null; }"
+			+ "  if (check.using === 'xpath') {"
+			+ "    return document.evaluate(check.locator, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;"
+			+ "  }"
+			+ "  return document.querySelector(check.locator);"
+			+ "}"
+			+ "function actual(check, el) {"
+			+ "  switch (check.kind) {"
+			+ "  case 'text': return shown(el) ? el.innerText.replace(/^\\s+|\\s+$/g, '') : '';"
+			+ "  case 'attribute': return el.getAttribute(check.attribute);"
+			+ "  case 'enabled': return !el.matches(':disabled');"
+			+ "  case 'visible': return shown(el);"
+			+ "  case 'selected':"
+			+ "    var option = el.selectedOptions && el.selectedOptions[0];"
+			+ "    return option ? option.text.replace(/\\s+/g, ' ').trim() : null;"
+			+ "  }"
+			+ "}"
+			+ "for (var i = 0; i < checks.length; i++) {"
+			+ "  try {"
+			+ "    var el = find(checks[i]);"
+			+ "    results.push(el ? [true, actual(checks[i], el), null] : [false, null, 'no element found']);"
+			+ "  } catch (e) { results.push([false, null, String(e && e.message || e)]); }"
+			+ "}"
+			+ "return results;";
+
+	private final WebDriver driver;
+	private final BiConsumer<Status, String> logger;
+	private final List<Check> checks = new ArrayList<>();
+
+	public BatchValidator(WebDriver driver) {
+		this(driver, null);
+	}
+
+	/** The logger, if given, receives a FAIL line per mismatch and a summary line per run. */
+	public BatchValidator(WebDriver driver, BiConsumer<Status, String> logger) {
+		this.driver = driver;
+		this.logger = logger;
+	}
+
+	/* ==========================Expectations======================== */
+
+	/** Visible text, as getText would return it, equals the expected text ignoring case. */
+	public BatchValidator text(WebElement element, String expectedText, String elementName) {
+		return add("text", element, null, null, expectedText, elementName);
+	}
+
+	public BatchValidator text(By locator, String expectedText, String elementName) {
+		return add("text", null, locator, null, expectedText, elementName);
+	}
+
+	/** Attribute as written in the page equals the expected value ignoring case; a missing attribute fails. */
+	public BatchValidator attribute(WebElement element, String attributeName, String expectedValue,
+			String elementName) {
+		return add("attribute", element, null, attributeName, expectedValue, elementName);
+	}
+
+	public BatchValidator attribute(By locator, String attributeName, String expectedValue, String elementName) {
+		return add("attribute", null, locator, attributeName, expectedValue, elementName);
+	}
+
+	public BatchValidator enabled(WebElement element, boolean expectedEnabled, String elementName) {
+		return add("enabled", element, null, null, expectedEnabled, elementName);
+	}
+
+	public BatchValidator enabled(By locator, boolean expectedEnabled, String elementName) {
+		return add("enabled", null, locator, null, expectedEnabled, elementName);
+	}
+
+	public BatchValidator visible(WebElement element, boolean expectedVisible, String elementName) {
+		return add("visible", element, null, null, expectedVisible, elementName);
+	}
+
+	public BatchValidator visible(By locator, boolean expectedVisible, String elementName) {
+		return add("visible", null, locator, null, expectedVisible, elementName);
+	}
+
+	/** Text of the first selected option of a select element, ignoring case. */
+	public BatchValidator selectedOption(WebElement element, String expectedText, String elementName) {
+		return add("selected", element, null, null, expectedText, elementName);
+	}
+
+	public BatchValidator selectedOption(By locator, String expectedText, String elementName) {
+		return add("selected", null, locator, null, expectedText, elementName);
+	}
+
+	private BatchValidator add(String kind, WebElement element, By locator, String attribute, Object expected,
+			String elementName) {
+		checks.add(new Check(kind, element, locator, attribute, expected, elementName));
+		return this;
+	}
+
+	/* ==========================Evaluation======================== */
+
+	/** Evaluates every expectation and reports each mismatch; results are in the order added. */
+	public List<ValidationResult> validate() {
+		List<ValidationResult> results;
+		if (driver instanceof JavascriptExecutor) {
+			try {
+				results = validateByScript();
+			} catch (StaleElementReferenceException e) {
+				results = validateNatively();
+			}
+		} else {
+			results = validateNatively();
+		}
+		report(results);
+		return results;
+	}
+
+	/**
+	 * Like {@link #validate()}, then throws an AssertionError listing every
+	 * mismatch if there was any.
+	 */
+	public List<ValidationResult> assertAll() {
+		List<ValidationResult> results = validate();
+		StringBuilder failures = new StringBuilder();
+		for (ValidationResult result : results) {
+			if (!result.isPassed()) {
+				failures.append("\n  ").append(result);
+			}
+		}
+		if (failures.length() > 0) {
+			throw new AssertionError("Validations failed:" + failures);
+		}
+		return results;
+	}
+
+	private List<ValidationResult> validateByScript() {
+		List<Map<String, Object>> payload = new ArrayList<>();
+		for (Check check : checks) {
+			Map<String, Object> entry = new HashMap<>();
+			entry.put("kind", check.kind);
+			entry.put("attribute", check.attribute);
+			By.Remotable.Parameters params = check.locator == null ? null
+					: BatchActions.scriptLocator(check.locator);
+			if (check.element != null) {
+				entry.put("element", check.element);
+			} else if (params != null) {
+				entry.put("using", params.using());
+				entry.put("locator", String.valueOf(params.value()));
+			} else {
+				List<WebElement> found = driver.findElements(check.locator);
+				entry.put("element", found.isEmpty() ? null : found.get(0));
+			}
+			payload.add(entry);
+		}
+
+		List<?> rows = (List<?>) ((JavascriptExecutor) driver).executeScript(VALIDATE_SCRIPT, payload);
+		List<ValidationResult> results = new ArrayList<>(rows.size());
+		for (int i = 0; i < rows.size(); i++) {
+			List<?> cells = (List<?>) rows.get(i);
+			Check check = checks.get(i);
+			Object error = cells.get(2);
+			results.add(Boolean.TRUE.equals(cells.get(0)) ? compare(check, cells.get(1))
+					: new ValidationResult(check, null, false, String.valueOf(error)));
+		}
+		return results;
+	}
+
+	private List<ValidationResult> validateNatively() {
+		List<ValidationResult> results = new ArrayList<>(checks.size());
+		for (Check check : checks) {
+			try {
+				WebElement element = check.element;
+				if (element == null) {
+					List<WebElement> found = driver.findElements(check.locator);
+					if (found.isEmpty()) {
+						results.add(new ValidationResult(check, null, false, "no element found"));
+						continue;
+					}
+					element = found.get(0);
+				}
+				results.add(compare(check, actualNatively(check, element)));
+			} catch (RuntimeException e) {
+				results.add(new ValidationResult(check, null, false,
+						e.getClass().getSimpleName() + ": " + e.getMessage()));
+			}
+		}
+		return results;
+	}
+
+	private static Object actualNatively(Check check, WebElement element) {
+		switch (check.kind) {
+		case "text":
+			return element.getText().trim();
+		case "attribute":
+			return element.getDomAttribute(check.attribute);
+		case "enabled":
+			return element.isEnabled();
+		case "visible":
+			return element.isDisplayed();
+		case "selected":
+			return new Select(element).getFirstSelectedOption().getText().trim();
+		default:
+			throw new IllegalStateException("Unknown check: " + check.kind);
+		}
+	}
+
+	private static ValidationResult compare(Check check, Object actual) {
+		boolean passed;
+		if (check.expected instanceof Boolean) {
+			passed = check.expected.equals(actual);
+		} else {
+			passed = actual != null && String.valueOf(actual).equalsIgnoreCase(String.valueOf(check.expected));
+		}
+		return new ValidationResult(check, actual == null ? null : String.valueOf(actual), passed, null);
+	}
+
+	private void report(List<ValidationResult> results) {
+		if (logger == null) {
+			return;
+		}
+		int failed = 0;
+		for (ValidationResult result : results) {
+			if (!result.isPassed()) {
+				failed++;
+				logger.accept(Status.FAIL, result.toString());
+			}
+		}
+		logger.accept(failed == 0 ? Status.PASS : Status.FAIL,
+				(results.size() - failed) + " of " + results.size() + " validations passed");
+	}
+
+	private static final class Check {
+		private final String kind;
+		private final WebElement element;
+		private final By locator;
+		private final String attribute;
+		private final Object expected;
+		private final String elementName;
+
+		private Check(String kind, WebElement element, By locator, String attribute, Object expected,
+				String elementName) {
+			this.kind = kind;
+			this.element = element;
+			this.locator = locator;
+			this.attribute = attribute;
+			this.expected = expected;
+			this.elementName = elementName;
+		}
+
+		private String describe() {
+			switch (kind) {
+			case "attribute":
+				return "attribute '" + attribute + "' of " + elementName;
+			case "enabled":
+				return "enabled state of " + elementName;
+			case "visible":
+				return "visibility of " + elementName;
+			case "selected":
+				return "selected option of " + elementName;
+			default:
+				return "text of " + elementName;
+			}
+		}
+	}
+
+	/* ==========================Results======================== */
+
+	public static final class ValidationResult {
+		private final String description;
+		private final String expected;
+		private final String actual;
+		private final boolean passed;
+		private final String error;
+
+		private ValidationResult(Check check, String actual, boolean passed, String error) {
+			this.description = check.describe();
+			this.expected = String.valueOf(check.expected);
+			this.actual = actual;
+			this.passed = passed;
+			this.error = error;
+		}
+
+		/** What was checked, e.g. "attribute 'href' of Logo". */
+		public String getDescription() {
+			return description;
+		}
+
+		public String getExpected() {
+			return expected;
+		}
+
+		/** Value found in the page, or null if the element was missing or had no such attribute. */
+		public String getActual() {
+			return actual;
+		}
+
+		public boolean isPassed() {
+			return passed;
+		}
+
+		/** Why the actual value could not be read, e.g. no element found. */
+		public String getError() {
+			return error;
+		}
+
+		@Override
+		public String toString() {
+			if (error != null) {
+				return "Validation failed for " + description + ": " + error;
+			}
+			return "Validation " + (passed ? "passed" : "failed") + " for " + description + ". Actual: '" + actual
+					+ "', Expected: '" + expected + "'";
+		}
+	}
+}
@@ -0,0 +1,92 @@
+package WebUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Fixed-memory "seen before?" set for crawling very large sites.
+ *
+ * Every URL goes into a Bloom filter sized up front for the expected number
+ * of URLs and an acceptable false-positive rate, so memory does not grow with
+ * the crawl. In front of it sits a small exact LRU of recently seen URLs: the
+ * navigation and footer links repeated on every page are answered from there
+ * without touching the filter. The trade-off is that a small fraction of
+ * never-seen URLs (about the configured rate) are reported as seen and skipped.
+ */
+public final class BoundedVisitedSet {
+
+	private final long[] bits;
+	private final long bitCount;
+	private final int hashCount;
+	private final Map<String, Boolean> recent;
+	private long added;
+
+	public BoundedVisitedSet(long expectedUrls, double falsePositiveRate, int recentCapacity) {
+		if (expectedUrls < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+			throw new IllegalArgumentException("expectedUrls must be positive and falsePositiveRate in (0, 1)");
+		}
+		long m = (long) Math.ceil(-expectedUrls * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+		this.bits = new long[(int) Math.min(Integer.MAX_VALUE - 8, (m + 63) / 64)];
+		this.bitCount = bits.length * 64L;
+		this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedUrls * Math.log(2)));
+		this.recent = new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+				return size() > recentCapacity;
+			}
+		};
+	}
+
+	/**
+	 * Records the URL and returns true if it had not been seen before (subject
+	 * to the filter's false-positive rate).
+	 */
+	public synchronized boolean add(String url) {
+		if (recent.put(url, Boolean.TRUE) != null) {
+			return false;
+		}
+		long h1 = fnv1a64(url);
+		long h2 = mix64(h1);
+		boolean isNew = false;
+		for (int i = 0; i < hashCount; i++) {
+			long bit = Math.floorMod(h1 + i * h2, bitCount);
+			int word = (int) (bit >>> 6);
+			long mask = 1L << bit;
+			if ((bits[word] & mask) == 0) {
+				bits[word] |= mask;
+				isNew = true;
+			}
+		}
+		if (isNew) {
+			added++;
+		}
+		return isNew;
+	}
+
+	public synchronized long size() {
+		return added;
+	}
+
+	/** Memory held by the filter itself, in bytes. */
+	public long filterBytes() {
+		return bits.length * 8L;
+	}
+
+	private static long fnv1a64(String value) {
+		long hash = 0xcbf29ce484222325L;
+		for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+			hash ^= b & 0xff;
+			hash *= 0x100000001b3L;
+		}
+		return hash;
+	}
+
+	private static long mix64(long z) {
+		z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+		z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+		return (z ^ (z >>> 33)) | 1;
+	}
+}
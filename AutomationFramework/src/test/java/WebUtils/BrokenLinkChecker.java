@@ -0,0 +1,261 @@
+package WebUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Checks many links concurrently over one shared HTTP/2-capable client.
+ *
+ * Each URL gets a HEAD request. It is retried with GET only when the server
+ * refuses the method itself (405, 501, or 403, which some CDNs send for HEAD);
+ * a 404 or 500 is reported as it is, without a second request. Requests to
+ * any one host are capped so a page full of same-site links does not hammer
+ * it. Tasks run on virtual threads when the JVM has them (Java 21+),
+ * otherwise on a fixed pool of 64 daemon threads.
+ */
+public final class BrokenLinkChecker {
+
+	private static final String COLLECT_LINKS_SCRIPT = "var links = [], empty = 0;"
+			+ "document.querySelectorAll('a').forEach(function (a) {"
+			+ "  var href = a.getAttribute('href');"
+			+ "  if (href && href.trim()) { links.push(a.href); } else { empty++; }"
+			+ "});"
+			+ "return [links, empty];";
+
+	/** HEAD statuses that say the method, not the link, was refused. */
+	private static final Set<Integer> HEAD_REJECTED = Set.of(403, 405, 501);
+
+	private static final ExecutorService EXECUTOR = newExecutor();
+	private static final HttpClient SHARED_CLIENT = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2)
+			.followRedirects(HttpClient.Redirect.NORMAL).connectTimeout(Duration.ofSeconds(10)).build();
+
+	private final HttpClient client;
+	private final Duration timeout;
+	private final int maxPerHost;
+	private final Map<String, Semaphore> hostPermits = new ConcurrentHashMap<>();
+
+	public BrokenLinkChecker() {
+		this(Duration.ofSeconds(10), 6);
+	}
+
+	public BrokenLinkChecker(Duration timeout, int maxPerHost) {
+		if (maxPerHost < 1) {
+			throw new IllegalArgumentException("maxPerHost must be at least 1: " + maxPerHost);
+		}
+		this.client = SHARED_CLIENT;
+		this.timeout = timeout;
+		this.maxPerHost = maxPerHost;
+	}
+
+	/* ==========================Link Collection======================== */
+
+	/**
+	 * All anchor targets on the current page, fetched in one script call,
+	 * resolved against the page URL, normalised and de-duplicated.
+	 */
+	public static LinkScan collectLinks(WebDriver driver) {
+		Object result = ((JavascriptExecutor) driver).executeScript(COLLECT_LINKS_SCRIPT);
+		List<?> parts = (List<?>) result;
+		List<?> hrefs = (List<?>) parts.get(0);
+		int empty = ((Number) parts.get(1)).intValue();
+		List<String> raw = new ArrayList<>();
+		for (Object href : hrefs) {
+			raw.add(String.valueOf(href));
+		}
+		List<String> urls = normalize(raw);
+		return new LinkScan(urls, empty, raw.size() - urls.size());
+	}
+
+	/**
+	 * Drops fragments, keeps only http(s) URLs, lower-cases scheme and host and
+	 * removes duplicates while keeping first-seen order.
+	 */
+	public static List<String> normalize(Collection<String> hrefs) {
+		Set<String> urls = new LinkedHashSet<>();
+		for (String href : hrefs) {
+			if (href == null) {
+				continue;
+			}
+			try {
+				URI uri = new URI(href.trim());
+				String scheme = uri.getScheme() == null ? null : uri.getScheme().toLowerCase(Locale.ROOT);
+				if (!"http".equals(scheme) && !"https".equals(scheme) || uri.getHost() == null) {
+					continue;
+				}
+				String path = uri.getRawPath() == null || uri.getRawPath().isEmpty() ? "/" : uri.getRawPath();
+				URI normalized = new URI(scheme + "://" + (uri.getRawUserInfo() == null ? "" : uri.getRawUserInfo() + "@")
+						+ uri.getHost().toLowerCase(Locale.ROOT) + (uri.getPort() == -1 ? "" : ":" + uri.getPort())
+						+ path + (uri.getRawQuery() == null ? "" : "?" + uri.getRawQuery()));
+				urls.add(normalized.toString());
+			} catch (URISyntaxException e) {
+				// not a URL we can request
+			}
+		}
+		return new ArrayList<>(urls);
+	}
+
+	/* ==========================Checking======================== */
+
+	/** Checks every URL concurrently; results are in input order. */
+	public List<LinkResult> check(Collection<String> urls) {
+		List<CompletableFuture<LinkResult>> futures = new ArrayList<>();
+		for (String url : urls) {
+			futures.add(CompletableFuture.supplyAsync(() -> checkOne(url), EXECUTOR));
+		}
+		List<LinkResult> results = new ArrayList<>(futures.size());
+		for (CompletableFuture<LinkResult> future : futures) {
+			results.add(future.join());
+		}
+		return results;
+	}
+
+	public LinkResult checkOne(String url) {
+		long start = System.nanoTime();
+		URI uri;
+		try {
+			uri = URI.create(url);
+		} catch (IllegalArgumentException e) {
+			return new LinkResult(url, -1, "HEAD", "Invalid URL: " + e.getMessage(), 0);
+		}
+		Semaphore permits = hostPermits.computeIfAbsent(String.valueOf(uri.getHost()),
+				h -> new Semaphore(maxPerHost));
+		try {
+			permits.acquire();
+			try {
+				int status = send(uri, "HEAD");
+				if (!HEAD_REJECTED.contains(status)) {
+					return new LinkResult(url, status, "HEAD", null, elapsedMillis(start));
+				}
+				return new LinkResult(url, send(uri, "GET"), "GET", null, elapsedMillis(start));
+			} finally {
+				permits.release();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return new LinkResult(url, -1, "HEAD", "Interrupted", elapsedMillis(start));
+		} catch (IOException | RuntimeException e) {
+			return new LinkResult(url, -1, "HEAD", e.getClass().getSimpleName() + ": " + e.getMessage(),
+					elapsedMillis(start));
+		}
+	}
+
+	private int send(URI uri, String method) throws IOException, InterruptedException {
+		HttpRequest request = HttpRequest.newBuilder(uri).timeout(timeout)
+				.method(method, HttpRequest.BodyPublishers.noBody()).build();
+		return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+	}
+
+	private static long elapsedMillis(long startNanos) {
+		return (System.nanoTime() - startNanos) / 1_000_000;
+	}
+
+	private static ExecutorService newExecutor() {
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException e) {
+			AtomicInteger count = new AtomicInteger();
+			return Executors.newFixedThreadPool(64, task -> {
+				Thread thread = new Thread(task, "link-checker-" + count.incrementAndGet());
+				thread.setDaemon(true);
+				return thread;
+			});
+		}
+	}
+
+	/* ==========================Results======================== */
+
+	public static final class LinkResult {
+		private final String url;
+		private final int statusCode;
+		private final String method;
+		private final String error;
+		private final long elapsedMillis;
+
+		LinkResult(String url, int statusCode, String method, String error, long elapsedMillis) {
+			this.url = url;
+			this.statusCode = statusCode;
+			this.method = method;
+			this.error = error;
+			this.elapsedMillis = elapsedMillis;
+		}
+
+		public String getUrl() {
+			return url;
+		}
+
+		/** HTTP status, or -1 if no response was received. */
+		public int getStatusCode() {
+			return statusCode;
+		}
+
+		/** The method that produced the final status: HEAD, or GET after a rejected HEAD. */
+		public String getMethod() {
+			return method;
+		}
+
+		public String getError() {
+			return error;
+		}
+
+		public long getElapsedMillis() {
+			return elapsedMillis;
+		}
+
+		public boolean isBroken() {
+			return error != null || statusCode >= 400;
+		}
+
+		@Override
+		public String toString() {
+			return url + " -> " + (error != null ? error : method + " " + statusCode) + " (" + elapsedMillis + " ms)";
+		}
+	}
+
+	public static final class LinkScan {
+		private final List<String> urls;
+		private final int emptyLinks;
+		private final int skippedLinks;
+
+		LinkScan(List<String> urls, int emptyLinks, int skippedLinks) {
+			this.urls = urls;
+			this.emptyLinks = emptyLinks;
+			this.skippedLinks = skippedLinks;
+		}
+
+		/** Unique http(s) URLs in page order. */
+		public List<String> getUrls() {
+			return urls;
+		}
+
+		/** Anchors with a missing or blank href. */
+		public int getEmptyLinks() {
+			return emptyLinks;
+		}
+
+		/** Duplicates and non-http(s) targets such as mailto: or javascript:. */
+		public int getSkippedLinks() {
+			return skippedLinks;
+		}
+	}
+}
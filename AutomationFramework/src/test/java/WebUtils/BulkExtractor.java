@@ -0,0 +1,119 @@
+package WebUtils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+/**
+ * Reads text and attributes of every element matching an XPath in a single
+ * executeScript round trip, instead of one findElements plus one getText per
+ * element.
+ *
+ * By default text is the element's trimmed textContent, which is cheap and
+ * includes hidden text. In visible-text mode it follows Selenium's getText
+ * rules more closely: hidden elements give "" and visible ones give their
+ * rendered innerText.
+ */
+public final class BulkExtractor {
+
+	private static final String EXTRACT_SCRIPT = "var xpath = arguments[0], visibleOnly = arguments[1], names = arguments[2];"
+			+ "var found = document.evaluate(xpath, document, null, XPathResult.ORDERED_NODE_SNAPSHOT_TYPE, null);"
+			+ "function shown(el) {"
+			+ "  for (var e = el; e && e.nodeType === 1; e = e.parentElement) {"
+			+ "    var style = window.getComputedStyle(e);"
+			+ "    if (style.display === 'none' || style.visibility === 'hidden' || style.opacity === '0') { return false; }"
+			+ "  }"
+			+ "  return el.getClientRects().length > 0;"
+			+ "}"
+			+ "var rows = [];"
+			+ "for (var i = 0; i < found.snapshotLength; i++) {"
+			+ "  var node = found.snapshotItem(i), isElement = node.nodeType === 1, text;"
+			+ "  if (visibleOnly && isElement) { text = shown(node) ? node.innerText || '' : ''; }"
+			+ "  else { text = node.textContent || ''; }"
+			+ "  var row = [text.replace(/^\\s+|\\s+$/g, '')];"
+			+ "  for (var j = 0; j < names.length; j++) { row.push(isElement ? node.getAttribute(names[j]) : null); }"
+			+ "  rows.push(row);"
+			+ "}"
+			+ "return rows;";
+
+	private BulkExtractor() {
+	}
+
+	/**
+	 * Text, and the named attributes, of every node matching the XPath in
+	 * document order. Drivers that cannot run scripts fall back to per-element
+	 * calls.
+	 */
+	public static List<ElementData> extract(WebDriver driver, String xpath, boolean visibleText,
+			String... attributes) {
+		Object result = null;
+		if (driver instanceof JavascriptExecutor) {
+			result = ((JavascriptExecutor) driver).executeScript(EXTRACT_SCRIPT, xpath, visibleText,
+					Arrays.asList(attributes));
+		}
+		if (!(result instanceof List)) {
+			return extractPerElement(driver, xpath, attributes);
+		}
+
+		List<?> rows = (List<?>) result;
+		List<ElementData> elements = new ArrayList<>(rows.size());
+		for (Object row : rows) {
+			List<?> cells = (List<?>) row;
+			Map<String, String> values = new LinkedHashMap<>();
+			for (int i = 0; i < attributes.length; i++) {
+				Object value = cells.get(i + 1);
+				values.put(attributes[i], value == null ? null : String.valueOf(value));
+			}
+			elements.add(new ElementData(String.valueOf(cells.get(0)), values));
+		}
+		return elements;
+	}
+
+	private static List<ElementData> extractPerElement(WebDriver driver, String xpath, String... attributes) {
+		List<ElementData> elements = new ArrayList<>();
+		for (WebElement element : driver.findElements(By.xpath(xpath))) {
+			Map<String, String> values = new LinkedHashMap<>();
+			for (String attribute : attributes) {
+				values.put(attribute, element.getDomAttribute(attribute));
+			}
+			elements.add(new ElementData(element.getText().trim(), values));
+		}
+		return elements;
+	}
+
+	public static final class ElementData {
+		private final String text;
+		private final Map<String, String> attributes;
+
+		ElementData(String text, Map<String, String> attributes) {
+			this.text = text;
+			this.attributes = Collections.unmodifiableMap(attributes);
+		}
+
+		public String getText() {
+			return text;
+		}
+
+		/** Attribute value, or null if the element does not have it or it was not requested. */
+		public String getAttribute(String name) {
+			return attributes.get(name);
+		}
+
+		public Map<String, String> getAttributes() {
+			return attributes;
+		}
+
+		@Override
+		public String toString() {
+			return attributes.isEmpty() ? text : text + " " + attributes;
+		}
+	}
+}
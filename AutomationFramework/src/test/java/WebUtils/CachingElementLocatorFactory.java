@@ -0,0 +1,104 @@
+package WebUtils;
+
+import java.lang.reflect.Field;
+import java.util.List;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.pagefactory.Annotations;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+import org.openqa.selenium.support.pagefactory.ElementLocatorFactory;
+
+/**
+ * Element locators for PageFactory that remember what they found.
+ *
+ * A field is looked up once and then served from memory until the WebUtil's
+ * page context changes (navigation, window or frame switch, new browser, see
+ * {@link WebUtil#getPageContextVersion()}) or the element goes stale. Plugged
+ * into PageFactory.initElements on its own it only gives the first part; use
+ * {@link CachingFieldDecorator} to also re-find elements that went stale
+ * because the page changed under the test, e.g. after a form submit.
+ *
+ * The @FindBy annotations are honoured as usual; @CacheLookup makes no
+ * difference because every field is cached this way.
+ *
+ * Sessions run without a driver-side implicit wait, so a single element that
+ * is not there yet is polled for with {@link WaitEngine} for up to the
+ * WebUtil's search timeout. Lists are read as they are.
+ */
+public class CachingElementLocatorFactory implements ElementLocatorFactory {
+
+	private final WebUtil we;
+
+	public CachingElementLocatorFactory(WebUtil we) {
+		this.we = we;
+	}
+
+	@Override
+	public CachingElementLocator createLocator(Field field) {
+		return new CachingElementLocator(we, new Annotations(field).buildBy());
+	}
+
+	public static class CachingElementLocator implements ElementLocator {
+		private final WebUtil we;
+		private final By by;
+		private WebElement element;
+		private long elementVersion;
+		private List<WebElement> elements;
+		private long elementsVersion;
+
+		public CachingElementLocator(WebUtil we, By by) {
+			this.we = we;
+			this.by = by;
+		}
+
+		@Override
+		public WebElement findElement() {
+			long version = we.getPageContextVersion();
+			if (element == null || elementVersion != version) {
+				element = find();
+				elementVersion = version;
+			}
+			return element;
+		}
+
+		private WebElement find() {
+			try {
+				return WaitEngine.until("findElement", we.getSearchTimeout(), () -> we.getDriver().findElement(by));
+			} catch (TimeoutException e) {
+				if (e.getCause() instanceof NoSuchElementException) {
+					throw (NoSuchElementException) e.getCause();
+				}
+				throw e;
+			}
+		}
+
+		@Override
+		public List<WebElement> findElements() {
+			long version = we.getPageContextVersion();
+			if (elements == null || elementsVersion != version) {
+				elements = we.getDriver().findElements(by);
+				elementsVersion = version;
+			}
+			return elements;
+		}
+
+		/** True if the next findElement call will be answered from memory. */
+		public boolean isElementCached() {
+			return element != null && elementVersion == we.getPageContextVersion();
+		}
+
+		/** Forgets whatever was found so the next call searches the page again. */
+		public void invalidate() {
+			element = null;
+			elements = null;
+		}
+
+		@Override
+		public String toString() {
+			return "Caching locator for " + by;
+		}
+	}
+}
@@ -0,0 +1,42 @@
+package WebUtils;
+
+import java.util.List;
+
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.PageFactory;
+import org.openqa.selenium.support.pagefactory.DefaultFieldDecorator;
+import org.openqa.selenium.support.pagefactory.ElementLocator;
+
+import WebUtils.CachingElementLocatorFactory.CachingElementLocator;
+
+/**
+ * PageFactory decorator for {@link CachingElementLocatorFactory} whose
+ * elements recover from stale references.
+ *
+ * When a call on a remembered element fails because the element went stale,
+ * or is not known in the current frame, the cached reference is dropped, the
+ * element is found again and the call is retried once. Elements taken from a
+ * List field behave the same way, each re-found by its position in the list.
+ * See {@link ResolvingElement}.
+ */
+public class CachingFieldDecorator extends DefaultFieldDecorator {
+
+	public CachingFieldDecorator(CachingElementLocatorFactory factory) {
+		super(factory);
+	}
+
+	/** PageFactory.initElements with cached, self-healing element lookups. */
+	public static void initElements(WebUtil we, Object page) {
+		PageFactory.initElements(new CachingFieldDecorator(new CachingElementLocatorFactory(we)), page);
+	}
+
+	@Override
+	protected WebElement proxyForLocator(ClassLoader loader, ElementLocator locator) {
+		return new ResolvingElement((CachingElementLocator) locator);
+	}
+
+	@Override
+	protected List<WebElement> proxyForListLocator(ClassLoader loader, ElementLocator locator) {
+		return new ResolvingElementList((CachingElementLocator) locator);
+	}
+}
@@ -0,0 +1,282 @@
+package WebUtils;
+
+import java.util.Locale;
+
+import org.openqa.selenium.InvalidSelectorException;
+
+/**
+ * Translates CSS selectors into XPath 1.0 for {@link InMemoryWebDriver}.
+ *
+ * Supports type, universal, #id and .class selectors; attribute selectors with
+ * =, ~=, |=, ^=, $= and *=; the descendant, child (&gt;), adjacent (+) and
+ * sibling (~) combinators; selector lists; and :first-child, :last-child,
+ * :nth-child(n), :checked, :disabled, :enabled and :not(simple selector).
+ * Anything else throws InvalidSelectorException, as a browser would for a
+ * selector it cannot parse.
+ */
+final class CssSelectors {
+
+	private final String css;
+	private int pos;
+
+	private CssSelectors(String css) {
+		this.css = css.trim();
+	}
+
+	/**
+	 * XPath matching the same elements as the selector.
+	 *
+	 * @param relative true to search below a context element (".//"), false to
+	 *                 search the whole document ("//")
+	 */
+	static String toXPath(String css, boolean relative) {
+		return new CssSelectors(css).selectorList(relative ? ".//" : "//");
+	}
+
+	private String selectorList(String prefix) {
+		StringBuilder xpath = new StringBuilder();
+		while (true) {
+			skipWhitespace();
+			if (xpath.length() > 0) {
+				xpath.append(" | ");
+			}
+			xpath.append(prefix).append(complexSelector());
+			skipWhitespace();
+			if (pos >= css.length()) {
+				return xpath.toString();
+			}
+			expect(',');
+		}
+	}
+
+	private String complexSelector() {
+		StringBuilder xpath = new StringBuilder(compoundSelector());
+		while (true) {
+			boolean whitespace = skipWhitespace();
+			char c = peek();
+			if (c == '\0' || c == ',' || c == ')') {
+				return xpath.toString();
+			}
+			if (c == '>') {
+				pos++;
+				skipWhitespace();
+				xpath.append('/').append(compoundSelector());
+			} else if (c == '+') {
+				pos++;
+				skipWhitespace();
+				String next = compoundSelector();
+				xpath.append("/following-sibling::*[1]/self::").append(next);
+			} else if (c == '~') {
+				pos++;
+				skipWhitespace();
+				xpath.append("/following-sibling::").append(compoundSelector());
+			} else if (whitespace) {
+				xpath.append("//").append(compoundSelector());
+			} else {
+				throw invalid("unexpected '" + c + "'");
+			}
+		}
+	}
+
+	/** One compound selector as an XPath node test plus predicates, e.g. input[@name='q']. */
+	private String compoundSelector() {
+		StringBuilder xpath = new StringBuilder();
+		int start = pos;
+		char c = peek();
+		if (c == '*') {
+			pos++;
+			xpath.append('*');
+		} else if (isIdentifierStart(c)) {
+			xpath.append(identifier().toLowerCase(Locale.ROOT));
+		} else {
+			xpath.append('*');
+		}
+		while (true) {
+			c = peek();
+			if (c == '#') {
+				pos++;
+				xpath.append("[@id=").append(literal(identifier())).append(']');
+			} else if (c == '.') {
+				pos++;
+				xpath.append('[').append(containsWord("@class", identifier())).append(']');
+			} else if (c == '[') {
+				pos++;
+				xpath.append('[').append(attributeSelector()).append(']');
+			} else if (c == ':') {
+				pos++;
+				xpath.append('[').append(pseudoClass()).append(']');
+			} else {
+				break;
+			}
+		}
+		if (pos == start) {
+			throw invalid("expected a selector");
+		}
+		return xpath.toString();
+	}
+
+	private String attributeSelector() {
+		skipWhitespace();
+		String attribute = "@" + identifier().toLowerCase(Locale.ROOT);
+		skipWhitespace();
+		if (peek() == ']') {
+			pos++;
+			return attribute;
+		}
+		String operator;
+		char c = peek();
+		if (c == '=') {
+			operator = "=";
+			pos++;
+		} else if ("~|^$*".indexOf(c) >= 0 && charAt(pos + 1) == '=') {
+			operator = c + "=";
+			pos += 2;
+		} else {
+			throw invalid("bad attribute selector");
+		}
+		skipWhitespace();
+		String value = peek() == '"' || peek() == '\'' ? quoted() : identifier();
+		skipWhitespace();
+		if (Character.toLowerCase(peek()) == 'i' || Character.toLowerCase(peek()) == 's') {
+			throw invalid("attribute selector flags are not supported");
+		}
+		expect(']');
+		String v = literal(value);
+		switch (operator) {
+		case "=":
+			return attribute + "=" + v;
+		case "~=":
+			return containsWord(attribute, value);
+		case "|=":
+			return attribute + "=" + v + " or starts-with(" + attribute + ", " + literal(value + "-") + ")";
+		case "^=":
+			return "starts-with(" + attribute + ", " + v + ")";
+		case "$=":
+			return "substring(" + attribute + ", string-length(" + attribute + ") - string-length(" + v
+					+ ") + 1) = " + v;
+		default:
+			return "contains(" + attribute + ", " + v + ")";
+		}
+	}
+
+	private String pseudoClass() {
+		String name = identifier().toLowerCase(Locale.ROOT);
+		switch (name) {
+		case "first-child":
+			return "not(preceding-sibling::*)";
+		case "last-child":
+			return "not(following-sibling::*)";
+		case "checked":
+			return "@checked or @selected";
+		case "disabled":
+			return "@disabled";
+		case "enabled":
+			return "not(@disabled)";
+		case "nth-child":
+			expect('(');
+			skipWhitespace();
+			int start = pos;
+			while (Character.isDigit(peek())) {
+				pos++;
+			}
+			if (start == pos) {
+				throw invalid(":nth-child only supports a plain number");
+			}
+			int n = Integer.parseInt(css.substring(start, pos));
+			skipWhitespace();
+			expect(')');
+			return "count(preceding-sibling::*) = " + (n - 1);
+		case "not":
+			expect('(');
+			skipWhitespace();
+			String inner = compoundSelector();
+			skipWhitespace();
+			expect(')');
+			return "not(self::" + inner + ")";
+		default:
+			throw invalid("unsupported pseudo-class :" + name);
+		}
+	}
+
+	/* ==========================Tokenizing======================== */
+
+	private String identifier() {
+		StringBuilder out = new StringBuilder();
+		while (pos < css.length()) {
+			char c = css.charAt(pos);
+			if (c == '\\' && pos + 1 < css.length()) {
+				out.append(css.charAt(pos + 1));
+				pos += 2;
+			} else if (Character.isLetterOrDigit(c) || c == '-' || c == '_' || c > 0x7f) {
+				out.append(c);
+				pos++;
+			} else {
+				break;
+			}
+		}
+		if (out.length() == 0) {
+			throw invalid("expected a name");
+		}
+		return out.toString();
+	}
+
+	private String quoted() {
+		char quote = css.charAt(pos++);
+		StringBuilder out = new StringBuilder();
+		while (pos < css.length() && css.charAt(pos) != quote) {
+			char c = css.charAt(pos++);
+			if (c == '\\' && pos < css.length()) {
+				c = css.charAt(pos++);
+			}
+			out.append(c);
+		}
+		expect(quote);
+		return out.toString();
+	}
+
+	private boolean skipWhitespace() {
+		int start = pos;
+		while (pos < css.length() && Character.isWhitespace(css.charAt(pos))) {
+			pos++;
+		}
+		return pos > start;
+	}
+
+	private void expect(char c) {
+		if (peek() != c) {
+			throw invalid("expected '" + c + "'");
+		}
+		pos++;
+	}
+
+	private char peek() {
+		return charAt(pos);
+	}
+
+	private char charAt(int index) {
+		return index < css.length() ? css.charAt(index) : '\0';
+	}
+
+	private static boolean isIdentifierStart(char c) {
+		return Character.isLetter(c) || c == '_' || c == '-' || c == '\\' || c > 0x7f;
+	}
+
+	private InvalidSelectorException invalid(String reason) {
+		return new InvalidSelectorException("Invalid CSS selector '" + css + "' at " + pos + ": " + reason);
+	}
+
+	private static String containsWord(String attribute, String word) {
+		return "contains(concat(' ', normalize-space(" + attribute + "), ' '), " + literal(" " + word + " ") + ")";
+	}
+
+	/** XPath string literal for any text, including text with both kinds of quote. */
+	static String literal(String text) {
+		if (text.indexOf('\'') < 0) {
+			return "'" + text + "'";
+		}
+		if (text.indexOf('"') < 0) {
+			return "\"" + text + "\"";
+		}
+		return "concat('" + text.replace("'", "', \"'\", '") + "')";
+	}
+}
@@ -0,0 +1,425 @@
+package WebUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+
+import org.openqa.selenium.InvalidSelectorException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.w3c.dom.DOMException;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import com.aventstack.extentreports.Status;
+
+/**
+ * Copy of the current page's DOM, taken in one script call, for read-only
+ * lookups and assertions that then run locally without further round trips.
+ *
+ * Each element carries the attributes it had plus what the browser computed
+ * at capture time: displayed, enabled, selected/checked and the live value of
+ * form fields. Visible text is rebuilt from displayed descendants, close to
+ * but not exactly what getText returns (block elements and br give line
+ * breaks, whitespace is collapsed). XPath queries run with the JDK's XPath 1.0
+ * engine against this copy; the contents of iframes and shadow roots are not
+ * included.
+ *
+ * Refresh rules: a snapshot is a picture of one moment.
+ * <ul>
+ * <li>After any action that can change the page (click, typing, script,
+ * waiting for something to load) take a new one.</li>
+ * <li>Once WebUtil has navigated or switched window or frame since the capture,
+ * every lookup throws IllegalStateException instead of answering from the old
+ * page.</li>
+ * <li>When unsure, {@link #hasPageChanged()} asks the browser, in one cheap
+ * call, whether the URL or any part of the DOM has changed since capture.</li>
+ * </ul>
+ */
+public final class DomSnapshot {
+
+	private static final String CAPTURE_SCRIPT = "var SKIP = { script: 1, style: 1, noscript: 1, template: 1 };"
+			+ "var BLOCK = /^(block|flex|grid|list-item|table|table-row|table-caption|flow-root)$/;"
+			+ "function walk(el, ancestorsShown, parentShown) {"
+			+ "  var style = window.getComputedStyle(el), tag = el.localName;"
+			+ "  var shown = tag === 'option' || tag === 'optgroup' ? parentShown"
+			+ "    : ancestorsShown && style.display !== 'none' && style.opacity !== '0'"
+			+ "      && style.visibility !== 'hidden' && el.getClientRects().length > 0;"
+			+ "  var flags = (shown ? 1 : 0) | (el.matches(':disabled') ? 0 : 2)"
+			+ "    | (el.selected || el.checked ? 4 : 0) | (BLOCK.test(style.display) ? 8 : 0);"
+			+ "  var attrs = [];"
+			+ "  for (var i = 0; i < el.attributes.length; i++) { attrs.push(el.attributes[i].name, el.attributes[i].value); }"
+			+ "  var value = tag === 'input' || tag === 'textarea' || tag === 'select' ? el.value : null;"
+			+ "  var children = [], below = ancestorsShown && style.display !== 'none' && style.opacity !== '0';"
+			+ "  if (!SKIP[tag]) {"
+			+ "    for (var c = el.firstChild; c; c = c.nextSibling) {"
+			+ "      if (c.nodeType === 1) { children.push(walk(c, below, shown)); }"
+			+ "      else if (c.nodeType === 3 && c.nodeValue) { children.push(c.nodeValue); }"
+			+ "    }"
+			+ "  }"
+			+ "  return [tag, attrs, flags, value, children];"
+			+ "}"
+			+ "if (window.__domSnapshotObserver) { window.__domSnapshotObserver.disconnect(); }"
+			+ "var state = { token: Math.random().toString(36).slice(2), changes: 0 };"
+			+ "window.__domSnapshotState = state;"
+			+ "window.__domSnapshotObserver = new MutationObserver(function (records) { state.changes += records.length; });"
+			+ "window.__domSnapshotObserver.observe(document.documentElement,"
+			+ "  { subtree: true, childList: true, attributes: true, characterData: true });"
+			+ "return [location.href, document.title, state.token, walk(document.documentElement, true, true)];";
+
+	private static final String CHECK_SCRIPT = "var state = window.__domSnapshotState;"
+			+ "return state ? [location.href, state.token, state.changes] : [location.href, null, 0];";
+
+	private static final int DISPLAYED = 1;
+	private static final int ENABLED = 2;
+	private static final int SELECTED = 4;
+	private static final int BLOCK = 8;
+	private static final String DATA_KEY = "snapshot";
+
+	private final WebUtil we;
+	private final BiConsumer<Status, String> logger;
+	private final long contextVersion;
+	private final String url;
+	private final String title;
+	private final String token;
+	private final Document document;
+	private final XPath xpath = XPathFactory.newInstance().newXPath();
+	private final long captureMillis;
+	private int elementCount;
+
+	private DomSnapshot(WebUtil we, BiConsumer<Status, String> logger, List<?> captured, long captureMillis) {
+		this.we = we;
+		this.logger = logger;
+		this.contextVersion = we.getPageContextVersion();
+		this.url = String.valueOf(captured.get(0));
+		this.title = String.valueOf(captured.get(1));
+		this.token = String.valueOf(captured.get(2));
+		this.captureMillis = captureMillis;
+		try {
+			this.document = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+		} catch (ParserConfigurationException e) {
+			throw new IllegalStateException("No XML DOM implementation available", e);
+		}
+		document.appendChild(build((List<?>) captured.get(3)));
+	}
+
+	/** Captures the page the WebUtil's driver is on; failures are reported through the logger if given. */
+	public static DomSnapshot capture(WebUtil we, BiConsumer<Status, String> logger) {
+		long start = System.nanoTime();
+		List<?> captured = (List<?>) ((JavascriptExecutor) we.getDriver()).executeScript(CAPTURE_SCRIPT);
+		return new DomSnapshot(we, logger, captured, (System.nanoTime() - start) / 1_000_000);
+	}
+
+	private Element build(List<?> node) {
+		Element element;
+		try {
+			element = document.createElement(String.valueOf(node.get(0)));
+		} catch (DOMException e) {
+			element = document.createElement("unknown");
+		}
+		List<?> attributes = (List<?>) node.get(1);
+		for (int i = 0; i + 1 < attributes.size(); i += 2) {
+			try {
+				element.setAttribute(String.valueOf(attributes.get(i)), String.valueOf(attributes.get(i + 1)));
+			} catch (DOMException e) {
+				// attribute names such as "@click" are fine in HTML but not in XML
+			}
+		}
+		Object value = node.get(3);
+		element.setUserData(DATA_KEY, new SnapshotElement(element, ((Number) node.get(2)).intValue(),
+				value == null ? null : String.valueOf(value)), null);
+		elementCount++;
+		for (Object child : (List<?>) node.get(4)) {
+			if (child instanceof List) {
+				element.appendChild(build((List<?>) child));
+			} else {
+				element.appendChild(document.createTextNode(String.valueOf(child)));
+			}
+		}
+		return element;
+	}
+
+	/* ==========================Freshness======================== */
+
+	/**
+	 * One round trip: true if the URL changed, the page was reloaded or the DOM
+	 * was modified in any way since this snapshot was taken. Only the most
+	 * recent snapshot of a page can tell; older ones always report a change.
+	 */
+	public boolean hasPageChanged() {
+		if (!isContextCurrent()) {
+			return true;
+		}
+		List<?> state = (List<?>) ((JavascriptExecutor) we.getDriver()).executeScript(CHECK_SCRIPT);
+		return !url.equals(String.valueOf(state.get(0))) || !token.equals(String.valueOf(state.get(1)))
+				|| ((Number) state.get(2)).longValue() > 0;
+	}
+
+	/** False once WebUtil has navigated or switched window or frame since the capture. No round trip. */
+	public boolean isContextCurrent() {
+		return contextVersion == we.getPageContextVersion();
+	}
+
+	/** A new snapshot of whatever the browser shows now. */
+	public DomSnapshot refresh() {
+		return capture(we, logger);
+	}
+
+	/* ==========================Queries======================== */
+
+	public String getUrl() {
+		return url;
+	}
+
+	public String getTitle() {
+		return title;
+	}
+
+	public int getElementCount() {
+		return elementCount;
+	}
+
+	/** How long the capture script and transfer took. */
+	public long getCaptureMillis() {
+		return captureMillis;
+	}
+
+	/** Elements matching the XPath, in document order; empty if none. */
+	public List<SnapshotElement> findAll(String xpathExpression) {
+		if (!isContextCurrent()) {
+			throw new IllegalStateException("DOM snapshot of " + url
+					+ " is out of date: the browser has navigated or switched window or frame since it was taken");
+		}
+		NodeList nodes;
+		try {
+			nodes = (NodeList) xpath.evaluate(xpathExpression, document, XPathConstants.NODESET);
+		} catch (XPathExpressionException e) {
+			throw new InvalidSelectorException("Invalid XPath for DOM snapshot: " + xpathExpression, e);
+		}
+		List<SnapshotElement> elements = new ArrayList<>(nodes.getLength());
+		for (int i = 0; i < nodes.getLength(); i++) {
+			Object data = nodes.item(i).getUserData(DATA_KEY);
+			if (data != null) {
+				elements.add((SnapshotElement) data);
+			}
+		}
+		return elements;
+	}
+
+	/** First element matching the XPath. */
+	public SnapshotElement find(String xpathExpression) {
+		List<SnapshotElement> elements = findAll(xpathExpression);
+		if (elements.isEmpty()) {
+			throw new NoSuchElementException("No element in DOM snapshot of " + url + " for XPath: " + xpathExpression);
+		}
+		return elements.get(0);
+	}
+
+	/* ==========================Validations======================== */
+
+	public boolean validateInnerText(String xpathExpression, String expectedText, String elementName) {
+		try {
+			String actualText = find(xpathExpression).getText();
+			boolean passed = actualText.equalsIgnoreCase(expectedText);
+			log(passed ? Status.PASS : Status.FAIL, "Validation " + (passed ? "passed" : "failed") + " for "
+					+ elementName + ". Actual: '" + actualText + "', Expected: '" + expectedText + "'");
+			return passed;
+		} catch (RuntimeException e) {
+			log(Status.FAIL, "Exception while validating text for " + elementName + ": " + e.getMessage());
+			return false;
+		}
+	}
+
+	public boolean validateAttribute(String xpathExpression, String expectedAttribute, String attributeName,
+			String elementName) {
+		try {
+			String actualAttribute = find(xpathExpression).getAttribute(attributeName);
+			boolean passed = actualAttribute != null && actualAttribute.equalsIgnoreCase(expectedAttribute);
+			log(passed ? Status.PASS : Status.FAIL, "Validation " + (passed ? "passed" : "failed")
+					+ " for attribute '" + attributeName + "' of " + elementName + ". Actual: '" + actualAttribute
+					+ "', Expected: '" + expectedAttribute + "'");
+			return passed;
+		} catch (RuntimeException e) {
+			log(Status.FAIL, "Exception while validating attribute '" + attributeName + "' for " + elementName + ": "
+					+ e.getMessage());
+			return false;
+		}
+	}
+
+	public boolean validateElementIsVisible(String xpathExpression, String elementName) {
+		try {
+			boolean visible = find(xpathExpression).isDisplayed();
+			log(visible ? Status.PASS : Status.FAIL,
+					elementName + (visible ? " is visible on the page." : " is NOT visible on the page."));
+			return visible;
+		} catch (RuntimeException e) {
+			log(Status.FAIL, "Exception while verifying visibility of " + elementName + ": " + e.getMessage());
+			return false;
+		}
+	}
+
+	public boolean validateElementIsEnabled(String xpathExpression, String elementName) {
+		try {
+			boolean enabled = find(xpathExpression).isEnabled();
+			log(enabled ? Status.PASS : Status.FAIL,
+					elementName + (enabled ? " is enabled." : " is NOT enabled."));
+			return enabled;
+		} catch (RuntimeException e) {
+			log(Status.FAIL, "Exception while verifying " + elementName + " is enabled: " + e.getMessage());
+			return false;
+		}
+	}
+
+	public boolean validateDropDownSelectedText(String xpathExpression, String expectedSelectedText) {
+		try {
+			List<SnapshotElement> selected = findAll("(" + xpathExpression + ")[1]//option");
+			String actualSelectedText = null;
+			for (SnapshotElement option : selected) {
+				if (option.isSelected()) {
+					actualSelectedText = option.getTextContent();
+					break;
+				}
+			}
+			boolean passed = actualSelectedText != null && actualSelectedText.equalsIgnoreCase(expectedSelectedText);
+			log(passed ? Status.PASS : Status.FAIL, "Dropdown selected text validation "
+					+ (passed ? "passed" : "failed") + ". Actual: '" + actualSelectedText + "' | Expected: '"
+					+ expectedSelectedText + "'");
+			return passed;
+		} catch (RuntimeException e) {
+			log(Status.FAIL, "Exception during dropdown selected text validation: " + e.getMessage());
+			return false;
+		}
+	}
+
+	public boolean validatePageTitle(String expectedTitle) {
+		boolean passed = title.equalsIgnoreCase(expectedTitle);
+		log(passed ? Status.PASS : Status.FAIL, "Page title validation " + (passed ? "passed" : "failed")
+				+ ". Actual: '" + title + "' | Expected: '" + expectedTitle + "'");
+		return passed;
+	}
+
+	private void log(Status status, String details) {
+		if (logger != null) {
+			logger.accept(status, details);
+		}
+	}
+
+	/* ==========================Elements======================== */
+
+	/** One element of a {@link DomSnapshot}; every getter answers from memory. */
+	public static final class SnapshotElement {
+		private final Element element;
+		private final int flags;
+		private final String value;
+		private String text;
+
+		private SnapshotElement(Element element, int flags, String value) {
+			this.element = element;
+			this.flags = flags;
+			this.value = value;
+		}
+
+		public String getTagName() {
+			return element.getTagName();
+		}
+
+		/** Attribute as written in the page, or null if absent (compare getDomAttribute). */
+		public String getAttribute(String name) {
+			return element.hasAttribute(name) ? element.getAttribute(name) : null;
+		}
+
+		public Map<String, String> getAttributes() {
+			Map<String, String> attributes = new LinkedHashMap<>();
+			for (int i = 0; i < element.getAttributes().getLength(); i++) {
+				Node attribute = element.getAttributes().item(i);
+				attributes.put(attribute.getNodeName(), attribute.getNodeValue());
+			}
+			return Collections.unmodifiableMap(attributes);
+		}
+
+		/** Current value of an input, textarea or select; null for other elements. */
+		public String getValue() {
+			return value;
+		}
+
+		public boolean isDisplayed() {
+			return (flags & DISPLAYED) != 0;
+		}
+
+		public boolean isEnabled() {
+			return (flags & ENABLED) != 0;
+		}
+
+		/** Checked checkbox or radio button, or selected option. */
+		public boolean isSelected() {
+			return (flags & SELECTED) != 0;
+		}
+
+		/** Visible text, "" if the element is not displayed. */
+		public String getText() {
+			if (text == null) {
+				StringBuilder out = new StringBuilder();
+				if (isDisplayed()) {
+					appendVisibleText(element, out);
+				}
+				text = normalize(out);
+			}
+			return text;
+		}
+
+		/** All text below the element, hidden or not, with whitespace collapsed. */
+		public String getTextContent() {
+			return element.getTextContent().replaceAll("\\s+", " ").trim();
+		}
+
+		private static void appendVisibleText(Element element, StringBuilder out) {
+			for (Node child = element.getFirstChild(); child != null; child = child.getNextSibling()) {
+				if (child.getNodeType() == Node.TEXT_NODE) {
+					out.append(child.getNodeValue());
+					continue;
+				}
+				SnapshotElement data = (SnapshotElement) child.getUserData(DATA_KEY);
+				if ("br".equals(child.getNodeName())) {
+					out.append('\n');
+				} else if (data != null && data.isDisplayed()) {
+					boolean block = (data.flags & BLOCK) != 0;
+					if (block) {
+						out.append('\n');
+					}
+					appendVisibleText((Element) child, out);
+					if (block) {
+						out.append('\n');
+					}
+				}
+			}
+		}
+
+		private static String normalize(CharSequence raw) {
+			StringBuilder out = new StringBuilder();
+			for (String line : raw.toString().split("\n")) {
+				String collapsed = line.replaceAll("[ \\t\\r\\f\\u00a0]+", " ").trim();
+				if (!collapsed.isEmpty()) {
+					out.append(out.length() == 0 ? "" : "\n").append(collapsed);
+				}
+			}
+			return out.toString();
+		}
+
+		@Override
+		public String toString() {
+			return "<" + getTagName() + " " + getAttributes() + ">";
+		}
+	}
+}
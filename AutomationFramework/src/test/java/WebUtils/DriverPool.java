@@ -0,0 +1,260 @@
+package WebUtils;
+
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openqa.selenium.PageLoadStrategy;
+
+import com.aventstack.extentreports.ExtentTest;
+
+/**
+ * Hands out one {@link WebUtil} (and so one WebDriver session) per test thread.
+ * The number of live sessions per browser type is capped, so parallel suites
+ * scale with the runner without opening more browsers than it can hold.
+ *
+ * Usage: {@link #lease} in @BeforeMethod, {@link #current} inside the test,
+ * {@link #release} in @AfterMethod and {@link #shutdown} in @AfterSuite.
+ *
+ * With {@link #setRecycleSessions} enabled, released sessions are reset with
+ * {@link WebUtil#resetSession()} and kept warm for the next lease instead of
+ * being quit. A session is quit instead when its reset fails or it has served
+ * the configured number of tests.
+ */
+public final class DriverPool {
+
+	private static final int DEFAULT_MAX_SESSIONS = Integer.getInteger("driver.pool.max",
+			Runtime.getRuntime().availableProcessors());
+	private static final long LEASE_TIMEOUT_SECONDS = Long.getLong("driver.pool.leaseTimeout", 600);
+
+	private static final Map<String, Integer> LIMITS = new ConcurrentHashMap<>();
+	private static final Map<String, Semaphore> PERMITS = new ConcurrentHashMap<>();
+	private static final Map<String, Deque<Session>> IDLE = new ConcurrentHashMap<>();
+	private static final Set<Session> ACTIVE = ConcurrentHashMap.newKeySet();
+	private static final ThreadLocal<Session> LEASED = new ThreadLocal<>();
+
+	private static volatile boolean recycleSessions = Boolean.getBoolean("driver.pool.recycle");
+	private static volatile int maxSessionUses = Integer.getInteger("driver.pool.maxUses", 20);
+	private static volatile ExecutionProfile profile = ExecutionProfile.fromName(System.getProperty("driver.profile"));
+	private static volatile PageLoadStrategy pageLoadStrategy = PageLoadStrategy
+			.fromString(System.getProperty("driver.pageLoadStrategy", "normal"));
+
+	private static final AtomicLong launches = new AtomicLong();
+	private static final AtomicLong launchNanos = new AtomicLong();
+	private static final AtomicLong reuses = new AtomicLong();
+	private static final AtomicLong resetNanos = new AtomicLong();
+	private static final AtomicLong failedResets = new AtomicLong();
+
+	private DriverPool() {
+	}
+
+	/* ==========================Configuration======================== */
+
+	/**
+	 * Caps the number of concurrent sessions for a browser type. Must be called
+	 * before the first lease of that browser; repeating the same value is a no-op.
+	 * Without it the limit is -Ddriver.pool.max, defaulting to the number of cores.
+	 */
+	public static void setMaxSessions(String browserName, int maxSessions) {
+		if (maxSessions < 1) {
+			throw new IllegalArgumentException("maxSessions must be at least 1: " + maxSessions);
+		}
+		Integer existing = LIMITS.putIfAbsent(key(browserName), maxSessions);
+		if (existing != null && existing != maxSessions) {
+			throw new IllegalStateException("Pool for " + browserName + " is already sized at " + existing);
+		}
+	}
+
+	public static int getMaxSessions(String browserName) {
+		return LIMITS.getOrDefault(key(browserName), DEFAULT_MAX_SESSIONS);
+	}
+
+	/**
+	 * Keeps released sessions warm for reuse. Each session serves at most
+	 * maxUses tests before it is replaced by a fresh one.
+	 */
+	public static void setRecycleSessions(boolean enabled, int maxUses) {
+		if (maxUses < 1) {
+			throw new IllegalArgumentException("maxUses must be at least 1: " + maxUses);
+		}
+		recycleSessions = enabled;
+		maxSessionUses = maxUses;
+	}
+
+	/** Profile new sessions are launched with; sessions already running keep theirs. */
+	public static void setExecutionProfile(ExecutionProfile executionProfile) {
+		profile = executionProfile;
+	}
+
+	public static ExecutionProfile getExecutionProfile() {
+		return profile;
+	}
+
+	/** Page-load strategy (normal, eager or none) new sessions are launched with. */
+	public static void setPageLoadStrategy(PageLoadStrategy strategy) {
+		pageLoadStrategy = strategy;
+	}
+
+	/* ==========================Lease / Return======================== */
+
+	/**
+	 * Hands the calling thread a browser session, reusing a warm one when
+	 * recycling is enabled and launching a new one otherwise. Blocks while the
+	 * browser type is at its session limit.
+	 */
+	public static WebUtil lease(String browserName, int timeInSeconds, ExtentTest et) {
+		if (LEASED.get() != null) {
+			throw new IllegalStateException("Thread " + Thread.currentThread().getName()
+					+ " already holds a browser session; release it first");
+		}
+		Semaphore permits = permits(browserName);
+		long waitStart = System.nanoTime();
+		try {
+			if (!permits.tryAcquire(LEASE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+				throw new IllegalStateException("Timed out after " + LEASE_TIMEOUT_SECONDS
+						+ "s waiting for a free " + browserName + " session");
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for a " + browserName + " session", e);
+		} finally {
+			TraceRecorder.complete("wait for " + browserName + " session", "pool", waitStart);
+		}
+
+		try {
+			Session session = idle(browserName).pollFirst();
+			if (session != null) {
+				session.webUtil.setExtentTest(et);
+				FailureRecorder recorder = session.webUtil.getFailureRecorder();
+				if (recorder != null) {
+					// earlier tests' actions, and the reset after them, are not this test's context
+					recorder.clear();
+				}
+				reuses.incrementAndGet();
+			} else {
+				WebUtil wu = new WebUtil(et);
+				long start = System.nanoTime();
+				wu.launchBrowser(browserName, timeInSeconds, profile, pageLoadStrategy);
+				launchNanos.addAndGet(System.nanoTime() - start);
+				launches.incrementAndGet();
+				session = new Session(key(browserName), wu);
+			}
+			session.uses++;
+			ACTIVE.add(session);
+			LEASED.set(session);
+			return session.webUtil;
+		} catch (RuntimeException e) {
+			permits.release();
+			throw e;
+		}
+	}
+
+	/** The session leased by the calling thread, or null if it holds none. */
+	public static WebUtil current() {
+		Session session = LEASED.get();
+		return session == null ? null : session.webUtil;
+	}
+
+	/**
+	 * Returns the calling thread's session to the pool, or quits it when
+	 * recycling is off, its reset fails or it has reached its use limit.
+	 */
+	public static void release() {
+		Session session = LEASED.get();
+		if (session == null) {
+			return;
+		}
+		LEASED.remove();
+		try {
+			if (recycleSessions && session.uses < maxSessionUses && reset(session)) {
+				idle(session.browser).offerFirst(session);
+			} else {
+				session.webUtil.quitBrowser();
+			}
+		} finally {
+			ACTIVE.remove(session);
+			permits(session.browser).release();
+		}
+	}
+
+	/** Quits every session, idle or still out on lease, e.g. from threads that died mid-test. */
+	public static void shutdown() {
+		release();
+		for (Session session : ACTIVE) {
+			if (ACTIVE.remove(session)) {
+				try {
+					session.webUtil.quitBrowser();
+				} finally {
+					permits(session.browser).release();
+				}
+			}
+		}
+		for (Deque<Session> sessions : IDLE.values()) {
+			Session session;
+			while ((session = sessions.pollFirst()) != null) {
+				session.webUtil.quitBrowser();
+			}
+		}
+	}
+
+	/* ==========================Recycling Statistics======================== */
+
+	/**
+	 * Browser start-up time avoided by reusing sessions, net of the time spent
+	 * resetting them. Estimated from the average measured launch time.
+	 */
+	public static long getStartupTimeSavedMillis() {
+		long launched = launches.get();
+		if (launched == 0) {
+			return 0;
+		}
+		long saved = reuses.get() * (launchNanos.get() / launched) - resetNanos.get();
+		return TimeUnit.NANOSECONDS.toMillis(saved);
+	}
+
+	public static String getStatsSummary() {
+		long launched = launches.get();
+		long avgLaunchMillis = launched == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(launchNanos.get() / launched);
+		return "Browser sessions launched: " + launched + " (avg " + avgLaunchMillis + " ms), reused: "
+				+ reuses.get() + ", failed resets: " + failedResets.get() + ", startup time saved: "
+				+ getStartupTimeSavedMillis() + " ms";
+	}
+
+	private static boolean reset(Session session) {
+		long start = System.nanoTime();
+		boolean clean = session.webUtil.resetSession();
+		resetNanos.addAndGet(System.nanoTime() - start);
+		if (!clean) {
+			failedResets.incrementAndGet();
+		}
+		return clean;
+	}
+
+	private static Deque<Session> idle(String browserName) {
+		return IDLE.computeIfAbsent(key(browserName), b -> new ConcurrentLinkedDeque<>());
+	}
+
+	private static Semaphore permits(String browserName) {
+		return PERMITS.computeIfAbsent(key(browserName), b -> new Semaphore(getMaxSessions(b), true));
+	}
+
+	private static String key(String browserName) {
+		return browserName.toLowerCase();
+	}
+
+	private static final class Session {
+		private final String browser;
+		private final WebUtil webUtil;
+		private int uses;
+
+		private Session(String browser, WebUtil webUtil) {
+			this.browser = browser;
+			this.webUtil = webUtil;
+		}
+	}
+}
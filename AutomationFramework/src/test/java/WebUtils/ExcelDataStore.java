@@ -0,0 +1,216 @@
+package WebUtils;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Process-wide cache of Excel test data. Each workbook sheet is parsed once
+ * into header-keyed rows indexed by TestCaseID (column 0, case-insensitive).
+ * A cached sheet is re-read when the file's modification time or size changes.
+ *
+ * Safe for concurrent readers: cached sheets are immutable, and a sheet that
+ * several threads ask for at once is only parsed by one of them. The others
+ * wait for that sheet alone; parsing happens outside the map, so lookups of
+ * other sheets never wait on it.
+ *
+ * Unless -Dexcel.snapshot=false, a parsed sheet is also written out as an
+ * {@link ExcelSnapshot}, and later JVMs map that snapshot instead of parsing
+ * the workbook as long as the workbook content is unchanged. POI is only
+ * loaded when a sheet actually has to be parsed. A snapshot that cannot be
+ * read or written is not an error, since the workbook is parsed instead; it
+ * is passed to {@link #setWarningHandler}, which prints to stderr by default.
+ */
+public final class ExcelDataStore {
+
+	private static final boolean USE_SNAPSHOTS = Boolean
+			.parseBoolean(System.getProperty("excel.snapshot", "true"));
+
+	private static final Map<String, CachedSheet> CACHE = new ConcurrentHashMap<>();
+	private static volatile Consumer<String> warnings = System.err::println;
+
+	private ExcelDataStore() {
+	}
+
+	/**
+	 * Header-keyed values of the row whose TestCaseID matches, or an empty map
+	 * if there is none. The returned map is read-only.
+	 */
+	public static Map<String, String> getRow(String excelPath, String sheetName, String testCaseID)
+			throws IOException {
+		return getSheet(excelPath, sheetName).row(testCaseID);
+	}
+
+	/** Sheet row number of the TestCaseID, or -1 if it is not present. */
+	public static int getRowNumber(String excelPath, String sheetName, String testCaseID) throws IOException {
+		return getSheet(excelPath, sheetName).rowNumber(testCaseID);
+	}
+
+	public static List<String> getHeaders(String excelPath, String sheetName) throws IOException {
+		return getSheet(excelPath, sheetName).headers();
+	}
+
+	public static void invalidate(String excelPath) {
+		String prefix = cacheKey(excelPath, "");
+		CACHE.keySet().removeIf(key -> key.startsWith(prefix));
+	}
+
+	public static void clear() {
+		CACHE.clear();
+	}
+
+	/** Where problems with snapshots are reported, e.g. the test report's runner output. */
+	public static void setWarningHandler(Consumer<String> handler) {
+		warnings = handler;
+	}
+
+	/**
+	 * Parses every sheet of the workbooks given as arguments and writes their
+	 * snapshots, so a build step can prepare them ahead of the test JVMs.
+	 */
+	public static void main(String[] args) throws IOException {
+		for (String excelPath : args) {
+			for (String sheetName : ExcelWorkbookParser.sheetNames(Paths.get(excelPath))) {
+				getSheet(excelPath, sheetName);
+				System.out.println("Snapshot written: " + ExcelSnapshot.snapshotPath(Paths.get(excelPath), sheetName));
+			}
+		}
+	}
+
+	static SheetTable getSheet(String excelPath, String sheetName) throws IOException {
+		Path path = Paths.get(excelPath).toAbsolutePath().normalize();
+		long modified = Files.getLastModifiedTime(path).toMillis();
+		long size = Files.size(path);
+		String key = cacheKey(excelPath, sheetName);
+
+		CachedSheet cached = CACHE.get(key);
+		while (cached == null || !cached.isCurrent(modified, size)) {
+			CachedSheet loading = new CachedSheet(modified, size);
+			boolean installed = cached == null ? CACHE.putIfAbsent(key, loading) == null
+					: CACHE.replace(key, cached, loading);
+			if (installed) {
+				try {
+					loading.table.complete(load(path, sheetName));
+				} catch (IOException | RuntimeException e) {
+					// let the next caller try again instead of caching the failure
+					CACHE.remove(key, loading);
+					loading.table.completeExceptionally(e);
+					throw e;
+				}
+				return loading.table.join();
+			}
+			// another thread got there first; wait for its entry, or replace it if it is already outdated
+			cached = CACHE.get(key);
+		}
+		return cached.await();
+	}
+
+	private static SheetTable load(Path path, String sheetName) throws IOException {
+		if (!USE_SNAPSHOTS) {
+			return ExcelWorkbookParser.parse(path, sheetName);
+		}
+		try {
+			ExcelSnapshot snapshot = ExcelSnapshot.openIfFresh(path, sheetName);
+			if (snapshot != null) {
+				return snapshot;
+			}
+		} catch (IOException e) {
+			warnings.accept("Ignoring unreadable Excel snapshot for " + path + ": " + e.getMessage());
+		}
+		SheetData sheet = ExcelWorkbookParser.parse(path, sheetName);
+		try {
+			ExcelSnapshot.write(path, sheetName, sheet.headers, sheet.testCaseIDs, sheet.rows, sheet.rowNumbers);
+		} catch (IOException e) {
+			warnings.accept("Could not write Excel snapshot for " + path + ": " + e.getMessage());
+		}
+		return sheet;
+	}
+
+	private static String cacheKey(String excelPath, String sheetName) {
+		return Paths.get(excelPath).toAbsolutePath().normalize() + "!" + sheetName;
+	}
+
+	private static String normalize(String testCaseID) {
+		return testCaseID == null ? "" : testCaseID.toLowerCase(Locale.ROOT);
+	}
+
+	/** A sheet parsed from the workbook and held on the heap. */
+	static final class SheetData implements SheetTable {
+		final List<String> headers;
+		final List<String> testCaseIDs;
+		final List<Map<String, String>> rows;
+		final int[] rowNumbers;
+		private final Map<String, Integer> index = new HashMap<>();
+
+		SheetData(List<String> headers, List<String> testCaseIDs, List<Map<String, String>> rows,
+				List<Integer> rowNumbers) {
+			this.headers = Collections.unmodifiableList(headers);
+			this.testCaseIDs = Collections.unmodifiableList(testCaseIDs);
+			this.rowNumbers = rowNumbers.stream().mapToInt(Integer::intValue).toArray();
+			for (int i = 0; i < rows.size(); i++) {
+				rows.set(i, Collections.unmodifiableMap(rows.get(i)));
+				// first occurrence wins, as with the old linear scan
+				index.putIfAbsent(normalize(testCaseIDs.get(i)), i);
+			}
+			this.rows = Collections.unmodifiableList(rows);
+		}
+
+		@Override
+		public List<String> headers() {
+			return headers;
+		}
+
+		@Override
+		public Map<String, String> row(String testCaseID) {
+			Integer i = index.get(normalize(testCaseID));
+			return i == null ? Collections.<String, String>emptyMap() : rows.get(i);
+		}
+
+		@Override
+		public int rowNumber(String testCaseID) {
+			Integer i = index.get(normalize(testCaseID));
+			return i == null ? -1 : rowNumbers[i];
+		}
+	}
+
+	/** A sheet as of one modification time and size, parsed by the thread that installed it. */
+	private static final class CachedSheet {
+		private final CompletableFuture<SheetTable> table = new CompletableFuture<>();
+		private final long modified;
+		private final long size;
+
+		private CachedSheet(long modified, long size) {
+			this.modified = modified;
+			this.size = size;
+		}
+
+		private boolean isCurrent(long modified, long size) {
+			return this.modified == modified && this.size == size;
+		}
+
+		private SheetTable await() throws IOException {
+			try {
+				return table.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted while waiting for the sheet to be parsed");
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof IOException) {
+					throw (IOException) e.getCause();
+				}
+				throw (RuntimeException) e.getCause();
+			}
+		}
+	}
+}
@@ -0,0 +1,292 @@
+package WebUtils;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compact binary copy of one Excel sheet that can be memory-mapped and queried
+ * by TestCaseID without POI. Forked JVMs reuse the snapshot a previous run
+ * wrote instead of parsing the workbook again.
+ *
+ * Each snapshot records the SHA-256 of its source workbook; {@link #openIfFresh}
+ * ignores it once the workbook content changes, and the caller rewrites it.
+ *
+ * Layout (big-endian): magic, version, source hash, headers, row count, slot
+ * count, total record bytes, an open-addressing hash table of record offsets
+ * keyed by lower-cased TestCaseID, then one record per indexed row: row
+ * number, key, and one value per header. Strings are an int byte length
+ * followed by UTF-8. A file shorter than its header says is rejected on open.
+ */
+public final class ExcelSnapshot implements SheetTable {
+
+	private static final byte[] MAGIC = "XLSNAP01".getBytes(StandardCharsets.US_ASCII);
+	private static final int VERSION = 2;
+	private static final int HASH_LENGTH = 32;
+
+	private final MappedByteBuffer buffer;
+	private final List<String> headers;
+	private final int slotCount;
+	private final int slotsStart;
+
+	private ExcelSnapshot(MappedByteBuffer buffer) throws IOException {
+		this.buffer = buffer;
+		ByteBuffer in = buffer.duplicate();
+		byte[] magic = new byte[MAGIC.length];
+		in.get(magic);
+		if (!Arrays.equals(magic, MAGIC) || in.getInt() != VERSION) {
+			throw new IOException("Not an Excel snapshot or unsupported version");
+		}
+		in.position(in.position() + HASH_LENGTH);
+		int headerCount = in.getInt();
+		if (headerCount < 0 || headerCount > in.remaining() / 4) {
+			throw new BufferUnderflowException();
+		}
+		List<String> names = new ArrayList<>(headerCount);
+		for (int i = 0; i < headerCount; i++) {
+			names.add(readString(in));
+		}
+		this.headers = Collections.unmodifiableList(names);
+		in.getInt(); // row count
+		this.slotCount = in.getInt();
+		int recordBytes = in.getInt();
+		this.slotsStart = in.position();
+		if (Integer.bitCount(slotCount) != 1 || recordBytes < 0
+				|| (long) slotCount * 4 + recordBytes != in.remaining()) {
+			throw new BufferUnderflowException();
+		}
+	}
+
+	/* ==========================Opening======================== */
+
+	/** Where the snapshot of a workbook sheet lives (-Dexcel.snapshot.dir, default target/data-snapshots). */
+	public static Path snapshotPath(Path workbook, String sheetName) {
+		Path source = workbook.toAbsolutePath().normalize();
+		String dir = System.getProperty("excel.snapshot.dir", "target/data-snapshots");
+		String name = source.getFileName() + "-" + Integer.toHexString(source.toString().hashCode()) + "-"
+				+ sheetName.replaceAll("[^A-Za-z0-9_.-]", "_") + ".snap";
+		return Paths.get(dir, name);
+	}
+
+	/**
+	 * Maps the snapshot of the sheet if one exists and was built from the
+	 * workbook's current content, otherwise returns null. A truncated or
+	 * corrupt snapshot also returns null, so the caller parses the workbook.
+	 */
+	public static ExcelSnapshot openIfFresh(Path workbook, String sheetName) throws IOException {
+		Path snapshot = snapshotPath(workbook, sheetName);
+		if (!Files.isRegularFile(snapshot)) {
+			return null;
+		}
+		try (FileChannel channel = FileChannel.open(snapshot, StandardOpenOption.READ)) {
+			MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+			byte[] recorded = new byte[HASH_LENGTH];
+			buffer.get(MAGIC.length + 4, recorded);
+			if (!Arrays.equals(recorded, sha256(workbook))) {
+				return null;
+			}
+			return new ExcelSnapshot(buffer);
+		} catch (IndexOutOfBoundsException | BufferUnderflowException | IllegalArgumentException
+				| NegativeArraySizeException e) {
+			// lengths or offsets that point past the end of the file
+			return null;
+		}
+	}
+
+	/* ==========================Lookup======================== */
+
+	@Override
+	public List<String> headers() {
+		return headers;
+	}
+
+	@Override
+	public Map<String, String> row(String testCaseID) {
+		int offset = find(testCaseID);
+		if (offset < 0) {
+			return Collections.emptyMap();
+		}
+		ByteBuffer in = buffer.duplicate();
+		in.position(offset + 4);
+		in.position(in.position() + 4 + in.getInt());
+		Map<String, String> values = new LinkedHashMap<>();
+		for (String header : headers) {
+			values.put(header, readString(in));
+		}
+		return Collections.unmodifiableMap(values);
+	}
+
+	@Override
+	public int rowNumber(String testCaseID) {
+		int offset = find(testCaseID);
+		return offset < 0 ? -1 : buffer.getInt(offset);
+	}
+
+	/** Offset of the record for the TestCaseID, or -1. */
+	private int find(String testCaseID) {
+		byte[] key = normalize(testCaseID);
+		int mask = slotCount - 1;
+		for (int slot = hash(key) & mask, probes = 0; probes < slotCount; slot = (slot + 1) & mask, probes++) {
+			int offset = buffer.getInt(slotsStart + slot * 4);
+			if (offset == 0) {
+				return -1;
+			}
+			if (buffer.getInt(offset + 4) == key.length && keyMatches(offset + 8, key)) {
+				return offset;
+			}
+		}
+		return -1;
+	}
+
+	private boolean keyMatches(int position, byte[] key) {
+		for (int i = 0; i < key.length; i++) {
+			if (buffer.get(position + i) != key[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/* ==========================Writing======================== */
+
+	/**
+	 * Writes the snapshot of a sheet atomically. Rows whose TestCaseID repeats
+	 * an earlier one are left out, matching the first-match lookup.
+	 */
+	public static void write(Path workbook, String sheetName, List<String> headers, List<String> testCaseIDs,
+			List<Map<String, String>> rows, int[] rowNumbers) throws IOException {
+		List<byte[]> keys = new ArrayList<>();
+		List<Integer> indexed = new ArrayList<>();
+		Set<String> seen = new HashSet<>();
+		for (int i = 0; i < rows.size(); i++) {
+			byte[] key = normalize(testCaseIDs.get(i));
+			if (seen.add(new String(key, StandardCharsets.UTF_8))) {
+				keys.add(key);
+				indexed.add(i);
+			}
+		}
+
+		int slotCount = Integer.highestOneBit(Math.max(2, keys.size() * 2 - 1)) << 1;
+		byte[][] headerBytes = new byte[headers.size()][];
+		int headerSize = 0;
+		for (int i = 0; i < headers.size(); i++) {
+			headerBytes[i] = headers.get(i).getBytes(StandardCharsets.UTF_8);
+			headerSize += 4 + headerBytes[i].length;
+		}
+		int recordsStart = MAGIC.length + 4 + HASH_LENGTH + 4 + headerSize + 4 + 4 + 4 + slotCount * 4;
+
+		// records are serialised first so their offsets are known for the table
+		ByteArrayOutputStream records = new ByteArrayOutputStream();
+		DataOutputStream recordOut = new DataOutputStream(records);
+		int[] slots = new int[slotCount];
+		for (int k = 0; k < keys.size(); k++) {
+			int row = indexed.get(k);
+			int offset = recordsStart + recordOut.size();
+			int slot = hash(keys.get(k)) & (slotCount - 1);
+			while (slots[slot] != 0) {
+				slot = (slot + 1) & (slotCount - 1);
+			}
+			slots[slot] = offset;
+
+			recordOut.writeInt(rowNumbers[row]);
+			recordOut.writeInt(keys.get(k).length);
+			recordOut.write(keys.get(k));
+			for (String header : headers) {
+				String value = rows.get(row).get(header);
+				byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+				recordOut.writeInt(bytes.length);
+				recordOut.write(bytes);
+			}
+		}
+
+		Path target = snapshotPath(workbook, sheetName);
+		Files.createDirectories(target.getParent());
+		Path temp = Files.createTempFile(target.getParent(), target.getFileName().toString(), ".tmp");
+		try (OutputStream file = Files.newOutputStream(temp);
+				DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+			out.write(MAGIC);
+			out.writeInt(VERSION);
+			out.write(sha256(workbook));
+			out.writeInt(headers.size());
+			for (byte[] header : headerBytes) {
+				out.writeInt(header.length);
+				out.write(header);
+			}
+			out.writeInt(keys.size());
+			out.writeInt(slotCount);
+			out.writeInt(records.size());
+			for (int slot : slots) {
+				out.writeInt(slot);
+			}
+			records.writeTo(out);
+		}
+		try {
+			Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} finally {
+			Files.deleteIfExists(temp);
+		}
+	}
+
+	/* ==========================Helpers======================== */
+
+	static byte[] sha256(Path file) throws IOException {
+		MessageDigest digest;
+		try {
+			digest = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+		byte[] chunk = new byte[64 * 1024];
+		try (InputStream in = Files.newInputStream(file)) {
+			int read;
+			while ((read = in.read(chunk)) > 0) {
+				digest.update(chunk, 0, read);
+			}
+		}
+		return digest.digest();
+	}
+
+	private static byte[] normalize(String testCaseID) {
+		return (testCaseID == null ? "" : testCaseID.toLowerCase(Locale.ROOT)).getBytes(StandardCharsets.UTF_8);
+	}
+
+	/** FNV-1a; fixed here so snapshots stay valid across JVM versions. */
+	private static int hash(byte[] key) {
+		int h = 0x811c9dc5;
+		for (byte b : key) {
+			h ^= b & 0xff;
+			h *= 0x01000193;
+		}
+		return h;
+	}
+
+	private static String readString(ByteBuffer in) {
+		byte[] bytes = new byte[in.getInt()];
+		in.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,260 @@
+package WebUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.BuiltinFormats;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.xml.sax.SAXException;
+
+/**
+ * Reads large .xlsx sheets row by row without building the workbook in memory.
+ * The sheet XML is pulled with StAX as the stream is consumed, so heap use is
+ * one row plus the workbook's shared-string table, whatever the row count.
+ *
+ * Row 0 supplies the keys; every later row is returned as a header-keyed map in
+ * column order. Numbers and dates are formatted with their cell's number
+ * format, as {@link ExcelDataStore} does, so both give the same text; formulas
+ * return their cached result where ExcelDataStore returns the formula. Only
+ * the .xlsx format is supported; use {@link ExcelDataStore} for .xls files.
+ */
+public final class ExcelStreamReader {
+
+	private static final XMLInputFactory XML_FACTORY = XMLInputFactory.newFactory();
+
+	static {
+		XML_FACTORY.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		XML_FACTORY.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+	}
+
+	private ExcelStreamReader() {
+	}
+
+	/**
+	 * Lazily streams the data rows of a sheet. The stream holds the file open
+	 * and must be closed, e.g. with try-with-resources.
+	 */
+	public static Stream<Map<String, String>> stream(String excelPath, String sheetName) throws IOException {
+		RowIterator rows = open(excelPath, sheetName);
+		return StreamSupport
+				.stream(Spliterators.spliteratorUnknownSize(rows, Spliterator.ORDERED | Spliterator.NONNULL), false)
+				.onClose(rows::close);
+	}
+
+	private static RowIterator open(String excelPath, String sheetName) throws IOException {
+		OPCPackage pkg;
+		try {
+			pkg = OPCPackage.open(excelPath, PackageAccess.READ);
+		} catch (Exception e) {
+			throw new IOException("Cannot open " + excelPath + " as .xlsx: " + e.getMessage(), e);
+		}
+		try {
+			XSSFReader reader = new XSSFReader(pkg);
+			ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg, false);
+			StylesTable styles = reader.getStylesTable();
+			XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+			while (sheets.hasNext()) {
+				InputStream in = sheets.next();
+				if (sheets.getSheetName().equals(sheetName)) {
+					return new RowIterator(pkg, in, strings, styles);
+				}
+				in.close();
+			}
+			throw new IOException("Sheet '" + sheetName + "' not found in " + excelPath);
+		} catch (IOException e) {
+			pkg.revert();
+			throw e;
+		} catch (OpenXML4JException | SAXException | XMLStreamException e) {
+			pkg.revert();
+			throw new IOException("Failed to read " + excelPath + ": " + e.getMessage(), e);
+		}
+	}
+
+	private static final class RowIterator implements Iterator<Map<String, String>>, AutoCloseable {
+		private final OPCPackage pkg;
+		private final InputStream in;
+		private final XMLStreamReader xml;
+		private final ReadOnlySharedStringsTable strings;
+		private final StylesTable styles;
+		private final DataFormatter formatter = new DataFormatter();
+		private final List<String> headers;
+		private Map<String, String> next;
+
+		private RowIterator(OPCPackage pkg, InputStream in, ReadOnlySharedStringsTable strings, StylesTable styles)
+				throws XMLStreamException {
+			this.pkg = pkg;
+			this.in = in;
+			this.strings = strings;
+			this.styles = styles;
+			this.xml = XML_FACTORY.createXMLStreamReader(in);
+			List<String> first = readRow();
+			this.headers = first == null ? new ArrayList<>() : first;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (next == null) {
+				next = readDataRow();
+			}
+			return next != null;
+		}
+
+		@Override
+		public Map<String, String> next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			Map<String, String> row = next;
+			next = null;
+			return row;
+		}
+
+		private Map<String, String> readDataRow() {
+			List<String> cells;
+			try {
+				cells = readRow();
+			} catch (XMLStreamException e) {
+				throw new UncheckedIOException(new IOException("Malformed sheet XML: " + e.getMessage(), e));
+			}
+			if (cells == null) {
+				return null;
+			}
+			Map<String, String> row = new LinkedHashMap<>();
+			for (int i = 0; i < headers.size(); i++) {
+				row.put(headers.get(i), i < cells.size() ? cells.get(i) : "");
+			}
+			return row;
+		}
+
+		/** Cell values of the next &lt;row&gt;, or null at the end of the sheet. */
+		private List<String> readRow() throws XMLStreamException {
+			List<String> cells = null;
+			int column = 0;
+			String type = null;
+			String style = null;
+			String value = null;
+			boolean inValue = false;
+			StringBuilder text = new StringBuilder();
+
+			while (xml.hasNext()) {
+				int event = xml.next();
+				if (event == XMLStreamConstants.START_ELEMENT) {
+					String name = xml.getLocalName();
+					if ("row".equals(name)) {
+						cells = new ArrayList<>();
+						column = 0;
+					} else if ("c".equals(name) && cells != null) {
+						String ref = xml.getAttributeValue(null, "r");
+						column = ref == null ? cells.size() : columnIndex(ref);
+						type = xml.getAttributeValue(null, "t");
+						style = xml.getAttributeValue(null, "s");
+						value = null;
+					} else if ("v".equals(name) || "t".equals(name)) {
+						inValue = true;
+						text.setLength(0);
+					}
+				} else if (inValue && (event == XMLStreamConstants.CHARACTERS || event == XMLStreamConstants.CDATA)) {
+					text.append(xml.getText());
+				} else if (event == XMLStreamConstants.END_ELEMENT) {
+					String name = xml.getLocalName();
+					if ("v".equals(name) || "t".equals(name)) {
+						inValue = false;
+						value = value == null ? text.toString() : value + text;
+					} else if ("c".equals(name) && cells != null) {
+						while (cells.size() < column) {
+							cells.add("");
+						}
+						cells.add(cellValue(type, style, value));
+					} else if ("row".equals(name) && cells != null) {
+						return cells;
+					}
+				}
+			}
+			return null;
+		}
+
+		private String cellValue(String type, String style, String raw) {
+			if (raw == null) {
+				return "";
+			}
+			if ("s".equals(type)) {
+				return strings.getItemAt(Integer.parseInt(raw.trim())).getString();
+			}
+			if ("b".equals(type)) {
+				return "1".equals(raw) ? "TRUE" : "FALSE";
+			}
+			if (type == null || "n".equals(type)) {
+				try {
+					return formatNumber(Double.parseDouble(raw), style);
+				} catch (NumberFormatException e) {
+					return raw;
+				}
+			}
+			return raw;
+		}
+
+		private String formatNumber(double number, String style) {
+			XSSFCellStyle cellStyle = null;
+			if (styles != null && styles.getNumCellStyles() > 0) {
+				// cells without an "s" attribute use the workbook's default style 0
+				cellStyle = styles.getStyleAt(style == null ? 0 : Integer.parseInt(style.trim()));
+			}
+			if (cellStyle == null) {
+				return formatter.formatRawCellContents(number, -1, "General");
+			}
+			short format = cellStyle.getDataFormat();
+			String pattern = cellStyle.getDataFormatString();
+			if (pattern == null) {
+				pattern = BuiltinFormats.getBuiltinFormat(format);
+			}
+			return formatter.formatRawCellContents(number, format, pattern == null ? "General" : pattern);
+		}
+
+		private static int columnIndex(String cellRef) {
+			int column = 0;
+			for (int i = 0; i < cellRef.length(); i++) {
+				char ch = cellRef.charAt(i);
+				if (ch < 'A' || ch > 'Z') {
+					break;
+				}
+				column = column * 26 + (ch - 'A' + 1);
+			}
+			return column - 1;
+		}
+
+		@Override
+		public void close() {
+			try {
+				xml.close();
+				in.close();
+			} catch (XMLStreamException | IOException e) {
+				e.printStackTrace();
+			} finally {
+				pkg.revert();
+			}
+		}
+	}
+}
@@ -0,0 +1,74 @@
+package WebUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+
+/**
+ * The only place that touches POI's workbook model. Kept apart from
+ * {@link ExcelDataStore} so lookups served from snapshots never load POI.
+ */
+final class ExcelWorkbookParser {
+
+	private ExcelWorkbookParser() {
+	}
+
+	static ExcelDataStore.SheetData parse(Path path, String sheetName) throws IOException {
+		try (InputStream in = Files.newInputStream(path); Workbook workbook = WorkbookFactory.create(in)) {
+			Sheet sheet = workbook.getSheet(sheetName);
+			if (sheet == null) {
+				throw new IOException("Sheet '" + sheetName + "' not found in " + path);
+			}
+			DataFormatter formatter = new DataFormatter();
+
+			List<String> headers = new ArrayList<>();
+			Row headerRow = sheet.getRow(0);
+			if (headerRow != null) {
+				for (int i = 0; i < headerRow.getLastCellNum(); i++) {
+					headers.add(formatter.formatCellValue(headerRow.getCell(i)));
+				}
+			}
+
+			List<Map<String, String>> rows = new ArrayList<>();
+			List<Integer> rowNumbers = new ArrayList<>();
+			List<String> testCaseIDs = new ArrayList<>();
+			for (int r = 1; r <= sheet.getLastRowNum(); r++) {
+				Row row = sheet.getRow(r);
+				if (row == null) {
+					continue;
+				}
+				Map<String, String> values = new LinkedHashMap<>();
+				for (int i = 0; i < headers.size(); i++) {
+					Cell cell = row.getCell(i, Row.MissingCellPolicy.CREATE_NULL_AS_BLANK);
+					values.put(headers.get(i), formatter.formatCellValue(cell));
+				}
+				testCaseIDs.add(formatter.formatCellValue(row.getCell(0)));
+				rows.add(values);
+				rowNumbers.add(r);
+			}
+			return new ExcelDataStore.SheetData(headers, testCaseIDs, rows, rowNumbers);
+		}
+	}
+
+	static List<String> sheetNames(Path path) throws IOException {
+		try (InputStream in = Files.newInputStream(path); Workbook workbook = WorkbookFactory.create(in)) {
+			List<String> names = new ArrayList<>();
+			for (Sheet sheet : workbook) {
+				names.add(sheet.getSheetName());
+			}
+			return names;
+		}
+	}
+}
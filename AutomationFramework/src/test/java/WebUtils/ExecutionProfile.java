@@ -0,0 +1,74 @@
+package WebUtils;
+
+import java.util.Locale;
+
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.PageLoadStrategy;
+import org.openqa.selenium.chrome.ChromeOptions;
+import org.openqa.selenium.chromium.ChromiumOptions;
+import org.openqa.selenium.edge.EdgeOptions;
+import org.openqa.selenium.firefox.FirefoxOptions;
+
+/**
+ * How {@link WebUtil#launchBrowser(String, int, ExecutionProfile)} starts a
+ * browser. Chosen per suite with the testng parameter "profile".
+ */
+public enum ExecutionProfile {
+
+	/** Headed, maximized and loading everything, as a person would see the page. */
+	STANDARD,
+
+	/**
+	 * Headless with a fixed viewport, no extensions and no GPU compositing.
+	 * Chrome and Edge also get images, fonts, media and known trackers blocked
+	 * by {@link ResourceBlocker}, which reports the requests blocked on each
+	 * page. Firefox has no CDP, so it gets the same effect from
+	 * preferences (images and web fonts off, tracking protection on) but no
+	 * report.
+	 */
+	FAST;
+
+	/** Window size of the FAST profile, a common laptop viewport. */
+	public static final Dimension VIEWPORT = new Dimension(1366, 768);
+
+	/** Profile named in testng.xml, case-insensitively; null means STANDARD. */
+	public static ExecutionProfile fromName(String name) {
+		return name == null ? STANDARD : valueOf(name.trim().toUpperCase(Locale.ROOT));
+	}
+
+	public boolean blocksResources() {
+		return this == FAST;
+	}
+
+	public ChromeOptions chromeOptions(PageLoadStrategy strategy) {
+		return chromium(new ChromeOptions(), strategy);
+	}
+
+	public EdgeOptions edgeOptions(PageLoadStrategy strategy) {
+		return chromium(new EdgeOptions(), strategy);
+	}
+
+	public FirefoxOptions firefoxOptions(PageLoadStrategy strategy) {
+		FirefoxOptions options = new FirefoxOptions();
+		options.setPageLoadStrategy(strategy);
+		if (this == FAST) {
+			options.addArguments("-headless", "-width=" + VIEWPORT.getWidth(), "-height=" + VIEWPORT.getHeight());
+			options.addPreference("permissions.default.image", 2);
+			options.addPreference("browser.display.use_document_fonts", 0);
+			options.addPreference("media.autoplay.default", 5);
+			options.addPreference("privacy.trackingprotection.enabled", true);
+			options.addPreference("layers.acceleration.disabled", true);
+		}
+		return options;
+	}
+
+	private <T extends ChromiumOptions<?>> T chromium(T options, PageLoadStrategy strategy) {
+		options.setPageLoadStrategy(strategy);
+		if (this == FAST) {
+			options.addArguments("--headless=new",
+					"--window-size=" + VIEWPORT.getWidth() + "," + VIEWPORT.getHeight(),
+					"--disable-extensions", "--disable-gpu", "--mute-audio");
+		}
+		return options;
+	}
+}
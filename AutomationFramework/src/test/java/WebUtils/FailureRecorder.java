@@ -0,0 +1,345 @@
+package WebUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+import com.aventstack.extentreports.Status;
+
+import WebUtils.ActionMetrics.Span;
+import WebUtils.ScreenshotPipeline.Format;
+
+/**
+ * The last few actions of one browser session, kept in memory so a failed test
+ * can be explained without logging everything for the tests that pass.
+ *
+ * Attached to a WebUtil with {@link WebUtil#setFailureRecorder}, it keeps a
+ * fixed-size ring buffer of the most recent actions: operation, element name,
+ * locator, duration, outcome and the messages logged. Just before each action
+ * it also reads the page URL and title and the first few characters of the
+ * target element's outerHTML (the body's when the action has no element), in
+ * one script call. Screenshots are optional because each one is a full round
+ * trip; they are kept as captured and only scaled down when dumped.
+ *
+ * With an alert open, any script call makes the driver apply its unhandled
+ * prompt behaviour, by default dismissing the alert. So nothing is read during
+ * alert operations, nor after an action that may have opened an alert (a
+ * click, typing, selecting or navigating) until the test has handled it or
+ * run an action that touches the page itself. Entries skipped this way have
+ * captureError "alert may be open".
+ *
+ * Nothing is written unless {@link #dump} is called, which BaseTest does when
+ * a test fails. The buffer is emptied after each dump, and when DriverPool
+ * hands a recycled session to the next test.
+ */
+public final class FailureRecorder {
+
+	private static final String EXCERPT_SCRIPT = "var target = arguments[0], max = arguments[1], el = null;"
+			+ "try {"
+			+ "  el = typeof target === 'string'"
+			+ "    ? document.evaluate(target, document, null, 9, null).singleNodeValue : target;"
+			+ "} catch (e) {}"
+			+ "if (!el || el.nodeType !== 1) { el = document.body || document.documentElement; }"
+			+ "var html = el ? el.outerHTML : '';"
+			+ "return [location.href, document.title, html.length > max ? html.substring(0, max) + '...' : html];";
+
+	/** Operations during which a script call would close an open alert or find no browser. */
+	private static final Set<String> NO_CAPTURE = Set.of("launchBrowser", "alertAccept", "alertDismiss",
+			"getAlertText", "alertSendKey");
+	/** Operations that run page event handlers, which may open an alert. */
+	private static final Set<String> MAY_OPEN_ALERT = Set.of("click", "doubleClick", "rightClick", "jsClick",
+			"clickAllElements", "type", "jsType", "selectTextByValue", "selectTextFromListBox",
+			"selectTextFromListBoxByIndex", "openURL");
+	/** Operations that leave an open alert as it is: they do not touch the page, or only read the alert. */
+	private static final Set<String> KEEP_ALERT = Set.of("staticWait", "implicityWait", "changePageLoadTimeout",
+			"getAlertText", "alertSendKey");
+	private static final int SCREENSHOT_WIDTH = 480;
+	private static final int MAX_MESSAGES = 5;
+
+	private final Entry[] entries;
+	private final boolean screenshots;
+	private final int excerptChars;
+	private final List<String> messages = new ArrayList<>();
+	private int next;
+	private long sequence;
+	private boolean alertMayBeOpen;
+
+	/**
+	 * @param capacity     number of actions kept
+	 * @param screenshots  whether to capture a screenshot before every action
+	 * @param excerptChars length of the DOM excerpt; 0 skips the script call
+	 */
+	public FailureRecorder(int capacity, boolean screenshots, int excerptChars) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("capacity must be at least 1: " + capacity);
+		}
+		this.entries = new Entry[capacity];
+		this.screenshots = screenshots;
+		this.excerptChars = excerptChars;
+	}
+
+	/* ==========================Recording======================== */
+
+	/**
+	 * Reads the page an action is about to work on and returns the listener
+	 * that stores the action when its span ends. Never throws: a page that
+	 * cannot be read is noted in the entry instead.
+	 *
+	 * @param target the element, XPath or null the action works on
+	 */
+	Consumer<Span> begin(Span span, WebDriver driver, Object target) {
+		Entry entry = new Entry(span, target == null ? null : String.valueOf(target));
+		if (driver != null && !NO_CAPTURE.contains(span.getOperation())) {
+			if (isAlertMayBeOpen()) {
+				entry.captureError = "alert may be open";
+			} else {
+				capture(entry, driver, target, screenshots);
+			}
+		}
+		return ended -> finish(entry, ended);
+	}
+
+	private synchronized void finish(Entry entry, Span span) {
+		entry.sequence = ++sequence;
+		entry.durationNanos = span.getDurationNanos();
+		entry.error = span.isError();
+		entry.messages = new ArrayList<>(messages);
+		messages.clear();
+		entries[next] = entry;
+		next = (next + 1) % entries.length;
+		if (MAY_OPEN_ALERT.contains(entry.operation)) {
+			alertMayBeOpen = true;
+		} else if (!KEEP_ALERT.contains(entry.operation)) {
+			// the alert was handled, or the action's own driver call met it and had it dismissed
+			alertMayBeOpen = false;
+		}
+	}
+
+	private synchronized boolean isAlertMayBeOpen() {
+		return alertMayBeOpen;
+	}
+
+	/** Keeps a message logged by the action in progress, to be stored with it. */
+	synchronized void message(Status status, String details) {
+		if (messages.size() == MAX_MESSAGES) {
+			messages.remove(0);
+		}
+		messages.add(status + ": " + details);
+	}
+
+	private void capture(Entry entry, WebDriver driver, Object target, boolean screenshot) {
+		if (excerptChars > 0 && driver instanceof JavascriptExecutor) {
+			try {
+				readPage(entry, driver, target);
+			} catch (WebDriverException e) {
+				try {
+					// usually a stale target element; the page itself may still be readable
+					readPage(entry, driver, null);
+				} catch (WebDriverException again) {
+					entry.captureError = again.getClass().getSimpleName();
+				}
+			}
+		}
+		if (screenshot && driver instanceof TakesScreenshot) {
+			try {
+				entry.screenshot = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BYTES);
+			} catch (WebDriverException e) {
+				entry.captureError = e.getClass().getSimpleName();
+			}
+		}
+	}
+
+	private void readPage(Entry entry, WebDriver driver, Object target) {
+		Object page = ((JavascriptExecutor) driver).executeScript(EXCERPT_SCRIPT, target, excerptChars);
+		if (page instanceof List && ((List<?>) page).size() == 3) {
+			List<?> values = (List<?>) page;
+			entry.url = (String) values.get(0);
+			entry.title = (String) values.get(1);
+			entry.domExcerpt = (String) values.get(2);
+		} else {
+			// a driver that runs no JavaScript
+			entry.url = driver.getCurrentUrl();
+			entry.title = driver.getTitle();
+		}
+	}
+
+	/** Actions in the buffer, oldest first. */
+	public synchronized List<Entry> getEntries() {
+		List<Entry> list = new ArrayList<>(entries.length);
+		for (int i = 0; i < entries.length; i++) {
+			Entry entry = entries[(next + i) % entries.length];
+			if (entry != null) {
+				list.add(entry);
+			}
+		}
+		return list;
+	}
+
+	public synchronized void clear() {
+		Arrays.fill(entries, null);
+		messages.clear();
+		next = 0;
+		alertMayBeOpen = false;
+	}
+
+	/* ==========================Dumping======================== */
+
+	/**
+	 * Writes the buffered actions to a new folder under the directory:
+	 * context.json, a full-size screenshot of the page as the test left it and,
+	 * if screenshots are on, a small PNG per action. Empties the buffer.
+	 *
+	 * @param driver the session's driver, to read the final page; may be null
+	 * @return the folder written
+	 */
+	public Path dump(Path directory, String testName, Throwable failure, WebDriver driver) throws IOException {
+		List<Entry> actions;
+		synchronized (this) {
+			actions = getEntries();
+			clear();
+		}
+		String folder = safeName(testName) + "-"
+				+ LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS"));
+		Path target = Files.createDirectories(directory.resolve(folder));
+
+		List<Map<String, Object>> rows = new ArrayList<>();
+		for (Entry entry : actions) {
+			Map<String, Object> row = entry.toMap();
+			if (entry.screenshot != null) {
+				row.put("screenshot", writeScreenshot(target, String.format("%03d-%s.png", entry.sequence,
+						entry.operation), ScreenshotPipeline.encode(entry.screenshot, Format.PNG, SCREENSHOT_WIDTH)));
+			}
+			rows.add(row);
+		}
+		Map<String, Object> document = new LinkedHashMap<>();
+		document.put("test", testName);
+		document.put("failedAt", Instant.now().toString());
+		if (failure != null) {
+			document.put("failure", failure.getClass().getName() + ": " + failure.getMessage());
+		}
+		if (driver != null) {
+			Entry last = new Entry(null, null);
+			capture(last, driver, null, true);
+			Map<String, Object> finalPage = new LinkedHashMap<>();
+			finalPage.put("url", last.url);
+			finalPage.put("title", last.title);
+			finalPage.put("domExcerpt", last.domExcerpt);
+			if (last.screenshot != null) {
+				finalPage.put("screenshot", writeScreenshot(target, "final.png", last.screenshot));
+			}
+			if (last.captureError != null) {
+				finalPage.put("captureError", last.captureError);
+			}
+			document.put("finalPage", finalPage);
+		}
+		document.put("actions", rows);
+		Files.write(target.resolve("context.json"), JsonLinesWriter.toJson(document).getBytes(StandardCharsets.UTF_8));
+		return target;
+	}
+
+	private static String writeScreenshot(Path directory, String file, byte[] png) throws IOException {
+		Files.write(directory.resolve(file), png);
+		return file;
+	}
+
+	private static String safeName(String name) {
+		String safe = name == null ? "unnamed" : name.replaceAll("[^A-Za-z0-9._-]+", "_");
+		return safe.length() > 80 ? safe.substring(0, 80) : safe;
+	}
+
+	/* ==========================Entry======================== */
+
+	/** One recorded action; the page fields describe the page just before it ran. */
+	public static final class Entry {
+		private final String test;
+		private final String operation;
+		private final String element;
+		private final String locator;
+		private final long startedAtMillis = System.currentTimeMillis();
+		private long sequence;
+		private long durationNanos;
+		private boolean error;
+		private List<String> messages = List.of();
+		private String url;
+		private String title;
+		private String domExcerpt;
+		private byte[] screenshot;
+		private String captureError;
+
+		private Entry(Span span, String locator) {
+			this.test = span == null ? null : span.getTest();
+			this.operation = span == null ? null : span.getOperation();
+			this.element = span == null ? null : span.getElement();
+			this.locator = locator;
+		}
+
+		public String getOperation() {
+			return operation;
+		}
+
+		public String getElement() {
+			return element;
+		}
+
+		public String getLocator() {
+			return locator;
+		}
+
+		public boolean isError() {
+			return error;
+		}
+
+		public List<String> getMessages() {
+			return messages;
+		}
+
+		public String getUrl() {
+			return url;
+		}
+
+		public String getDomExcerpt() {
+			return domExcerpt;
+		}
+
+		public boolean hasScreenshot() {
+			return screenshot != null;
+		}
+
+		private Map<String, Object> toMap() {
+			Map<String, Object> row = new LinkedHashMap<>();
+			row.put("sequence", sequence);
+			row.put("test", test);
+			row.put("operation", operation);
+			row.put("element", element);
+			row.put("locator", locator);
+			row.put("startedAt", Instant.ofEpochMilli(startedAtMillis).toString());
+			row.put("durationMs", durationNanos / 1_000_000.0);
+			row.put("error", error);
+			row.put("messages", messages);
+			row.put("url", url);
+			row.put("title", title);
+			row.put("domExcerpt", domExcerpt);
+			if (captureError != null) {
+				row.put("captureError", captureError);
+			}
+			return row;
+		}
+	}
+}
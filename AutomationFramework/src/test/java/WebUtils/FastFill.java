@@ -0,0 +1,71 @@
+package WebUtils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+/**
+ * Enters text into an input or textarea in one script call instead of one
+ * key event per character.
+ *
+ * The value is set through the element prototype's native setter, which is
+ * what lets React's value tracking notice it, and then input and change
+ * events are dispatched. Like sendKeys the text is appended to what the field
+ * already holds. If the field cannot be filled this way, or the page rewrites
+ * the value straight away, the field is left as it was and the reason is
+ * returned so the caller can type real keys instead.
+ *
+ * {@link BatchActions} types with the same script function, replacing the
+ * value instead of appending to it, so both behave alike.
+ */
+public final class FastFill {
+
+	/**
+	 * Script function fastFill(el, text, replace): appends the text to the
+	 * field's value, or replaces the value with it, and returns true, or
+	 * returns the reason the field could not be filled and leaves it as it was.
+	 */
+	static final String FILL_FUNCTION = "function fastFill(el, text, replace) {"
+			+ "  var TEXT_TYPES = { '': 1, text: 1, search: 1, email: 1, url: 1, tel: 1, password: 1, number: 1 };"
+			+ "  var tag = el.localName, type = (el.getAttribute('type') || '').toLowerCase(), proto;"
+			+ "  if (tag === 'textarea') { proto = HTMLTextAreaElement.prototype; }"
+			+ "  else if (tag === 'input' && TEXT_TYPES[type]) { proto = HTMLInputElement.prototype; }"
+			+ "  else { return 'not a text field: ' + tag + (type ? '[type=' + type + ']' : ''); }"
+			+ "  if (el.disabled || el.readOnly) { return 'field is disabled or read-only'; }"
+			+ "  var before = el.value, next = replace ? text : before + text;"
+			+ "  if (el.maxLength >= 0 && next.length > el.maxLength) { return 'text is longer than maxlength ' + el.maxLength; }"
+			+ "  var setter = Object.getOwnPropertyDescriptor(proto, 'value').set;"
+			+ "  el.focus();"
+			+ "  setter.call(el, next);"
+			+ "  el.dispatchEvent(new InputEvent('input', { bubbles: true,"
+			+ "    inputType: text ? 'insertText' : 'deleteContent', data: text || null }));"
+			+ "  el.dispatchEvent(new Event('change', { bubbles: true }));"
+			+ "  if (el.value === next) { return true; }"
+			+ "  setter.call(el, before);"
+			+ "  el.dispatchEvent(new Event('input', { bubbles: true }));"
+			+ "  return 'page changed the value to \"' + el.value + '\"';"
+			+ "}";
+
+	private static final String FILL_SCRIPT = FILL_FUNCTION + "return fastFill(arguments[0], arguments[1], false);";
+
+	private FastFill() {
+	}
+
+	/**
+	 * Appends the text to the field's value with input and change events.
+	 *
+	 * @return null if the field now holds its old value plus the text, otherwise
+	 *         why it could not be filled (the field is then unchanged)
+	 */
+	public static String fill(WebDriver driver, WebElement element, String text) {
+		if (!(driver instanceof JavascriptExecutor)) {
+			return "driver cannot run scripts";
+		}
+		Object reason = ((JavascriptExecutor) driver).executeScript(FILL_SCRIPT, element, text);
+		if (Boolean.TRUE.equals(reason)) {
+			return null;
+		}
+		// a driver that ignores the script must not look like a successful fill
+		return reason == null ? "script returned no result" : String.valueOf(reason);
+	}
+}
@@ -0,0 +1,325 @@
+package WebUtils;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.w3c.dom.DOMException;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * Lenient HTML to W3C DOM parser for static test fixtures.
+ *
+ * Handles what hand-written or saved pages usually contain: void and
+ * self-closing tags, unquoted attributes, comments, doctype, raw text in
+ * script/style/textarea/title, common entities, and end tags that are missing
+ * (li, p, option, tr, td ...) or that close several elements at once. Tag and
+ * attribute names are lower-cased. The result always has an html root, so
+ * XPath such as //title or /html/body/div works as in a browser.
+ */
+final class HtmlFixtureParser {
+
+	private static final Set<String> VOID_TAGS = new HashSet<>(Arrays.asList("area", "base", "br", "col", "embed",
+			"hr", "img", "input", "link", "meta", "source", "track", "wbr"));
+	private static final Set<String> RAW_TEXT_TAGS = new HashSet<>(
+			Arrays.asList("script", "style", "textarea", "title"));
+	private static final Set<String> SELF_CLOSING_SIBLINGS = new HashSet<>(
+			Arrays.asList("li", "p", "option", "tr", "td", "th", "dt", "dd"));
+
+	private final String html;
+	private final Document document;
+	private final Deque<Element> open = new ArrayDeque<>();
+	private int pos;
+
+	private HtmlFixtureParser(String html) {
+		this.html = html;
+		try {
+			this.document = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+		} catch (ParserConfigurationException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	static Document parse(String html) {
+		HtmlFixtureParser parser = new HtmlFixtureParser(html);
+		parser.run();
+		return parser.document;
+	}
+
+	private void run() {
+		Element root = document.createElement("html");
+		document.appendChild(root);
+		open.push(root);
+
+		while (pos < html.length()) {
+			if (html.startsWith("<!--", pos)) {
+				int end = html.indexOf("-->", pos + 4);
+				pos = end < 0 ? html.length() : end + 3;
+			} else if (html.startsWith("<!", pos) || html.startsWith("<?", pos)) {
+				int end = html.indexOf('>', pos);
+				pos = end < 0 ? html.length() : end + 1;
+			} else if (html.startsWith("</", pos) && isNameStart(charAt(pos + 2))) {
+				endTag();
+			} else if (html.charAt(pos) == '<' && isNameStart(charAt(pos + 1))) {
+				startTag();
+			} else {
+				int end = html.indexOf('<', pos + 1);
+				end = end < 0 ? html.length() : end;
+				text(html.substring(pos, end));
+				pos = end;
+			}
+		}
+	}
+
+	private void startTag() {
+		pos++;
+		String name = readName().toLowerCase(Locale.ROOT);
+		Element element = "html".equals(name) ? open.getLast() : document.createElement(name);
+		boolean selfClosing = false;
+
+		while (pos < html.length()) {
+			skipWhitespace();
+			char c = charAt(pos);
+			if (c == '>') {
+				pos++;
+				break;
+			}
+			if (c == '/') {
+				selfClosing = true;
+				pos++;
+				continue;
+			}
+			String attribute = readAttributeName().toLowerCase(Locale.ROOT);
+			if (attribute.isEmpty()) {
+				pos++;
+				continue;
+			}
+			skipWhitespace();
+			String value = "";
+			if (charAt(pos) == '=') {
+				pos++;
+				skipWhitespace();
+				value = decode(readAttributeValue());
+			}
+			try {
+				if (!element.hasAttribute(attribute)) {
+					element.setAttribute(attribute, value);
+				}
+			} catch (DOMException e) {
+				// names such as @click are not valid in XML; a fixture can do without them
+			}
+		}
+
+		if ("html".equals(name)) {
+			return;
+		}
+		if (SELF_CLOSING_SIBLINGS.contains(name)) {
+			closeOpenSibling(name);
+		}
+		open.peek().appendChild(element);
+		if (RAW_TEXT_TAGS.contains(name)) {
+			int end = indexOfIgnoreCase("</" + name, pos);
+			end = end < 0 ? html.length() : end;
+			String raw = html.substring(pos, end);
+			element.appendChild(document.createTextNode("script".equals(name) || "style".equals(name) ? raw
+					: decode(raw)));
+			int close = html.indexOf('>', end);
+			pos = close < 0 ? html.length() : close + 1;
+		} else if (!selfClosing && !VOID_TAGS.contains(name)) {
+			open.push(element);
+		}
+	}
+
+	/** An open li closes at the next li, an open td at the next td or th, and so on. */
+	private void closeOpenSibling(String name) {
+		Element current = open.peek();
+		String currentName = current.getTagName();
+		boolean cell = ("td".equals(name) || "th".equals(name))
+				&& ("td".equals(currentName) || "th".equals(currentName));
+		boolean definition = ("dt".equals(name) || "dd".equals(name))
+				&& ("dt".equals(currentName) || "dd".equals(currentName));
+		if (open.size() > 1 && (currentName.equals(name) || cell || definition)) {
+			open.pop();
+		}
+		if ("tr".equals(name)) {
+			while (open.size() > 1 && ("td".equals(open.peek().getTagName())
+					|| "th".equals(open.peek().getTagName()) || "tr".equals(open.peek().getTagName()))) {
+				open.pop();
+			}
+		}
+	}
+
+	private void endTag() {
+		pos += 2;
+		String name = readName().toLowerCase(Locale.ROOT);
+		int close = html.indexOf('>', pos);
+		pos = close < 0 ? html.length() : close + 1;
+		boolean isOpen = false;
+		for (Element element : open) {
+			if (element.getTagName().equals(name) && element != open.getLast()) {
+				isOpen = true;
+				break;
+			}
+		}
+		if (isOpen) {
+			while (!open.pop().getTagName().equals(name)) {
+				// pop the elements the fixture left open inside this one
+			}
+		}
+	}
+
+	private void text(String raw) {
+		Node parent = open.peek();
+		Node last = parent.getLastChild();
+		String text = decode(raw);
+		if (last != null && last.getNodeType() == Node.TEXT_NODE) {
+			last.setNodeValue(last.getNodeValue() + text);
+		} else {
+			parent.appendChild(document.createTextNode(text));
+		}
+	}
+
+	/* ==========================Tokenizing======================== */
+
+	private String readName() {
+		int start = pos;
+		while (pos < html.length() && (Character.isLetterOrDigit(html.charAt(pos)) || html.charAt(pos) == '-'
+				|| html.charAt(pos) == '_' || html.charAt(pos) == ':')) {
+			pos++;
+		}
+		return html.substring(start, pos);
+	}
+
+	private String readAttributeName() {
+		int start = pos;
+		while (pos < html.length()) {
+			char c = html.charAt(pos);
+			if (Character.isWhitespace(c) || c == '=' || c == '>' || c == '/' || c == '"' || c == '\'') {
+				break;
+			}
+			pos++;
+		}
+		return html.substring(start, pos);
+	}
+
+	private String readAttributeValue() {
+		char quote = charAt(pos);
+		if (quote == '"' || quote == '\'') {
+			int end = html.indexOf(quote, pos + 1);
+			end = end < 0 ? html.length() : end;
+			String value = html.substring(pos + 1, end);
+			pos = Math.min(html.length(), end + 1);
+			return value;
+		}
+		int start = pos;
+		while (pos < html.length() && !Character.isWhitespace(html.charAt(pos)) && html.charAt(pos) != '>') {
+			pos++;
+		}
+		return html.substring(start, pos);
+	}
+
+	private void skipWhitespace() {
+		while (pos < html.length() && Character.isWhitespace(html.charAt(pos))) {
+			pos++;
+		}
+	}
+
+	private char charAt(int index) {
+		return index < html.length() ? html.charAt(index) : '\0';
+	}
+
+	private static boolean isNameStart(char c) {
+		return Character.isLetter(c);
+	}
+
+	private int indexOfIgnoreCase(String target, int from) {
+		for (int i = from; i <= html.length() - target.length(); i++) {
+			if (html.regionMatches(true, i, target, 0, target.length())) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/** Decodes numeric references and the named entities fixtures commonly use. */
+	static String decode(String text) {
+		if (text.indexOf('&') < 0) {
+			return text;
+		}
+		StringBuilder out = new StringBuilder(text.length());
+		int i = 0;
+		while (i < text.length()) {
+			char c = text.charAt(i);
+			int semicolon = c == '&' ? text.indexOf(';', i) : -1;
+			if (semicolon > i + 1 && semicolon - i <= 10) {
+				String entity = text.substring(i + 1, semicolon);
+				String decoded = entity(entity);
+				if (decoded != null) {
+					out.append(decoded);
+					i = semicolon + 1;
+					continue;
+				}
+			}
+			out.append(c);
+			i++;
+		}
+		return out.toString();
+	}
+
+	private static String entity(String name) {
+		try {
+			if (name.startsWith("#x") || name.startsWith("#X")) {
+				return new String(Character.toChars(Integer.parseInt(name.substring(2), 16)));
+			}
+			if (name.startsWith("#")) {
+				return new String(Character.toChars(Integer.parseInt(name.substring(1))));
+			}
+		} catch (IllegalArgumentException e) {
+			return null;
+		}
+		switch (name) {
+		case "amp":
+			return "&";
+		case "lt":
+			return "<";
+		case "gt":
+			return ">";
+		case "quot":
+			return "\"";
+		case "apos":
+			return "'";
+		case "nbsp":
+			return "\u00a0";
+		case "copy":
+			return "\u00a9";
+		case "reg":
+			return "\u00ae";
+		case "trade":
+			return "\u2122";
+		case "hellip":
+			return "\u2026";
+		case "ndash":
+			return "\u2013";
+		case "mdash":
+			return "\u2014";
+		case "rsquo":
+			return "\u2019";
+		case "lsquo":
+			return "\u2018";
+		case "rdquo":
+			return "\u201d";
+		case "ldquo":
+			return "\u201c";
+		default:
+			return null;
+		}
+	}
+}
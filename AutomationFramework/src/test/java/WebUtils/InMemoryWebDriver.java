@@ -0,0 +1,608 @@
+package WebUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathConstants;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+
+import org.openqa.selenium.Alert;
+import org.openqa.selenium.By;
+import org.openqa.selenium.Cookie;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.InvalidSelectorException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoAlertPresentException;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.NoSuchFrameException;
+import org.openqa.selenium.NoSuchWindowException;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.UnsupportedCommandException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WindowType;
+import org.openqa.selenium.logging.Logs;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+/**
+ * WebDriver that serves static HTML fixtures from memory, for page-object
+ * tests that do not need a real browser. Start it with
+ * {@code launchBrowser("inmemory", ...)} or directly.
+ *
+ * Pages come from {@link #addPage}/{@link #addPageFromResource}, looked up by
+ * the exact URL and then by the URL without its query string, or straight
+ * from {@code classpath:} and {@code file:} URLs. Locators by id, name, class
+ * name, tag name, link text, XPath and CSS are supported; PageFactory's
+ * chained and combined locators work on top of those. Clicking links and
+ * submit buttons, pressing Enter in a form field and submit() navigate to the
+ * target page, with GET forms adding their fields as a query string.
+ *
+ * JavaScript does not run. executeScript understands the few scripts WebUtil
+ * itself sends (clicking, setting a value, scrolling, document.readyState and
+ * document.title); anything else goes to the handler set with
+ * {@link #onScript}, or returns null. Implicit waits are accepted and ignored
+ * because every element is present as soon as the page loads.
+ */
+public final class InMemoryWebDriver implements WebDriver, JavascriptExecutor, TakesScreenshot {
+
+	private static final String BLANK = "about:blank";
+	private static final String WINDOW_HANDLE = "inmemory-main";
+	// 1x1 transparent PNG
+	private static final String SCREENSHOT = "iVBORw0KGgoAAAANSUhEUgAAAAEAAAABCAQAAAC1HAwCAAAAC0lEQVR42mNkYAAAAAYAAjCB0C8AAAAASUVORK5CYII=";
+
+	private final Map<String, String> pages = new LinkedHashMap<>();
+	private final Map<String, Cookie> cookies = new LinkedHashMap<>();
+	private final List<String> history = new ArrayList<>();
+	private final XPath xpath = XPathFactory.newInstance().newXPath();
+	private BiFunction<String, Object[], Object> scriptHandler = (script, args) -> null;
+	private int historyIndex = -1;
+	private String url = BLANK;
+	private Document document;
+	private boolean open = true;
+	private Duration implicitWait = Duration.ZERO;
+	private Duration pageLoadTimeout = Duration.ofMinutes(5);
+	private Duration scriptTimeout = Duration.ofSeconds(30);
+
+	public InMemoryWebDriver() {
+		load(BLANK, "");
+	}
+
+	/* ==========================Fixtures======================== */
+
+	/** Serves the HTML for the URL, and for the URL with any query string. */
+	public InMemoryWebDriver addPage(String url, String html) {
+		pages.put(url, html);
+		return this;
+	}
+
+	public InMemoryWebDriver addPageFromResource(String url, String resource) {
+		return addPage(url, readResource(resource));
+	}
+
+	/**
+	 * Handles scripts WebUtil does not send itself, e.g. the bulk-extraction
+	 * or fast-fill scripts; return null for "no result".
+	 */
+	public InMemoryWebDriver onScript(BiFunction<String, Object[], Object> handler) {
+		this.scriptHandler = handler;
+		return this;
+	}
+
+	/* ==========================Navigation======================== */
+
+	@Override
+	public void get(String url) {
+		checkOpen();
+		navigate(url, true);
+	}
+
+	private void navigate(String target, boolean addToHistory) {
+		String html = html(target);
+		load(target, html);
+		if (addToHistory) {
+			while (history.size() > historyIndex + 1) {
+				history.remove(history.size() - 1);
+			}
+			history.add(target);
+			historyIndex = history.size() - 1;
+		}
+	}
+
+	private String html(String target) {
+		if (BLANK.equals(target)) {
+			return "";
+		}
+		String html = pages.get(target);
+		if (html == null && target.indexOf('?') > 0) {
+			html = pages.get(target.substring(0, target.indexOf('?')));
+		}
+		if (html == null && target.startsWith("classpath:")) {
+			html = readResource(target.substring("classpath:".length()));
+		}
+		if (html == null && target.startsWith("file:")) {
+			try {
+				html = new String(Files.readAllBytes(Paths.get(new URI(target))), StandardCharsets.UTF_8);
+			} catch (IOException | URISyntaxException | IllegalArgumentException e) {
+				throw new WebDriverException("Cannot read fixture " + target, e);
+			}
+		}
+		if (html == null) {
+			throw new WebDriverException("No in-memory page registered for " + target);
+		}
+		return html;
+	}
+
+	private void load(String target, String html) {
+		this.url = target;
+		this.document = HtmlFixtureParser.parse(html);
+	}
+
+	boolean isCurrent(Document page) {
+		return open && page == document;
+	}
+
+	/** Follows a link's href relative to the current page; fragments and javascript: links stay put. */
+	void follow(String href) {
+		if (href == null || href.isEmpty() || href.startsWith("#") || href.startsWith("javascript:")) {
+			return;
+		}
+		get(resolve(href));
+	}
+
+	/** Submits a form as a GET to its action with the named, enabled fields as the query string. */
+	void submit(Element form) {
+		StringBuilder query = new StringBuilder();
+		for (Element field : elementsByXPath(form, ".//input[@name] | .//textarea[@name] | .//select[@name]")) {
+			InMemoryWebElement element = new InMemoryWebElement(this, document, field);
+			String type = field.getAttribute("type");
+			if (!element.isEnabled() || "submit".equals(type) || "button".equals(type) || "image".equals(type)
+					|| (("checkbox".equals(type) || "radio".equals(type)) && !element.isSelected())) {
+				continue;
+			}
+			if (query.length() > 0) {
+				query.append('&');
+			}
+			query.append(encode(field.getAttribute("name"))).append('=')
+					.append(encode(element.getAttribute("value")));
+		}
+		String action = form.hasAttribute("action") ? resolve(form.getAttribute("action")) : url;
+		int queryStart = action.indexOf('?');
+		get((queryStart < 0 ? action : action.substring(0, queryStart)) + (query.length() > 0 ? "?" + query : ""));
+	}
+
+	private String resolve(String href) {
+		try {
+			return BLANK.equals(url) ? href : new URI(url).resolve(href).toString();
+		} catch (URISyntaxException | IllegalArgumentException e) {
+			return href;
+		}
+	}
+
+	private static String encode(String value) {
+		return URLEncoder.encode(value == null ? "" : value, StandardCharsets.UTF_8);
+	}
+
+	private static String readResource(String resource) {
+		String name = resource.startsWith("/") ? resource.substring(1) : resource;
+		try (InputStream in = InMemoryWebDriver.class.getClassLoader().getResourceAsStream(name)) {
+			if (in == null) {
+				throw new WebDriverException("Fixture not found on the classpath: " + resource);
+			}
+			return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			throw new WebDriverException("Cannot read fixture " + resource, e);
+		}
+	}
+
+	@Override
+	public String getCurrentUrl() {
+		checkOpen();
+		return url;
+	}
+
+	@Override
+	public String getTitle() {
+		checkOpen();
+		List<Element> titles = elementsByXPath(document, "//title");
+		return titles.isEmpty() ? "" : titles.get(0).getTextContent().trim();
+	}
+
+	@Override
+	public String getPageSource() {
+		checkOpen();
+		return html(url);
+	}
+
+	/* ==========================Finding Elements======================== */
+
+	@Override
+	public List<WebElement> findElements(By by) {
+		checkOpen();
+		return find(document, by);
+	}
+
+	@Override
+	public WebElement findElement(By by) {
+		List<WebElement> found = findElements(by);
+		if (found.isEmpty()) {
+			throw new NoSuchElementException("no such element: Unable to locate element: " + by);
+		}
+		return found.get(0);
+	}
+
+	/** Elements matching the locator below the context node (the document or an element). */
+	List<WebElement> find(Node context, By by) {
+		if (!(by instanceof By.Remotable)) {
+			// ByChained, ByAll, ByIdOrName and friends come back here with simple locators
+			return context == document ? by.findElements(this)
+					: by.findElements(new InMemoryWebElement(this, document, (Element) context));
+		}
+		By.Remotable.Parameters params = ((By.Remotable) by).getRemoteParameters();
+		String value = String.valueOf(params.value());
+		boolean relative = context != document;
+		String expression;
+		switch (params.using()) {
+		case "xpath":
+			expression = value;
+			break;
+		case "css selector":
+			expression = CssSelectors.toXPath(value, relative);
+			break;
+		case "id":
+			expression = (relative ? ".//" : "//") + "*[@id=" + CssSelectors.literal(value) + "]";
+			break;
+		case "name":
+			expression = (relative ? ".//" : "//") + "*[@name=" + CssSelectors.literal(value) + "]";
+			break;
+		case "class name":
+			expression = (relative ? ".//" : "//") + "*[contains(concat(' ', normalize-space(@class), ' '), "
+					+ CssSelectors.literal(" " + value + " ") + ")]";
+			break;
+		case "tag name":
+			expression = (relative ? ".//" : "//") + value.toLowerCase();
+			break;
+		case "link text":
+		case "partial link text":
+			return linksByText(context, value, "partial link text".equals(params.using()));
+		default:
+			throw new InvalidSelectorException("Unsupported locator strategy: " + params.using());
+		}
+		List<WebElement> found = new ArrayList<>();
+		for (Element element : elementsByXPath(context, expression)) {
+			found.add(new InMemoryWebElement(this, document, element));
+		}
+		return found;
+	}
+
+	private List<WebElement> linksByText(Node context, String text, boolean partial) {
+		List<WebElement> found = new ArrayList<>();
+		for (Element link : elementsByXPath(context, ".//a")) {
+			InMemoryWebElement element = new InMemoryWebElement(this, document, link);
+			String linkText = element.getText();
+			if (partial ? linkText.contains(text) : linkText.equals(text.trim())) {
+				found.add(element);
+			}
+		}
+		return found;
+	}
+
+	List<Element> elementsByXPath(Node context, String expression) {
+		NodeList nodes;
+		try {
+			nodes = (NodeList) xpath.evaluate(expression, context, XPathConstants.NODESET);
+		} catch (XPathExpressionException e) {
+			throw new InvalidSelectorException("invalid selector: " + expression + " (" + e.getMessage() + ")");
+		}
+		List<Element> elements = new ArrayList<>(nodes.getLength());
+		for (int i = 0; i < nodes.getLength(); i++) {
+			if (nodes.item(i) instanceof Element) {
+				elements.add((Element) nodes.item(i));
+			}
+		}
+		return elements;
+	}
+
+	/* ==========================Scripts and Screenshots======================== */
+
+	@Override
+	public Object executeScript(String script, Object... args) {
+		checkOpen();
+		String normalized = script.replaceAll("\\s+", "");
+		if ("arguments[0].click();".equals(normalized)) {
+			((InMemoryWebElement) args[0]).activate();
+			return null;
+		}
+		if ("arguments[0].value=arguments[1];".equals(normalized)) {
+			((InMemoryWebElement) args[0]).setValue(String.valueOf(args[1]));
+			return null;
+		}
+		if (normalized.startsWith("arguments[0].scrollIntoView") || normalized.startsWith("window.scroll")) {
+			return null;
+		}
+		if ("returndocument.readyState".equals(normalized.replace(";", ""))) {
+			return "complete";
+		}
+		if ("returndocument.title".equals(normalized.replace(";", ""))) {
+			return getTitle();
+		}
+		return scriptHandler.apply(script, args);
+	}
+
+	@Override
+	public Object executeAsyncScript(String script, Object... args) {
+		return executeScript(script, args);
+	}
+
+	@Override
+	public <X> X getScreenshotAs(OutputType<X> target) {
+		checkOpen();
+		return target.convertFromBase64Png(SCREENSHOT);
+	}
+
+	/* ==========================Session======================== */
+
+	@Override
+	public void close() {
+		quit();
+	}
+
+	@Override
+	public void quit() {
+		open = false;
+	}
+
+	private void checkOpen() {
+		if (!open) {
+			throw new NoSuchWindowException("The in-memory browser has been closed");
+		}
+	}
+
+	@Override
+	public Set<String> getWindowHandles() {
+		return open ? Collections.singleton(WINDOW_HANDLE) : Collections.emptySet();
+	}
+
+	@Override
+	public String getWindowHandle() {
+		checkOpen();
+		return WINDOW_HANDLE;
+	}
+
+	@Override
+	public TargetLocator switchTo() {
+		return new InMemoryTargetLocator();
+	}
+
+	@Override
+	public Navigation navigate() {
+		return new InMemoryNavigation();
+	}
+
+	@Override
+	public Options manage() {
+		return new InMemoryOptions();
+	}
+
+	/** One window, no frames, no alerts. */
+	private final class InMemoryTargetLocator implements TargetLocator {
+		@Override
+		public WebDriver frame(int index) {
+			throw new NoSuchFrameException("The in-memory browser has no frames");
+		}
+
+		@Override
+		public WebDriver frame(String nameOrId) {
+			throw new NoSuchFrameException("The in-memory browser has no frames");
+		}
+
+		@Override
+		public WebDriver frame(WebElement frameElement) {
+			throw new NoSuchFrameException("The in-memory browser has no frames");
+		}
+
+		@Override
+		public WebDriver parentFrame() {
+			return InMemoryWebDriver.this;
+		}
+
+		@Override
+		public WebDriver window(String nameOrHandle) {
+			if (!WINDOW_HANDLE.equals(nameOrHandle)) {
+				throw new NoSuchWindowException("No window " + nameOrHandle);
+			}
+			return InMemoryWebDriver.this;
+		}
+
+		@Override
+		public WebDriver newWindow(WindowType typeHint) {
+			throw new UnsupportedOperationException("The in-memory browser has a single window");
+		}
+
+		@Override
+		public WebDriver defaultContent() {
+			return InMemoryWebDriver.this;
+		}
+
+		@Override
+		public WebElement activeElement() {
+			return findElement(By.tagName("body"));
+		}
+
+		@Override
+		public Alert alert() {
+			throw new NoAlertPresentException("The in-memory browser has no alerts");
+		}
+	}
+
+	private final class InMemoryNavigation implements Navigation {
+		@Override
+		public void back() {
+			if (historyIndex > 0) {
+				historyIndex--;
+				navigate(history.get(historyIndex), false);
+			}
+		}
+
+		@Override
+		public void forward() {
+			if (historyIndex < history.size() - 1) {
+				historyIndex++;
+				navigate(history.get(historyIndex), false);
+			}
+		}
+
+		@Override
+		public void to(String url) {
+			get(url);
+		}
+
+		@Override
+		public void to(URL url) {
+			get(url.toString());
+		}
+
+		@Override
+		public void refresh() {
+			navigate(url, false);
+		}
+	}
+
+	private final class InMemoryOptions implements Options {
+		@Override
+		public void addCookie(Cookie cookie) {
+			cookies.put(cookie.getName(), cookie);
+		}
+
+		@Override
+		public void deleteCookieNamed(String name) {
+			cookies.remove(name);
+		}
+
+		@Override
+		public void deleteCookie(Cookie cookie) {
+			cookies.remove(cookie.getName());
+		}
+
+		@Override
+		public void deleteAllCookies() {
+			cookies.clear();
+		}
+
+		@Override
+		public Set<Cookie> getCookies() {
+			return new LinkedHashSet<>(cookies.values());
+		}
+
+		@Override
+		public Cookie getCookieNamed(String name) {
+			return cookies.get(name);
+		}
+
+		@Override
+		public Timeouts timeouts() {
+			return new InMemoryTimeouts();
+		}
+
+		@Override
+		public Window window() {
+			return new InMemoryWindow();
+		}
+
+		@Override
+		public Logs logs() {
+			throw new UnsupportedCommandException("The in-memory browser keeps no logs");
+		}
+	}
+
+	private final class InMemoryTimeouts implements Timeouts {
+		@Override
+		public Timeouts implicitlyWait(Duration duration) {
+			implicitWait = duration;
+			return this;
+		}
+
+		@Override
+		public Duration getImplicitWaitTimeout() {
+			return implicitWait;
+		}
+
+		@Override
+		public Timeouts scriptTimeout(Duration duration) {
+			scriptTimeout = duration;
+			return this;
+		}
+
+		@Override
+		public Duration getScriptTimeout() {
+			return scriptTimeout;
+		}
+
+		@Override
+		public Timeouts pageLoadTimeout(Duration duration) {
+			pageLoadTimeout = duration;
+			return this;
+		}
+
+		@Override
+		public Duration getPageLoadTimeout() {
+			return pageLoadTimeout;
+		}
+	}
+
+	/** A fixed 1280x800 window; resizing requests are accepted and ignored. */
+	private static final class InMemoryWindow implements Window {
+		@Override
+		public Dimension getSize() {
+			return new Dimension(1280, 800);
+		}
+
+		@Override
+		public void setSize(Dimension targetSize) {
+		}
+
+		@Override
+		public Point getPosition() {
+			return new Point(0, 0);
+		}
+
+		@Override
+		public void setPosition(Point targetPosition) {
+		}
+
+		@Override
+		public void maximize() {
+		}
+
+		@Override
+		public void minimize() {
+		}
+
+		@Override
+		public void fullscreen() {
+		}
+	}
+}
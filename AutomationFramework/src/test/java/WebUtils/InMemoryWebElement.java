@@ -0,0 +1,473 @@
+package WebUtils;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.ElementNotInteractableException;
+import org.openqa.selenium.InvalidElementStateException;
+import org.openqa.selenium.Keys;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+/**
+ * Element of an {@link InMemoryWebDriver} page.
+ *
+ * Behaves like a browser element for what page objects use: visible text,
+ * attributes and the live value, displayed/enabled/selected state, clicks on
+ * checkboxes, radios, options, links and submit buttons, and typing with
+ * Enter submitting the form. Checked and selected state is kept in the
+ * checked/selected attributes so XPath and CSS locators see it. Once the
+ * driver loads another page the element is stale.
+ */
+public final class InMemoryWebElement implements WebElement {
+
+	private static final Set<String> HIDDEN_TAGS = new HashSet<>(
+			Arrays.asList("head", "script", "style", "title", "meta", "link", "template", "noscript"));
+	private static final Set<String> BLOCK_TAGS = new HashSet<>(Arrays.asList("address", "article", "aside",
+			"blockquote", "dd", "div", "dl", "dt", "fieldset", "figcaption", "figure", "footer", "form", "h1", "h2",
+			"h3", "h4", "h5", "h6", "header", "hr", "li", "main", "nav", "ol", "p", "pre", "section", "table", "tr",
+			"ul", "option"));
+	private static final Set<String> TEXT_INPUT_TYPES = new HashSet<>(
+			Arrays.asList("", "text", "search", "email", "url", "tel", "password", "number", "file"));
+
+	private static final String VALUE = "value";
+
+	private final InMemoryWebDriver driver;
+	private final Document document;
+	private final Element node;
+
+	InMemoryWebElement(InMemoryWebDriver driver, Document document, Element node) {
+		this.driver = driver;
+		this.document = document;
+		this.node = node;
+	}
+
+	Element node() {
+		checkCurrent();
+		return node;
+	}
+
+	private void checkCurrent() {
+		if (!driver.isCurrent(document)) {
+			throw new StaleElementReferenceException("Element <" + node.getTagName()
+					+ "> belongs to a page that is no longer loaded");
+		}
+	}
+
+	/* ==========================Interaction======================== */
+
+	@Override
+	public void click() {
+		checkCurrent();
+		if (!isDisplayed()) {
+			throw new ElementNotInteractableException("element not interactable: <" + node.getTagName()
+					+ "> is not displayed");
+		}
+		activate();
+	}
+
+	/** What a click does, without the visibility check; also used for script clicks. */
+	void activate() {
+		checkCurrent();
+		if (!isEnabled()) {
+			return;
+		}
+		String tag = node.getTagName();
+		String type = type();
+		if ("input".equals(tag) && "checkbox".equals(type)) {
+			setFlag("checked", !node.hasAttribute("checked"));
+		} else if ("input".equals(tag) && "radio".equals(type)) {
+			Element form = ancestor("form");
+			for (Element radio : driver.elementsByXPath(form == null ? document : form,
+					".//input[@type='radio'][@name=" + CssSelectors.literal(node.getAttribute("name")) + "]")) {
+				radio.removeAttribute("checked");
+			}
+			setFlag("checked", true);
+		} else if ("option".equals(tag)) {
+			Element select = ancestor("select");
+			if (select != null && !select.hasAttribute("multiple")) {
+				for (Element option : driver.elementsByXPath(select, ".//option")) {
+					option.removeAttribute("selected");
+				}
+				setFlag("selected", true);
+			} else {
+				setFlag("selected", !node.hasAttribute("selected"));
+			}
+		} else if (("button".equals(tag) && !"button".equals(type) && !"reset".equals(type))
+				|| ("input".equals(tag) && ("submit".equals(type) || "image".equals(type)))) {
+			Element form = ancestor("form");
+			if (form != null) {
+				driver.submit(form);
+			}
+		} else {
+			Element link = "a".equals(tag) ? node : ancestor("a");
+			if (link != null) {
+				driver.follow(link.getAttribute("href"));
+			}
+		}
+	}
+
+	@Override
+	public void submit() {
+		checkCurrent();
+		Element form = "form".equals(node.getTagName()) ? node : ancestor("form");
+		if (form == null) {
+			throw new UnsupportedOperationException("To submit an element, it must be nested inside a form element");
+		}
+		driver.submit(form);
+	}
+
+	/**
+	 * Types into text inputs and textareas, honouring maxlength. Enter in an
+	 * input submits its form; Backspace deletes. Keys sent to read-only or
+	 * non-text elements are ignored, as in a browser.
+	 */
+	@Override
+	public void sendKeys(CharSequence... keysToSend) {
+		checkCurrent();
+		if (!isDisplayed() || !isEnabled()) {
+			throw new ElementNotInteractableException("element not interactable: <" + node.getTagName() + ">");
+		}
+		boolean editable = isTextField() && !node.hasAttribute("readonly");
+		StringBuilder value = new StringBuilder(editable ? value() : "");
+		int maxLength = maxLength();
+		for (CharSequence keys : keysToSend) {
+			for (int i = 0; i < keys.length(); i++) {
+				char c = keys.charAt(i);
+				if (c == Keys.ENTER.charAt(0) || c == Keys.RETURN.charAt(0)) {
+					if (editable && "textarea".equals(node.getTagName())) {
+						value.append('\n');
+					} else if ("input".equals(node.getTagName()) && ancestor("form") != null) {
+						if (editable) {
+							node.setUserData(VALUE, value.toString(), null);
+						}
+						driver.submit(ancestor("form"));
+						return;
+					}
+				} else if (c == Keys.BACK_SPACE.charAt(0)) {
+					if (value.length() > 0) {
+						value.setLength(value.length() - 1);
+					}
+				} else if ((c < Keys.NULL.charAt(0) || c > '\uf8ff') && (maxLength < 0 || value.length() < maxLength)) {
+					value.append(c);
+				}
+			}
+		}
+		if (editable) {
+			node.setUserData(VALUE, value.toString(), null);
+		}
+	}
+
+	@Override
+	public void clear() {
+		checkCurrent();
+		if (!isEnabled() || node.hasAttribute("readonly")) {
+			throw new InvalidElementStateException("invalid element state: element must be user-editable");
+		}
+		node.setUserData(VALUE, "", null);
+	}
+
+	/** Sets the live value as a script would, without typing rules. */
+	void setValue(String value) {
+		checkCurrent();
+		node.setUserData(VALUE, value, null);
+	}
+
+	/* ==========================State======================== */
+
+	@Override
+	public String getTagName() {
+		checkCurrent();
+		return node.getTagName();
+	}
+
+	@Override
+	public String getDomAttribute(String name) {
+		checkCurrent();
+		String attribute = name.toLowerCase(Locale.ROOT);
+		return node.hasAttribute(attribute) ? node.getAttribute(attribute) : null;
+	}
+
+	@Override
+	public String getDomProperty(String name) {
+		checkCurrent();
+		switch (name) {
+		case "value":
+			return value();
+		case "checked":
+			return String.valueOf(node.hasAttribute("checked"));
+		case "selected":
+			return String.valueOf(node.hasAttribute("selected"));
+		case "disabled":
+			return String.valueOf(!isEnabled());
+		case "innerText":
+			return getText();
+		case "textContent":
+			return node.getTextContent();
+		default:
+			return getDomAttribute(name);
+		}
+	}
+
+	/** Like Selenium's getAttribute: the live value, booleans as "true" or null, otherwise the attribute. */
+	@Override
+	public String getAttribute(String name) {
+		checkCurrent();
+		String attribute = name.toLowerCase(Locale.ROOT);
+		switch (attribute) {
+		case "value":
+			return value();
+		case "checked":
+		case "selected":
+		case "disabled":
+		case "readonly":
+		case "multiple":
+		case "required":
+			return node.hasAttribute(attribute) ? "true" : null;
+		default:
+			return getDomAttribute(attribute);
+		}
+	}
+
+	@Override
+	public boolean isSelected() {
+		checkCurrent();
+		return node.hasAttribute("checked") || node.hasAttribute("selected");
+	}
+
+	@Override
+	public boolean isEnabled() {
+		checkCurrent();
+		for (Node n = node; n instanceof Element; n = n.getParentNode()) {
+			Element e = (Element) n;
+			if (e.hasAttribute("disabled") && (e == node || "fieldset".equals(e.getTagName()))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * False if the element or an ancestor has the hidden attribute or an inline
+	 * display:none, is a hidden input, or is not rendered at all (head, script
+	 * ...). Options count as displayed when their select is. Stylesheets are not
+	 * evaluated.
+	 */
+	@Override
+	public boolean isDisplayed() {
+		checkCurrent();
+		if ("input".equals(node.getTagName()) && "hidden".equals(type())) {
+			return false;
+		}
+		String style = style(node);
+		if (style.contains("visibility:hidden")) {
+			return false;
+		}
+		for (Node n = node; n instanceof Element; n = n.getParentNode()) {
+			Element e = (Element) n;
+			if (e.hasAttribute("hidden") || HIDDEN_TAGS.contains(e.getTagName())
+					|| style(e).contains("display:none")) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/** Rendered text as a browser reports it: hidden parts left out, one line per block, spaces collapsed. */
+	@Override
+	public String getText() {
+		checkCurrent();
+		if (!isDisplayed()) {
+			return "";
+		}
+		StringBuilder text = new StringBuilder();
+		appendText(node, text);
+		StringBuilder out = new StringBuilder();
+		for (String line : text.toString().split("\n")) {
+			String trimmed = line.replaceAll("[ \\t\\r\\f]+", " ").replace('\u00a0', ' ').trim();
+			if (!trimmed.isEmpty()) {
+				if (out.length() > 0) {
+					out.append('\n');
+				}
+				out.append(trimmed);
+			}
+		}
+		return out.toString();
+	}
+
+	private static void appendText(Node n, StringBuilder text) {
+		for (Node child = n.getFirstChild(); child != null; child = child.getNextSibling()) {
+			if (child.getNodeType() == Node.TEXT_NODE) {
+				text.append(child.getNodeValue().replace('\n', ' '));
+			} else if (child instanceof Element) {
+				Element e = (Element) child;
+				String tag = e.getTagName();
+				if (e.hasAttribute("hidden") || HIDDEN_TAGS.contains(tag) || style(e).contains("display:none")
+						|| ("input".equals(tag) && "hidden".equals(e.getAttribute("type")))) {
+					continue;
+				}
+				if ("br".equals(tag)) {
+					text.append('\n');
+				} else if (BLOCK_TAGS.contains(tag)) {
+					text.append('\n');
+					appendText(e, text);
+					text.append('\n');
+				} else {
+					if ("td".equals(tag) || "th".equals(tag)) {
+						text.append(' ');
+					}
+					appendText(e, text);
+				}
+			}
+		}
+	}
+
+	@Override
+	public List<WebElement> findElements(By by) {
+		checkCurrent();
+		return driver.find(node, by);
+	}
+
+	@Override
+	public WebElement findElement(By by) {
+		List<WebElement> found = findElements(by);
+		if (found.isEmpty()) {
+			throw new NoSuchElementException("no such element: Unable to locate element: " + by);
+		}
+		return found.get(0);
+	}
+
+	@Override
+	public Point getLocation() {
+		checkCurrent();
+		return new Point(0, 0);
+	}
+
+	@Override
+	public Dimension getSize() {
+		checkCurrent();
+		return isDisplayed() ? new Dimension(100, 20) : new Dimension(0, 0);
+	}
+
+	@Override
+	public Rectangle getRect() {
+		return new Rectangle(getLocation(), getSize());
+	}
+
+	/** Only inline styles are known; display falls back to block or none. */
+	@Override
+	public String getCssValue(String propertyName) {
+		checkCurrent();
+		String property = propertyName.toLowerCase(Locale.ROOT) + ":";
+		for (String declaration : style(node).split(";")) {
+			if (declaration.startsWith(property)) {
+				return declaration.substring(property.length());
+			}
+		}
+		if ("display".equals(propertyName)) {
+			return isDisplayed() ? "block" : "none";
+		}
+		return "";
+	}
+
+	@Override
+	public <X> X getScreenshotAs(OutputType<X> target) {
+		checkCurrent();
+		return driver.getScreenshotAs(target);
+	}
+
+	/* ==========================Helpers======================== */
+
+	private String value() {
+		Object live = node.getUserData(VALUE);
+		if (live != null) {
+			return (String) live;
+		}
+		switch (node.getTagName()) {
+		case "textarea":
+			return node.getTextContent();
+		case "select":
+			for (Element option : driver.elementsByXPath(node, ".//option[@selected]")) {
+				return optionValue(option);
+			}
+			List<Element> options = driver.elementsByXPath(node, ".//option");
+			return options.isEmpty() ? "" : optionValue(options.get(0));
+		case "option":
+			return optionValue(node);
+		case "input":
+			String value = node.getAttribute("value");
+			return value.isEmpty() && ("checkbox".equals(type()) || "radio".equals(type())) ? "on" : value;
+		default:
+			return null;
+		}
+	}
+
+	private static String optionValue(Element option) {
+		return option.hasAttribute("value") ? option.getAttribute("value") : option.getTextContent().trim();
+	}
+
+	private boolean isTextField() {
+		String tag = node.getTagName();
+		return "textarea".equals(tag) || ("input".equals(tag) && TEXT_INPUT_TYPES.contains(type()));
+	}
+
+	private int maxLength() {
+		try {
+			return node.hasAttribute("maxlength") ? Integer.parseInt(node.getAttribute("maxlength").trim()) : -1;
+		} catch (NumberFormatException e) {
+			return -1;
+		}
+	}
+
+	private String type() {
+		return node.getAttribute("type").toLowerCase(Locale.ROOT);
+	}
+
+	private void setFlag(String attribute, boolean on) {
+		if (on) {
+			node.setAttribute(attribute, attribute);
+		} else {
+			node.removeAttribute(attribute);
+		}
+	}
+
+	private Element ancestor(String tag) {
+		for (Node n = node.getParentNode(); n instanceof Element; n = n.getParentNode()) {
+			if (tag.equals(((Element) n).getTagName())) {
+				return (Element) n;
+			}
+		}
+		return null;
+	}
+
+	private static String style(Element e) {
+		return e.getAttribute("style").toLowerCase(Locale.ROOT).replaceAll("\\s+", "");
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		return o instanceof InMemoryWebElement && ((InMemoryWebElement) o).node == node;
+	}
+
+	@Override
+	public int hashCode() {
+		return System.identityHashCode(node);
+	}
+
+	@Override
+	public String toString() {
+		return "[InMemoryWebElement <" + node.getTagName() + ">]";
+	}
+}
@@ -0,0 +1,48 @@
+package WebUtils;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.openqa.selenium.json.Json;
+import org.openqa.selenium.json.JsonOutput;
+
+/**
+ * Appends one compact JSON object per line, flushing after each record so the
+ * file can be tailed while a long run is still going. Safe for concurrent use.
+ */
+public final class JsonLinesWriter implements Closeable {
+
+	private static final Json JSON = new Json();
+
+	private final BufferedWriter writer;
+
+	public JsonLinesWriter(Path file) throws IOException {
+		if (file.getParent() != null) {
+			Files.createDirectories(file.getParent());
+		}
+		this.writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8);
+	}
+
+	/** Serialises a map, list, string, number or boolean without pretty-printing. */
+	public static String toJson(Object value) {
+		StringBuilder json = new StringBuilder();
+		JsonOutput out = JSON.newOutput(json).setPrettyPrint(false);
+		out.write(value);
+		return json.toString();
+	}
+
+	public synchronized void write(Object record) throws IOException {
+		writer.write(toJson(record));
+		writer.newLine();
+		writer.flush();
+	}
+
+	@Override
+	public synchronized void close() throws IOException {
+		writer.close();
+	}
+}
@@ -0,0 +1,215 @@
+package WebUtils;
+
+import java.io.IOException;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import WebUtils.BrokenLinkChecker.LinkResult;
+import WebUtils.BrokenLinkChecker.LinkScan;
+
+/**
+ * Breadth-first crawl of one site that checks every discovered link once.
+ *
+ * Pages on the start URL's origin are opened in the browser up to the
+ * configured depth, each through {@link WebUtil#openURL(String, PageReadiness)}
+ * so it gets the session's readiness wait, logging and page measurements; a
+ * page that fails to open is counted in {@link CrawlSummary#getPageErrors()}.
+ * Links found there, same-origin or not, are checked over HTTP with
+ * {@link BrokenLinkChecker}. Memory stays flat however large the site: seen
+ * URLs live in a {@link BoundedVisitedSet}, the queue of pages still to open
+ * is capped, and each result is appended to a JSON Lines file as soon as it is
+ * known rather than collected in memory.
+ */
+public final class LinkCrawler {
+
+	private static final Pattern NON_PAGE = Pattern.compile(
+			".*\\.(pdf|zip|gz|jpe?g|png|gif|svg|webp|ico|mp[34]|avi|mov|css|js|json|xml|woff2?|ttf)$",
+			Pattern.CASE_INSENSITIVE);
+
+	private final WebUtil we;
+	private final BrokenLinkChecker checker;
+	private int maxDepth = 2;
+	private int maxPages = 1000;
+	private int maxQueuedPages = 10_000;
+	private long expectedUrls = 100_000;
+	private double falsePositiveRate = 0.001;
+	private int recentCapacity = 10_000;
+
+	public LinkCrawler(WebUtil we) {
+		this(we, new BrokenLinkChecker());
+	}
+
+	public LinkCrawler(WebUtil we, BrokenLinkChecker checker) {
+		this.we = we;
+		this.checker = checker;
+	}
+
+	/* ==========================Configuration======================== */
+
+	/** Link hops from the start page whose pages are still opened; 0 opens only the start page. */
+	public LinkCrawler setMaxDepth(int maxDepth) {
+		this.maxDepth = maxDepth;
+		return this;
+	}
+
+	public LinkCrawler setMaxPages(int maxPages) {
+		this.maxPages = maxPages;
+		return this;
+	}
+
+	/** Pages waiting to be opened; links past this are still checked but not followed. */
+	public LinkCrawler setMaxQueuedPages(int maxQueuedPages) {
+		this.maxQueuedPages = maxQueuedPages;
+		return this;
+	}
+
+	/** Sizes the visited-set filter; see {@link BoundedVisitedSet}. */
+	public LinkCrawler setVisitedCapacity(long expectedUrls, double falsePositiveRate, int recentCapacity) {
+		this.expectedUrls = expectedUrls;
+		this.falsePositiveRate = falsePositiveRate;
+		this.recentCapacity = recentCapacity;
+		return this;
+	}
+
+	/* ==========================Crawling======================== */
+
+	public CrawlSummary crawl(String startUrl, Path resultsFile) throws IOException {
+		String origin = origin(startUrl);
+		BoundedVisitedSet visited = new BoundedVisitedSet(expectedUrls, falsePositiveRate, recentCapacity);
+		Deque<PageEntry> pages = new ArrayDeque<>();
+		CrawlSummary summary = new CrawlSummary();
+
+		try (JsonLinesWriter out = new JsonLinesWriter(resultsFile)) {
+			List<String> start = BrokenLinkChecker.normalize(List.of(startUrl));
+			String first = start.isEmpty() ? startUrl : start.get(0);
+			visited.add(first);
+			pages.add(new PageEntry(first, 0));
+			record(out, checker.checkOne(first), null, 0, summary);
+
+			while (!pages.isEmpty() && summary.pagesCrawled < maxPages) {
+				PageEntry page = pages.poll();
+				LinkScan scan;
+				try {
+					// throws if the page fails to load, so it counts as a page error
+					we.openURL(page.url, PageReadiness.DOCUMENT);
+					scan = BrokenLinkChecker.collectLinks(we.getDriver());
+				} catch (RuntimeException e) {
+					summary.pageErrors++;
+					Map<String, Object> line = new LinkedHashMap<>();
+					line.put("page", page.url);
+					line.put("error", e.getClass().getSimpleName() + ": " + e.getMessage());
+					out.write(line);
+					continue;
+				} finally {
+					summary.pagesCrawled++;
+				}
+
+				List<String> fresh = new ArrayList<>();
+				for (String url : scan.getUrls()) {
+					if (visited.add(url)) {
+						fresh.add(url);
+					}
+				}
+				for (LinkResult result : checker.check(fresh)) {
+					record(out, result, page.url, page.depth + 1, summary);
+					if (!result.isBroken() && page.depth < maxDepth && origin.equals(origin(result.getUrl()))
+							&& !NON_PAGE.matcher(URI.create(result.getUrl()).getPath()).matches()) {
+						if (pages.size() < maxQueuedPages) {
+							pages.add(new PageEntry(result.getUrl(), page.depth + 1));
+						} else {
+							summary.pagesNotQueued++;
+						}
+					}
+				}
+			}
+		}
+		summary.visitedFilterBytes = visited.filterBytes();
+		return summary;
+	}
+
+	private static void record(JsonLinesWriter out, LinkResult result, String foundOn, int depth,
+			CrawlSummary summary) throws IOException {
+		summary.urlsChecked++;
+		if (result.isBroken()) {
+			summary.brokenLinks++;
+		}
+		Map<String, Object> line = new LinkedHashMap<>();
+		line.put("url", result.getUrl());
+		line.put("status", result.getStatusCode());
+		line.put("method", result.getMethod());
+		line.put("broken", result.isBroken());
+		line.put("error", result.getError());
+		line.put("elapsedMs", result.getElapsedMillis());
+		line.put("foundOn", foundOn);
+		line.put("depth", depth);
+		out.write(line);
+	}
+
+	private static String origin(String url) {
+		try {
+			URI uri = URI.create(url);
+			return String.valueOf(uri.getScheme()).toLowerCase(Locale.ROOT) + "://"
+					+ String.valueOf(uri.getHost()).toLowerCase(Locale.ROOT) + ":" + uri.getPort();
+		} catch (IllegalArgumentException e) {
+			return "";
+		}
+	}
+
+	private static final class PageEntry {
+		private final String url;
+		private final int depth;
+
+		private PageEntry(String url, int depth) {
+			this.url = url;
+			this.depth = depth;
+		}
+	}
+
+	public static final class CrawlSummary {
+		private int pagesCrawled;
+		private int pageErrors;
+		private long urlsChecked;
+		private long brokenLinks;
+		private long pagesNotQueued;
+		private long visitedFilterBytes;
+
+		public int getPagesCrawled() {
+			return pagesCrawled;
+		}
+
+		public int getPageErrors() {
+			return pageErrors;
+		}
+
+		public long getUrlsChecked() {
+			return urlsChecked;
+		}
+
+		public long getBrokenLinks() {
+			return brokenLinks;
+		}
+
+		/** Same-origin pages that were checked but not opened because the queue was full. */
+		public long getPagesNotQueued() {
+			return pagesNotQueued;
+		}
+
+		public long getVisitedFilterBytes() {
+			return visitedFilterBytes;
+		}
+
+		@Override
+		public String toString() {
+			return "Pages crawled: " + pagesCrawled + " (" + pageErrors + " failed to load), URLs checked: "
+					+ urlsChecked + ", broken: " + brokenLinks + ", pages not queued: " + pagesNotQueued;
+		}
+	}
+}
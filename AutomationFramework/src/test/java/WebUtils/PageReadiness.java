@@ -0,0 +1,289 @@
+package WebUtils;
+
+import java.lang.reflect.Field;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptException;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.support.FindAll;
+import org.openqa.selenium.support.FindBy;
+import org.openqa.selenium.support.FindBys;
+import org.openqa.selenium.support.pagefactory.Annotations;
+
+/**
+ * When a page is usable for a test: at least one of its {@link PageReady}
+ * elements is present.
+ *
+ * With the eager or none page-load strategy, driver.get returns before the
+ * page has finished loading (or, with none, before it has even started), so
+ * {@link WebUtil#openURL(String, Class)} waits for this condition instead.
+ * The check is one asynchronous script that answers at once if an element is
+ * already there and otherwise watches the DOM with a MutationObserver, so the
+ * element is noticed when it is inserted rather than at the next poll. It
+ * refuses to answer from the document that was showing before the
+ * navigation, which with the none strategy may still be current.
+ *
+ * Locators that cannot be expressed as a CSS selector, XPath or link text
+ * (ByChained, ByAll), and drivers that run no JavaScript, fall back to
+ * findElements.
+ *
+ * {@link Navigation} measures what returning early saved: once the page's
+ * load event has fired, or the test has navigated on, the time from ready to
+ * load event is recorded.
+ */
+public final class PageReadiness {
+
+	private static final String READY_SCRIPT = "var locators = arguments[0], previous = arguments[1],"
+			+ "  sliceMillis = arguments[2], done = arguments[arguments.length - 1];"
+			+ "if (previous !== null && performance.timeOrigin === previous) { done(-2); return; }"
+			+ "function present(using, value) {"
+			+ "  switch (using) {"
+			+ "  case 'css selector': return document.querySelector(value) !== null;"
+			+ "  case 'id': return document.getElementById(value) !== null;"
+			+ "  case 'name': return document.getElementsByName(value).length > 0;"
+			+ "  case 'class name': return document.getElementsByClassName(value).length > 0;"
+			+ "  case 'tag name': return document.getElementsByTagName(value).length > 0;"
+			+ "  case 'xpath': return document.evaluate(value, document, null, 9, null).singleNodeValue !== null;"
+			+ "  default:"
+			+ "    var links = document.getElementsByTagName('a');"
+			+ "    for (var i = 0; i < links.length; i++) {"
+			+ "      var text = links[i].innerText.trim();"
+			+ "      if (using === 'link text' ? text === value : text.indexOf(value) >= 0) { return true; }"
+			+ "    }"
+			+ "    return false;"
+			+ "  }"
+			+ "}"
+			+ "function find() {"
+			+ "  for (var i = 0; i < locators.length; i++) {"
+			+ "    if (present(locators[i][0], locators[i][1])) { return i; }"
+			+ "  }"
+			+ "  return -1;"
+			+ "}"
+			+ "var found = find();"
+			+ "if (found >= 0) { done(found); return; }"
+			+ "var timer, observer = new MutationObserver(function () {"
+			+ "  var index = find();"
+			+ "  if (index >= 0) { observer.disconnect(); clearTimeout(timer); done(index); }"
+			+ "});"
+			+ "observer.observe(document, { childList: true, subtree: true, attributes: true });"
+			+ "timer = setTimeout(function () { observer.disconnect(); done(-1); }, sliceMillis);";
+
+	private static final String LOAD_SCRIPT = "var nav = performance.getEntriesByType('navigation')[0];"
+			+ "if (!nav || performance.timeOrigin !== arguments[0]) { return null; }"
+			+ "return [nav.loadEventEnd, performance.now()];";
+
+	private static final String ORIGIN_SCRIPT = "return [performance.timeOrigin, performance.now()];";
+
+	/** Longest single wait inside the browser; well under the default 30 s script timeout. */
+	private static final long SLICE_MILLIS = 2000;
+
+	/** Fallback when no page object is given: the new document has a body. */
+	public static final PageReadiness DOCUMENT = anyPresent("document", By.tagName("body"));
+
+	private static final Map<Class<?>, PageReadiness> BY_PAGE = new ConcurrentHashMap<>();
+	private static final AtomicLong navigations = new AtomicLong();
+	private static final AtomicLong readyMillis = new AtomicLong();
+	private static final AtomicLong measured = new AtomicLong();
+	private static final AtomicLong savedMillis = new AtomicLong();
+
+	private final String name;
+	private final List<By> locators;
+	private final List<List<String>> remote;
+
+	private PageReadiness(String name, List<By> locators) {
+		this.name = name;
+		this.locators = locators;
+		this.remote = remoteLocators(locators);
+	}
+
+	/** The condition declared by the page object's @PageReady fields, its superclasses' included. */
+	public static PageReadiness of(Class<?> page) {
+		return BY_PAGE.computeIfAbsent(page, PageReadiness::fromAnnotations);
+	}
+
+	/** Ready when any of the locators finds an element. */
+	public static PageReadiness anyPresent(String name, By... locators) {
+		if (locators.length == 0) {
+			throw new IllegalArgumentException("A readiness condition needs at least one locator");
+		}
+		return new PageReadiness(name, Arrays.asList(locators));
+	}
+
+	private static PageReadiness fromAnnotations(Class<?> page) {
+		List<By> locators = new ArrayList<>();
+		for (Class<?> type = page; type != null && type != Object.class; type = type.getSuperclass()) {
+			for (Field field : type.getDeclaredFields()) {
+				if (!field.isAnnotationPresent(PageReady.class)) {
+					continue;
+				}
+				if (!field.isAnnotationPresent(FindBy.class) && !field.isAnnotationPresent(FindBys.class)
+						&& !field.isAnnotationPresent(FindAll.class)) {
+					throw new IllegalArgumentException("@PageReady field " + type.getSimpleName() + "." + field.getName()
+							+ " has no @FindBy, @FindBys or @FindAll");
+				}
+				locators.add(new Annotations(field).buildBy());
+			}
+		}
+		if (locators.isEmpty()) {
+			throw new IllegalArgumentException(page.getName() + " has no @PageReady field");
+		}
+		return new PageReadiness(page.getSimpleName(), locators);
+	}
+
+	/** [using, value] per locator, or null if any of them has no remote form. */
+	private static List<List<String>> remoteLocators(List<By> locators) {
+		List<List<String>> remote = new ArrayList<>();
+		for (By by : locators) {
+			if (!(by instanceof By.Remotable)) {
+				return null;
+			}
+			By.Remotable.Parameters parameters = ((By.Remotable) by).getRemoteParameters();
+			remote.add(List.of(parameters.using(), String.valueOf(parameters.value())));
+		}
+		return remote;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	/* ==========================Waiting======================== */
+
+	/**
+	 * performance.timeOrigin of the current document, to pass to
+	 * {@link #await} after navigating away from it; null if there is none.
+	 */
+	static Double currentDocument(WebDriver driver) {
+		if (!(driver instanceof JavascriptExecutor)) {
+			return null;
+		}
+		try {
+			Object result = ((JavascriptExecutor) driver).executeScript(ORIGIN_SCRIPT);
+			return result instanceof List ? ((Number) ((List<?>) result).get(0)).doubleValue() : null;
+		} catch (WebDriverException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Waits until the page is ready.
+	 *
+	 * @param previousDocument timeOrigin of the document shown before navigating, or null
+	 * @return the navigation, for measuring the time saved
+	 * @throws org.openqa.selenium.TimeoutException if the page is not ready in time
+	 */
+	Navigation await(WebDriver driver, Double previousDocument, Duration timeout) {
+		long start = System.nanoTime();
+		WaitEngine.until("pageReady " + name, timeout, () -> isReady(driver, previousDocument, SLICE_MILLIS));
+		long waitedMillis = (System.nanoTime() - start) / 1_000_000;
+		Object origin = driver instanceof JavascriptExecutor ? safeScript(driver, ORIGIN_SCRIPT) : null;
+		if (!(origin instanceof List)) {
+			return new Navigation(name, null, waitedMillis);
+		}
+		List<?> values = (List<?>) origin;
+		navigations.incrementAndGet();
+		long readyAt = ((Number) values.get(1)).longValue();
+		readyMillis.addAndGet(readyAt);
+		return new Navigation(name, ((Number) values.get(0)).doubleValue(), readyAt);
+	}
+
+	/** Checks once, without waiting. */
+	public boolean isReady(WebDriver driver) {
+		return isReady(driver, null, 0);
+	}
+
+	private boolean isReady(WebDriver driver, Double previousDocument, long sliceMillis) {
+		if (remote != null && driver instanceof JavascriptExecutor) {
+			Object result;
+			try {
+				result = ((JavascriptExecutor) driver).executeAsyncScript(READY_SCRIPT, remote, previousDocument,
+						sliceMillis);
+			} catch (JavascriptException e) {
+				// the document was replaced while the script was watching it
+				return false;
+			}
+			if (result instanceof Number) {
+				return ((Number) result).intValue() >= 0;
+			}
+		}
+		for (By by : locators) {
+			if (!driver.findElements(by).isEmpty()) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static Object safeScript(WebDriver driver, String script, Object... args) {
+		try {
+			return ((JavascriptExecutor) driver).executeScript(script, args);
+		} catch (WebDriverException e) {
+			return null;
+		}
+	}
+
+	/* ==========================Time Saved======================== */
+
+	/** A page opened without waiting for its load event. */
+	public static final class Navigation {
+		private final String page;
+		private final Double document;
+		private final long readyAtMillis;
+
+		private Navigation(String page, Double document, long readyAtMillis) {
+			this.page = page;
+			this.document = document;
+			this.readyAtMillis = readyAtMillis;
+		}
+
+		/** Milliseconds from the start of navigation until the page was ready. */
+		public long getReadyAtMillis() {
+			return readyAtMillis;
+		}
+
+		/**
+		 * Time from ready to the page's load event, or to now if the load event
+		 * has not fired yet (a lower bound). Call before navigating away.
+		 *
+		 * @return the milliseconds saved, or -1 if the page can no longer be measured
+		 */
+		public long settle(WebDriver driver) {
+			if (document == null) {
+				return -1;
+			}
+			Object result = safeScript(driver, LOAD_SCRIPT, document);
+			if (!(result instanceof List)) {
+				return -1;
+			}
+			List<?> values = (List<?>) result;
+			long loadEnd = ((Number) values.get(0)).longValue();
+			long end = loadEnd > 0 ? loadEnd : ((Number) values.get(1)).longValue();
+			long saved = Math.max(0, end - readyAtMillis);
+			measured.incrementAndGet();
+			savedMillis.addAndGet(saved);
+			return saved;
+		}
+
+		public String getPage() {
+			return page;
+		}
+	}
+
+	public static String getStatsSummary() {
+		long count = navigations.get();
+		long settled = measured.get();
+		return "Page readiness: " + count + " early navigations, ready after "
+				+ (count == 0 ? 0 : readyMillis.get() / count) + " ms on average, " + savedMillis.get()
+				+ " ms saved before load events over " + settled + " measured ("
+				+ (settled == 0 ? 0 : savedMillis.get() / settled) + " ms each)";
+	}
+}
@@ -0,0 +1,23 @@
+package WebUtils;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a located field of a page object as its readiness condition: once the
+ * element is present, the page is usable and
+ * {@link WebUtil#openURL(String, Class)} returns, without waiting for the rest
+ * of the page to load. When several fields are marked, any one of them being
+ * present is enough, so an object repository shared by sites (such as
+ * com.ORLayer.SearchProduct) can mark the key element of each.
+ *
+ * The field also needs @FindBy, @FindBys or @FindAll; see {@link PageReadiness}.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface PageReady {
+}
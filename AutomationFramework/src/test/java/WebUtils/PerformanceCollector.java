@@ -0,0 +1,364 @@
+package WebUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+import java.util.regex.Pattern;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.json.Json;
+
+import com.aventstack.extentreports.Status;
+
+/**
+ * Front-end performance of every page a session visits, checked against
+ * budgets.
+ *
+ * Attached to a WebUtil with {@link WebUtil#setPerformanceCollector}, it reads
+ * the page's Navigation Timing, Resource Timing, first contentful paint and
+ * the Web Vitals LCP, CLS and INP before each navigation, click or typing
+ * action, and once more when the test ends. Web Vitals come from
+ * PerformanceObservers created with buffered: true, so nothing has to be
+ * injected before the page loads. Reading the same document again replaces
+ * the earlier reading; a page is reported, once, when the session has moved
+ * on from it or {@link #flush} is called. CLS uses session windows (gaps under
+ * 1 s, windows under 5 s). INP is the slowest interaction, skipping one per
+ * 50; the browser only buffers events of 104 ms or more, so a page with no
+ * slow interaction has no INP.
+ *
+ * Each page is logged to the test and kept for {@link #writeReport(Path)}.
+ * Budgets come from a JSON file given to {@link #loadBudgets(Path)}, keyed by
+ * URL pattern (* matches anything) plus an optional "default" entry, e.g.
+ * {"default": {"lcpMs": 2500, "cls": 0.1}, "https://www.amazon.in/s*": {"loadMs": 6000}}.
+ * The longest matching pattern wins, metric by metric, over "default". Pages
+ * over budget are logged as FAIL and returned by
+ * {@link #takeViolations()}, which BaseTest turns into a test failure.
+ *
+ * Under the eager and none page-load strategies a page is often read before
+ * its load event or largest paint. A timing still missing when the page was
+ * already older than its limit counts as over budget. One missing on a page
+ * the session left earlier cannot be judged and is logged as a WARNING; the
+ * last page of a test is given up to its loadMs limit in {@link #flush} first.
+ *
+ * Budgets are only meaningful for the page a user would see. Under the fast
+ * execution profile the browser is headless and images and fonts are blocked,
+ * so LCP, load time and bytes come out lower than real; run budget suites on
+ * the standard profile (see testng-performance.xml).
+ */
+public final class PerformanceCollector {
+
+	private static final String COLLECT_SCRIPT = "var nav = performance.getEntriesByType('navigation')[0];"
+			+ "if (!nav || location.protocol.indexOf('http') !== 0) { return null; }"
+			+ "function buffered(type, options) {"
+			+ "  try {"
+			+ "    var observer = new PerformanceObserver(function () {});"
+			+ "    observer.observe(Object.assign({ type: type, buffered: true }, options || {}));"
+			+ "    var list = observer.takeRecords();"
+			+ "    observer.disconnect();"
+			+ "    return list;"
+			+ "  } catch (e) { return []; }"
+			+ "}"
+			+ "var paint = performance.getEntriesByName('first-contentful-paint')[0];"
+			+ "var lcps = buffered('largest-contentful-paint'), lcp = lcps[lcps.length - 1];"
+			+ "var cls = 0, win = 0, first = 0, prev = 0;"
+			+ "buffered('layout-shift').forEach(function (s) {"
+			+ "  if (s.hadRecentInput) { return; }"
+			+ "  if (win && s.startTime - prev < 1000 && s.startTime - first < 5000) { win += s.value; }"
+			+ "  else { win = s.value; first = s.startTime; }"
+			+ "  prev = s.startTime;"
+			+ "  cls = Math.max(cls, win);"
+			+ "});"
+			+ "var interactions = {};"
+			+ "buffered('event', { durationThreshold: 16 }).concat(buffered('first-input')).forEach(function (e) {"
+			+ "  if (e.interactionId) {"
+			+ "    interactions[e.interactionId] = Math.max(interactions[e.interactionId] || 0, e.duration);"
+			+ "  }"
+			+ "});"
+			+ "var durations = Object.keys(interactions).map(function (k) { return interactions[k]; })"
+			+ "  .sort(function (a, b) { return b - a; });"
+			+ "var resources = performance.getEntriesByType('resource'), bytes = nav.transferSize || 0, byType = {};"
+			+ "resources.forEach(function (r) {"
+			+ "  var t = byType[r.initiatorType] || (byType[r.initiatorType] = { requests: 0, bytes: 0 });"
+			+ "  t.requests++;"
+			+ "  t.bytes += r.transferSize || 0;"
+			+ "  bytes += r.transferSize || 0;"
+			+ "});"
+			+ "var slowest = resources.slice().sort(function (a, b) { return b.duration - a.duration; }).slice(0, 5)"
+			+ "  .map(function (r) { return { url: r.name, durationMs: Math.round(r.duration) }; });"
+			+ "return {"
+			+ "  origin: performance.timeOrigin, url: location.href, ageMs: Math.round(performance.now()),"
+			+ "  ttfbMs: Math.round(nav.responseStart), domContentLoadedMs: nav.domContentLoadedEventEnd ? Math.round(nav.domContentLoadedEventEnd) : null,"
+			+ "  loadMs: nav.loadEventEnd ? Math.round(nav.loadEventEnd) : null,"
+			+ "  fcpMs: paint ? Math.round(paint.startTime) : null, lcpMs: lcp ? Math.round(lcp.startTime) : null,"
+			+ "  lcpElement: lcp && lcp.element ? lcp.element.localName : null,"
+			+ "  cls: Math.round(cls * 1000) / 1000,"
+			+ "  inpMs: durations.length ? durations[Math.min(durations.length - 1, Math.floor(durations.length / 50))] : null,"
+			+ "  requests: resources.length + 1, transferBytes: bytes, byType: byType, slowest: slowest"
+			+ "};";
+
+	private static final String LOAD_SCRIPT = "var nav = performance.getEntriesByType('navigation')[0];"
+			+ "return nav ? [nav.loadEventEnd, performance.now()] : null;";
+
+	/** Metrics a budget can limit, with the unit used in messages. */
+	private static final Map<String, String> BUDGET_METRICS = new LinkedHashMap<>();
+	static {
+		BUDGET_METRICS.put("ttfbMs", "ms");
+		BUDGET_METRICS.put("domContentLoadedMs", "ms");
+		BUDGET_METRICS.put("loadMs", "ms");
+		BUDGET_METRICS.put("fcpMs", "ms");
+		BUDGET_METRICS.put("lcpMs", "ms");
+		BUDGET_METRICS.put("cls", "");
+		BUDGET_METRICS.put("inpMs", "ms");
+		BUDGET_METRICS.put("requests", "");
+		BUDGET_METRICS.put("transferBytes", "bytes");
+	}
+
+	/** Metrics that are null until the page reaches them, unlike INP, which is null when nothing was slow. */
+	private static final Set<String> TIMINGS = Set.of("domContentLoadedMs", "loadMs", "fcpMs", "lcpMs");
+
+	private static final Json JSON = new Json();
+	private static final Queue<Map<String, Object>> PAGES = new ConcurrentLinkedQueue<>();
+	private static final AtomicLong overBudget = new AtomicLong();
+	private static volatile Map<String, Map<String, Object>> budgets = Map.of();
+
+	private final List<String> violations = new ArrayList<>();
+	private Map<String, Object> pending;
+	private Object reported;
+
+	/* ==========================Budgets======================== */
+
+	/** Reads budgets for every collector in this run; see the class comment for the format. */
+	public static void loadBudgets(Path file) throws IOException {
+		String json = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+		Map<String, Object> raw = JSON.toType(json, Json.MAP_TYPE);
+		Map<String, Map<String, Object>> parsed = new LinkedHashMap<>();
+		for (Map.Entry<String, Object> entry : raw.entrySet()) {
+			if (!(entry.getValue() instanceof Map)) {
+				throw new IllegalArgumentException("Budget for '" + entry.getKey() + "' in " + file + " is not an object");
+			}
+			@SuppressWarnings("unchecked")
+			Map<String, Object> limits = (Map<String, Object>) entry.getValue();
+			for (String metric : limits.keySet()) {
+				if (!BUDGET_METRICS.containsKey(metric)) {
+					throw new IllegalArgumentException("Unknown metric '" + metric + "' in " + file + "; expected one of "
+							+ BUDGET_METRICS.keySet());
+				}
+			}
+			parsed.put(entry.getKey(), limits);
+		}
+		budgets = parsed;
+	}
+
+	/** Limits for the URL: the longest matching pattern's, metric by metric over "default". */
+	public static Map<String, Number> budgetFor(String url) {
+		Map<String, Number> limits = new LinkedHashMap<>();
+		String best = null;
+		for (String pattern : budgets.keySet()) {
+			if (!"default".equals(pattern) && matches(pattern, url) && (best == null || pattern.length() > best.length())) {
+				best = pattern;
+			}
+		}
+		for (String key : best == null ? List.of("default") : List.of("default", best)) {
+			Map<String, Object> entry = budgets.get(key);
+			if (entry != null) {
+				entry.forEach((metric, limit) -> limits.put(metric, (Number) limit));
+			}
+		}
+		return limits;
+	}
+
+	private static boolean matches(String pattern, String url) {
+		StringBuilder regex = new StringBuilder();
+		for (String part : pattern.split("\\*", -1)) {
+			regex.append(regex.length() == 0 ? "" : ".*").append(Pattern.quote(part));
+		}
+		return url.matches(regex.toString());
+	}
+
+	/* ==========================Collecting======================== */
+
+	/**
+	 * Reads the current page. If the session has moved to a new document since
+	 * the last reading, the previous page is reported first.
+	 */
+	public void collect(WebDriver driver, BiConsumer<Status, String> logger) {
+		Map<String, Object> page = read(driver);
+		if (page == null) {
+			return;
+		}
+		Map<String, Object> previous;
+		synchronized (this) {
+			if (page.get("origin").equals(reported)) {
+				// already reported by flush; later readings of the same page are not
+				return;
+			}
+			previous = pending != null && !pending.get("origin").equals(page.get("origin")) ? pending : null;
+			pending = page;
+		}
+		if (previous != null) {
+			report(previous, logger);
+		}
+	}
+
+	/**
+	 * Reads the current page and reports it together with any earlier one not
+	 * yet reported. If the page has a loadMs budget but has not loaded yet, it
+	 * is given until that limit to do so before it is judged.
+	 */
+	public void flush(WebDriver driver, BiConsumer<Status, String> logger) {
+		collect(driver, logger);
+		Map<String, Object> last;
+		synchronized (this) {
+			last = pending;
+		}
+		if (last != null && last.get("loadMs") == null) {
+			Number limit = budgetFor((String) last.get("url")).get("loadMs");
+			if (limit != null) {
+				try {
+					waitForLoad(driver, limit.longValue());
+				} catch (WebDriverException e) {
+					// the page cannot be read now; it is judged on the reading already taken
+				}
+				collect(driver, logger);
+			}
+		}
+		synchronized (this) {
+			last = pending;
+			pending = null;
+		}
+		if (last != null) {
+			report(last, logger);
+		}
+	}
+
+	/** Budget violations reported since the last call. */
+	public synchronized List<String> takeViolations() {
+		List<String> taken = new ArrayList<>(violations);
+		violations.clear();
+		return taken;
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Object> read(WebDriver driver) {
+		if (!(driver instanceof JavascriptExecutor)) {
+			return null;
+		}
+		try {
+			Object result = ((JavascriptExecutor) driver).executeScript(COLLECT_SCRIPT);
+			return result instanceof Map ? new LinkedHashMap<>((Map<String, Object>) result) : null;
+		} catch (WebDriverException e) {
+			// an open alert or a closed window; the page cannot be read now
+			return null;
+		}
+	}
+
+	private void report(Map<String, Object> page, BiConsumer<Status, String> logger) {
+		synchronized (this) {
+			reported = page.remove("origin");
+		}
+		page.put("test", ActionMetrics.getCurrentTest());
+		List<String> exceeded = new ArrayList<>();
+		List<String> unchecked = new ArrayList<>();
+		long age = ((Number) page.get("ageMs")).longValue();
+		budgetFor((String) page.get("url")).forEach((metric, limit) -> {
+			Object value = page.get(metric);
+			String unit = BUDGET_METRICS.get(metric);
+			if (value instanceof Number) {
+				if (((Number) value).doubleValue() > limit.doubleValue()) {
+					exceeded.add(metric + " " + value + unit + " > " + limit + unit);
+				}
+			} else if (TIMINGS.contains(metric)) {
+				if (age > limit.doubleValue()) {
+					exceeded.add(metric + " not reached after " + age + unit + " > " + limit + unit);
+				} else {
+					unchecked.add(metric);
+				}
+			}
+		});
+		page.put("overBudget", exceeded);
+		page.put("unchecked", unchecked);
+		PAGES.add(page);
+		logger.accept(Status.INFO, describe(page));
+		if (!unchecked.isEmpty()) {
+			logger.accept(Status.WARNING, "Performance budget not checked on " + page.get("url") + ": "
+					+ String.join(", ", unchecked) + " not reached when the page was left after " + age + " ms");
+		}
+		if (!exceeded.isEmpty()) {
+			overBudget.incrementAndGet();
+			String violation = page.get("url") + ": " + String.join(", ", exceeded);
+			synchronized (this) {
+				violations.add(violation);
+			}
+			logger.accept(Status.FAIL, "Performance budget exceeded on " + violation);
+		}
+	}
+
+	private static String describe(Map<String, Object> page) {
+		return String.format(Locale.ROOT,
+				"Performance of %s: TTFB %s ms, DOMContentLoaded %s ms, load %s ms, FCP %s ms, LCP %s ms, CLS %s, INP %s ms,"
+						+ " %s requests, %d KB",
+				page.get("url"), page.get("ttfbMs"), orDash(page.get("domContentLoadedMs")), orDash(page.get("loadMs")),
+				orDash(page.get("fcpMs")), orDash(page.get("lcpMs")), page.get("cls"), orDash(page.get("inpMs")),
+				page.get("requests"), ((Number) page.get("transferBytes")).longValue() / 1024);
+	}
+
+	private static Object orDash(Object value) {
+		return value == null ? "-" : value;
+	}
+
+	/* ==========================Load Assertions======================== */
+
+	/**
+	 * Waits until the current page's load event has fired or the page is older
+	 * than maxMillis, whichever comes first.
+	 *
+	 * @return loadEventEnd in ms from the start of navigation, or -1 if the page
+	 *         had not loaded within maxMillis or has no navigation to load
+	 */
+	static long waitForLoad(WebDriver driver, long maxMillis) {
+		return WaitEngine.until("page load", Duration.ofMillis(maxMillis).plusSeconds(5), () -> {
+			Object result = ((JavascriptExecutor) driver).executeScript(LOAD_SCRIPT);
+			if (!(result instanceof List)) {
+				// about:blank, data: URLs and the like have no navigation entry and never load
+				return -1L;
+			}
+			List<?> values = (List<?>) result;
+			long loadEnd = Math.round(((Number) values.get(0)).doubleValue());
+			if (loadEnd > 0) {
+				return loadEnd;
+			}
+			return ((Number) values.get(1)).doubleValue() > maxMillis ? -1L : null;
+		});
+	}
+
+	/* ==========================Reporting======================== */
+
+	/** Every page reported in this run, as JSON. */
+	public static void writeReport(Path file) throws IOException {
+		if (file.getParent() != null) {
+			Files.createDirectories(file.getParent());
+		}
+		Map<String, Object> document = new LinkedHashMap<>();
+		document.put("budgets", budgets);
+		document.put("pages", new ArrayList<>(PAGES));
+		Files.write(file, JsonLinesWriter.toJson(document).getBytes(StandardCharsets.UTF_8));
+	}
+
+	public static String getStatsSummary() {
+		return "Page performance: " + PAGES.size() + " pages measured, " + overBudget.get() + " over budget";
+	}
+}
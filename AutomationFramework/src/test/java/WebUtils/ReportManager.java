@@ -0,0 +1,219 @@
+package WebUtils;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.MediaEntityBuilder;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.model.Media;
+import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import com.aventstack.extentreports.reporter.configuration.Theme;
+
+/**
+ * One ExtentReports instance for the whole suite, safe to use from parallel
+ * test threads.
+ *
+ * Test threads never touch the report directly when logging: {@link #log}
+ * puts the event on a bounded lock-free queue and returns. A single background
+ * writer applies events to the report in order. When the queue is full callers
+ * wait for space rather than dropping events. {@link #shutdown} drains whatever
+ * is left and flushes the report once; a shutdown hook does the same if the
+ * suite never gets that far.
+ */
+public final class ReportManager {
+
+	private static final String REPORT_PATH = System.getProperty("report.path", "test-output/Index.html");
+	private static final int QUEUE_CAPACITY = Integer.getInteger("report.queueCapacity", 8192);
+	private static final int BATCH_SIZE = 256;
+
+	private static final Object LOCK = new Object();
+	private static final Queue<LogEvent> QUEUE = new ConcurrentLinkedQueue<>();
+	private static final AtomicInteger queued = new AtomicInteger();
+	private static final AtomicLong enqueued = new AtomicLong();
+	private static final AtomicLong written = new AtomicLong();
+
+	private static volatile ExtentReports extent;
+	private static volatile Thread writer;
+	private static volatile boolean running;
+
+	private ReportManager() {
+	}
+
+	/* ==========================Report Access======================== */
+
+	public static ExtentReports getReports() {
+		ExtentReports reports = extent;
+		if (reports == null) {
+			synchronized (LOCK) {
+				if (extent == null) {
+					ExtentSparkReporter spark = new ExtentSparkReporter(REPORT_PATH);
+					spark.config().setTheme(Theme.DARK);
+					ExtentReports created = new ExtentReports();
+					created.attachReporter(spark);
+					startWriter();
+					extent = created;
+				}
+				reports = extent;
+			}
+		}
+		return reports;
+	}
+
+	public static ExtentTest createTest(String testName) {
+		ExtentReports reports = getReports();
+		synchronized (LOCK) {
+			return reports.createTest(testName);
+		}
+	}
+
+	public static void addTestRunnerOutput(String output) {
+		ExtentReports reports = getReports();
+		synchronized (LOCK) {
+			reports.addTestRunnerOutput(output);
+		}
+	}
+
+	/* ==========================Logging======================== */
+
+	/**
+	 * Queues a log entry for the given test and returns without waiting for it
+	 * to reach the report. Entries from one thread are written in call order.
+	 */
+	public static void log(ExtentTest test, Status status, String details) {
+		log(test, status, details, null);
+	}
+
+	/**
+	 * Queues a log entry with a screenshot that the report links to by a path
+	 * relative to the report file, rather than embedding it.
+	 */
+	public static void logScreenshot(ExtentTest test, Status status, String details, Path image) {
+		Path reportDir = Paths.get(REPORT_PATH).toAbsolutePath().getParent();
+		String link = reportDir.relativize(image.toAbsolutePath()).toString().replace('\\', '/');
+		log(test, status, details, MediaEntityBuilder.createScreenCaptureFromPath(link).build());
+	}
+
+	private static void log(ExtentTest test, Status status, String details, Media media) {
+		if (test == null) {
+			return;
+		}
+		if (!running) {
+			synchronized (LOCK) {
+				write(test, status, details, media);
+			}
+			return;
+		}
+		while (queued.incrementAndGet() > QUEUE_CAPACITY) {
+			queued.decrementAndGet();
+			LockSupport.unpark(writer);
+			LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+		}
+		QUEUE.offer(new LogEvent(test, status, details, media));
+		if (enqueued.incrementAndGet() - written.get() == 1) {
+			LockSupport.unpark(writer);
+		}
+	}
+
+	/**
+	 * Waits until everything logged so far has been written, then flushes the
+	 * report to disk.
+	 */
+	public static void flush() {
+		if (extent == null) {
+			return;
+		}
+		long start = System.nanoTime();
+		long target = enqueued.get();
+		while (running && written.get() < target) {
+			LockSupport.unpark(writer);
+			LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+		}
+		drain(Integer.MAX_VALUE);
+		synchronized (LOCK) {
+			extent.flush();
+		}
+		TraceRecorder.complete("report flush", "report", start);
+	}
+
+	/** Stops the writer, writes any remaining entries and flushes the report. */
+	public static void shutdown() {
+		Thread current = writer;
+		running = false;
+		if (current != null) {
+			LockSupport.unpark(current);
+			try {
+				current.join(TimeUnit.SECONDS.toMillis(30));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		writer = null;
+		flush();
+	}
+
+	private static void startWriter() {
+		running = true;
+		Thread thread = new Thread(ReportManager::writeLoop, "extent-report-writer");
+		thread.setDaemon(true);
+		writer = thread;
+		thread.start();
+		Runtime.getRuntime().addShutdownHook(new Thread(ReportManager::shutdown, "extent-report-flush"));
+	}
+
+	private static void writeLoop() {
+		while (running) {
+			if (drain(BATCH_SIZE) == 0) {
+				LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+			}
+		}
+		drain(Integer.MAX_VALUE);
+	}
+
+	private static int drain(int maxEvents) {
+		int count = 0;
+		synchronized (LOCK) {
+			LogEvent event;
+			while (count < maxEvents && (event = QUEUE.poll()) != null) {
+				queued.decrementAndGet();
+				try {
+					write(event.test, event.status, event.details, event.media);
+				} catch (RuntimeException e) {
+					e.printStackTrace();
+				}
+				count++;
+			}
+		}
+		written.addAndGet(count);
+		return count;
+	}
+
+	private static void write(ExtentTest test, Status status, String details, Media media) {
+		if (media == null) {
+			test.log(status, details);
+		} else {
+			test.log(status, details, media);
+		}
+	}
+
+	private static final class LogEvent {
+		private final ExtentTest test;
+		private final Status status;
+		private final String details;
+		private final Media media;
+
+		private LogEvent(ExtentTest test, Status status, String details, Media media) {
+			this.test = test;
+			this.status = status;
+			this.details = details;
+			this.media = media;
+		}
+	}
+}
@@ -0,0 +1,209 @@
+package WebUtils;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.SearchContext;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.WrapsElement;
+import org.openqa.selenium.interactions.Coordinates;
+import org.openqa.selenium.interactions.Locatable;
+
+import WebUtils.CachingElementLocatorFactory.CachingElementLocator;
+
+/**
+ * Page object element that is found on first use and re-found when needed.
+ *
+ * Every call goes to the element its {@link CachingElementLocator} currently
+ * holds. If that element went stale, or is not known in the current frame, the
+ * locator is cleared, the element is found again and the call is retried once.
+ * This is a plain class rather than a dynamic proxy so page objects built by
+ * the generated *_Elements binders cost one small allocation per field.
+ */
+public final class ResolvingElement implements WebElement, WrapsElement, Locatable {
+
+	private final CachingElementLocator locator;
+	private final int index;
+
+	public ResolvingElement(CachingElementLocator locator) {
+		this(locator, -1);
+	}
+
+	/** The element at a position among all matches of the locator. */
+	ResolvingElement(CachingElementLocator locator, int index) {
+		this.locator = locator;
+		this.index = index;
+	}
+
+	private <T> T call(Function<WebElement, T> action) {
+		boolean cached = index < 0 && locator.isElementCached();
+		try {
+			return action.apply(resolve());
+		} catch (StaleElementReferenceException e) {
+			// the page changed under us, find it again below
+		} catch (NoSuchElementException e) {
+			if (!cached) {
+				throw e;
+			}
+		}
+		locator.invalidate();
+		TraceRecorder.instant("re-resolve", "webutil", null);
+		return action.apply(resolve());
+	}
+
+	private WebElement resolve() {
+		if (index < 0) {
+			return locator.findElement();
+		}
+		List<WebElement> elements = locator.findElements();
+		if (index >= elements.size()) {
+			throw new NoSuchElementException("Element " + index + " no longer present for " + locator);
+		}
+		return elements.get(index);
+	}
+
+	@Override
+	public WebElement getWrappedElement() {
+		return resolve();
+	}
+
+	@Override
+	public Coordinates getCoordinates() {
+		return call(e -> ((Locatable) e).getCoordinates());
+	}
+
+	@Override
+	public void click() {
+		call(e -> {
+			e.click();
+			return null;
+		});
+	}
+
+	@Override
+	public void submit() {
+		call(e -> {
+			e.submit();
+			return null;
+		});
+	}
+
+	@Override
+	public void sendKeys(CharSequence... keysToSend) {
+		call(e -> {
+			e.sendKeys(keysToSend);
+			return null;
+		});
+	}
+
+	@Override
+	public void clear() {
+		call(e -> {
+			e.clear();
+			return null;
+		});
+	}
+
+	@Override
+	public String getTagName() {
+		return call(WebElement::getTagName);
+	}
+
+	@Override
+	public String getDomProperty(String name) {
+		return call(e -> e.getDomProperty(name));
+	}
+
+	@Override
+	public String getDomAttribute(String name) {
+		return call(e -> e.getDomAttribute(name));
+	}
+
+	@Override
+	@SuppressWarnings("deprecation")
+	public String getAttribute(String name) {
+		return call(e -> e.getAttribute(name));
+	}
+
+	@Override
+	public String getAriaRole() {
+		return call(WebElement::getAriaRole);
+	}
+
+	@Override
+	public String getAccessibleName() {
+		return call(WebElement::getAccessibleName);
+	}
+
+	@Override
+	public boolean isSelected() {
+		return call(WebElement::isSelected);
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return call(WebElement::isEnabled);
+	}
+
+	@Override
+	public String getText() {
+		return call(WebElement::getText);
+	}
+
+	@Override
+	public List<WebElement> findElements(By by) {
+		return call(e -> e.findElements(by));
+	}
+
+	@Override
+	public WebElement findElement(By by) {
+		return call(e -> e.findElement(by));
+	}
+
+	@Override
+	public SearchContext getShadowRoot() {
+		return call(WebElement::getShadowRoot);
+	}
+
+	@Override
+	public boolean isDisplayed() {
+		return call(WebElement::isDisplayed);
+	}
+
+	@Override
+	public Point getLocation() {
+		return call(WebElement::getLocation);
+	}
+
+	@Override
+	public Dimension getSize() {
+		return call(WebElement::getSize);
+	}
+
+	@Override
+	public Rectangle getRect() {
+		return call(WebElement::getRect);
+	}
+
+	@Override
+	public String getCssValue(String propertyName) {
+		return call(e -> e.getCssValue(propertyName));
+	}
+
+	@Override
+	public <X> X getScreenshotAs(OutputType<X> target) {
+		return call(e -> e.getScreenshotAs(target));
+	}
+
+	@Override
+	public String toString() {
+		return "Element for: " + locator + (index < 0 ? "" : " [" + index + "]");
+	}
+}
@@ -0,0 +1,35 @@
+package WebUtils;
+
+import java.util.AbstractList;
+
+import org.openqa.selenium.WebElement;
+
+import WebUtils.CachingElementLocatorFactory.CachingElementLocator;
+
+/**
+ * List field counterpart of {@link ResolvingElement}: the matches are looked
+ * up when the list is read and each element handed out re-finds itself by
+ * position if it goes stale.
+ */
+public final class ResolvingElementList extends AbstractList<WebElement> {
+
+	private final CachingElementLocator locator;
+
+	public ResolvingElementList(CachingElementLocator locator) {
+		this.locator = locator;
+	}
+
+	@Override
+	public WebElement get(int index) {
+		int size = size();
+		if (index < 0 || index >= size) {
+			throw new IndexOutOfBoundsException("Index " + index + " out of " + size + " for " + locator);
+		}
+		return new ResolvingElement(locator, index);
+	}
+
+	@Override
+	public int size() {
+		return locator.findElements().size();
+	}
+}
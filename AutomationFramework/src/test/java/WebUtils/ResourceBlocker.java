@@ -0,0 +1,219 @@
+package WebUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiConsumer;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.devtools.HasDevTools;
+import org.openqa.selenium.json.Json;
+
+import com.aventstack.extentreports.Status;
+
+/**
+ * Blocks images, fonts, media and tracker requests in a Chromium browser and
+ * counts what that saved, page by page.
+ *
+ * Uses the CDP Fetch domain through raw commands and events, so it works with
+ * whichever DevTools version Selenium matches to the browser. Every request is
+ * stopped before it is sent: images, fonts and media by resource type,
+ * trackers by URL pattern. Extra patterns can be given with -Dblock.urls
+ * (comma separated, * as wildcard). What a blocked request would have cost is
+ * never known, so savings are counted in requests only, not bytes.
+ *
+ * A page ends when the top frame navigates, or when {@link #finishPage()} is
+ * called; its savings are then logged to the test and kept for
+ * {@link #writeReport(Path)}.
+ */
+public final class ResourceBlocker {
+
+	private static final List<String> BLOCKED_TYPES = List.of("Image", "Font", "Media");
+	private static final List<String> TRACKERS = List.of("*google-analytics.com*", "*googletagmanager.com*",
+			"*doubleclick.net*", "*googlesyndication.com*", "*amazon-adsystem.com*", "*facebook.net*",
+			"*scorecardresearch.com*", "*hotjar.com*", "*criteo.com*", "*bat.bing.com*");
+
+	private static final Queue<Map<String, Object>> PAGES = new ConcurrentLinkedQueue<>();
+	private static final AtomicLong totalPages = new AtomicLong();
+	private static final AtomicLong totalRequests = new AtomicLong();
+
+	private final DevTools devTools;
+	private final BiConsumer<Status, String> logger;
+	private PageSavings page = new PageSavings(null);
+
+	private ResourceBlocker(DevTools devTools, BiConsumer<Status, String> logger) {
+		this.devTools = devTools;
+		this.logger = logger;
+	}
+
+	/**
+	 * Starts blocking in the browser.
+	 *
+	 * @return the blocker, or null if the driver offers no DevTools connection
+	 */
+	public static ResourceBlocker attach(WebDriver driver, BiConsumer<Status, String> logger) {
+		if (!(driver instanceof HasDevTools)) {
+			return null;
+		}
+		DevTools devTools = ((HasDevTools) driver).maybeGetDevTools().orElse(null);
+		if (devTools == null) {
+			return null;
+		}
+		devTools.createSessionIfThereIsNotOne();
+		ResourceBlocker blocker = new ResourceBlocker(devTools, logger);
+		devTools.addListener(new Event<>("Fetch.requestPaused", input -> input.<Map<String, Object>>read(Json.MAP_TYPE)),
+				blocker::requestPaused);
+		devTools.addListener(new Event<>("Page.frameNavigated", input -> input.<Map<String, Object>>read(Json.MAP_TYPE)),
+				blocker::frameNavigated);
+		devTools.send(new Command<Void>("Page.enable", Map.of()));
+		devTools.send(new Command<Void>("Fetch.enable", Map.of("patterns", patterns())));
+		return blocker;
+	}
+
+	private static List<Map<String, Object>> patterns() {
+		List<Map<String, Object>> patterns = new ArrayList<>();
+		for (String type : BLOCKED_TYPES) {
+			patterns.add(Map.of("urlPattern", "*", "resourceType", type, "requestStage", "Request"));
+		}
+		List<String> urls = new ArrayList<>(TRACKERS);
+		String extra = System.getProperty("block.urls");
+		if (extra != null && !extra.isBlank()) {
+			Arrays.stream(extra.split(",")).map(String::trim).filter(p -> !p.isEmpty()).forEach(urls::add);
+		}
+		for (String url : urls) {
+			patterns.add(Map.of("urlPattern", url, "requestStage", "Request"));
+		}
+		return patterns;
+	}
+
+	/* ==========================CDP Events======================== */
+
+	private void requestPaused(Map<String, Object> event) {
+		String requestId = (String) event.get("requestId");
+		String type = String.valueOf(event.get("resourceType"));
+		try {
+			devTools.send(new Command<Void>("Fetch.failRequest",
+					Map.of("requestId", requestId, "errorReason", "BlockedByClient")));
+		} catch (WebDriverException e) {
+			// the request was cancelled by the page in the meantime
+			return;
+		}
+		synchronized (this) {
+			page.add(BLOCKED_TYPES.contains(type) ? type : "Tracker");
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void frameNavigated(Map<String, Object> event) {
+		Map<String, Object> frame = (Map<String, Object>) event.get("frame");
+		if (frame == null || frame.get("parentId") != null) {
+			return;
+		}
+		PageSavings finished;
+		synchronized (this) {
+			finished = page;
+			page = new PageSavings((String) frame.get("url"));
+		}
+		finish(finished);
+	}
+
+	/**
+	 * Logs the current page's savings now instead of at the next navigation,
+	 * e.g. before the session is handed to another test. Requests blocked
+	 * after this and before the next navigation are not reported.
+	 */
+	public void finishPage() {
+		PageSavings finished;
+		synchronized (this) {
+			finished = page;
+			page = new PageSavings(null);
+		}
+		finish(finished);
+	}
+
+	/** Logs the current page's savings and stops listening; call before quitting the browser. */
+	public void detach() {
+		finishPage();
+		try {
+			devTools.clearListeners();
+			devTools.send(new Command<Void>("Fetch.disable", Map.of()));
+		} catch (WebDriverException e) {
+			// the browser is already gone
+		}
+	}
+
+	private void finish(PageSavings savings) {
+		if (savings.url == null || savings.requests == 0) {
+			return;
+		}
+		totalPages.incrementAndGet();
+		totalRequests.addAndGet(savings.requests);
+		PAGES.add(savings.toMap());
+		logger.accept(Status.INFO, savings.describe());
+	}
+
+	/* ==========================Reporting======================== */
+
+	/** Per-page savings of every blocker in this run, as JSON. */
+	public static void writeReport(Path file) throws IOException {
+		if (file.getParent() != null) {
+			Files.createDirectories(file.getParent());
+		}
+		Map<String, Object> document = new LinkedHashMap<>();
+		document.put("pages", totalPages.get());
+		document.put("requestsBlocked", totalRequests.get());
+		document.put("perPage", new ArrayList<>(PAGES));
+		Files.write(file, JsonLinesWriter.toJson(document).getBytes(StandardCharsets.UTF_8));
+	}
+
+	public static String getStatsSummary() {
+		return "Resources blocked: " + totalRequests.get() + " requests over " + totalPages.get() + " pages";
+	}
+
+	private static final class PageSavings {
+		private final String url;
+		private final Map<String, Integer> byType = new TreeMap<>();
+		private int requests;
+
+		private PageSavings(String url) {
+			this.url = url;
+		}
+
+		private void add(String type) {
+			requests++;
+			byType.merge(type, 1, Integer::sum);
+		}
+
+		private Map<String, Object> toMap() {
+			Map<String, Object> row = new LinkedHashMap<>();
+			row.put("url", url);
+			row.put("requestsBlocked", requests);
+			row.put("byType", byType);
+			return row;
+		}
+
+		private String describe() {
+			StringBuilder types = new StringBuilder();
+			for (Map.Entry<String, Integer> entry : byType.entrySet()) {
+				types.append(types.length() == 0 ? "" : ", ").append(entry.getValue()).append(' ')
+						.append(entry.getKey().toLowerCase(Locale.ROOT));
+			}
+			return "Blocked " + requests + " requests (" + types + ") on " + url;
+		}
+	}
+}
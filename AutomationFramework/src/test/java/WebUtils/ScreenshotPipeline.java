@@ -0,0 +1,256 @@
+package WebUtils;
+
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+
+/**
+ * Background encoding and content-addressed storage of screenshots.
+ *
+ * WebUtil captures the PNG bytes and hands them over; everything slow
+ * happens on a small pool of daemon threads: downscaling to at most
+ * {@code -Dscreenshot.maxWidth} pixels (default 1280), re-encoding as
+ * {@code -Dscreenshot.format} (png, indexed for a 256-colour PNG, or jpeg;
+ * default png) and writing the file. Files are named by the SHA-256 of the
+ * captured bytes under {@code -Dscreenshot.dir} (default ScreenShot), so a
+ * screen captured twice is stored once, and an existing file is never
+ * overwritten. The report links to the file instead of embedding it.
+ *
+ * When more captures are waiting than the queue holds, the capturing thread
+ * encodes its own screenshot, which bounds memory. Call
+ * {@link #awaitCompletion} before flushing the report at the end of a run.
+ */
+public final class ScreenshotPipeline {
+
+	public enum Format {
+		PNG("png"), INDEXED("png"), JPEG("jpg");
+
+		private final String extension;
+
+		Format(String extension) {
+			this.extension = extension;
+		}
+	}
+
+	private static final Path DIRECTORY = Paths.get(System.getProperty("screenshot.dir", "ScreenShot"));
+	private static final Format FORMAT = Format
+			.valueOf(System.getProperty("screenshot.format", "png").toUpperCase(Locale.ROOT));
+	private static final int MAX_WIDTH = Integer.getInteger("screenshot.maxWidth", 1280);
+	private static final float JPEG_QUALITY = 0.8f;
+
+	private static final ThreadPoolExecutor EXECUTOR = createExecutor();
+	private static final Map<String, CompletableFuture<Path>> STORED = new ConcurrentHashMap<>();
+	/** Submissions whose report entry has not been queued yet. */
+	private static final Set<CompletableFuture<Path>> PENDING = ConcurrentHashMap.newKeySet();
+	private static final AtomicInteger captured = new AtomicInteger();
+	private static final AtomicInteger duplicates = new AtomicInteger();
+	private static final AtomicLong bytesCaptured = new AtomicLong();
+	private static final AtomicLong bytesWritten = new AtomicLong();
+
+	private ScreenshotPipeline() {
+	}
+
+	private static ThreadPoolExecutor createExecutor() {
+		int threads = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+		AtomicInteger count = new AtomicInteger();
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<>(32), r -> {
+					Thread thread = new Thread(r, "screenshot-encoder-" + count.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				}, new ThreadPoolExecutor.CallerRunsPolicy());
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/* ==========================Submitting======================== */
+
+	/**
+	 * Stores the captured PNG in the background and then logs it to the test
+	 * with a link. Returns at once unless the queue is full.
+	 *
+	 * @return the stored file, completing exceptionally if it could not be written
+	 */
+	public static CompletableFuture<Path> submit(byte[] png, String title, ExtentTest test) {
+		captured.incrementAndGet();
+		bytesCaptured.addAndGet(png.length);
+		String hash = sha256(png);
+		CompletableFuture<Path> stored = new CompletableFuture<>();
+		CompletableFuture<Path> existing = STORED.putIfAbsent(hash, stored);
+		if (existing != null) {
+			duplicates.incrementAndGet();
+			stored = existing;
+		} else {
+			CompletableFuture<Path> target = stored;
+			EXECUTOR.execute(() -> {
+				try {
+					target.complete(store(hash, png));
+				} catch (IOException | RuntimeException e) {
+					STORED.remove(hash, target);
+					target.completeExceptionally(e);
+				}
+			});
+		}
+		CompletableFuture<Path> logged = stored.whenComplete((file, error) -> {
+			if (error == null) {
+				ReportManager.logScreenshot(test, Status.INFO, "Screenshot: " + title, file);
+			} else {
+				ReportManager.log(test, Status.WARNING, "Screenshot '" + title + "' could not be saved: "
+						+ error.getMessage());
+			}
+		});
+		PENDING.add(logged);
+		logged.whenComplete((file, error) -> PENDING.remove(logged));
+		return logged;
+	}
+
+	/**
+	 * Waits until every submitted screenshot is written and its link queued
+	 * for the report, or the timeout passes.
+	 */
+	public static boolean awaitCompletion(long timeout, TimeUnit unit) {
+		CompletableFuture<?>[] pending = PENDING.toArray(new CompletableFuture<?>[0]);
+		try {
+			CompletableFuture.allOf(pending).get(timeout, unit);
+			return true;
+		} catch (TimeoutException e) {
+			return false;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return false;
+		} catch (ExecutionException e) {
+			// individual failures were already reported to their tests
+			return true;
+		}
+	}
+
+	/* ==========================Encoding======================== */
+
+	private static Path store(String hash, byte[] png) throws IOException {
+		Path file = DIRECTORY.resolve(hash + "." + FORMAT.extension);
+		if (Files.exists(file)) {
+			return file;
+		}
+		byte[] encoded = encode(png);
+		Files.createDirectories(DIRECTORY);
+		// not createTempFile: its owner-only permissions would carry over to the screenshot
+		Path temp = DIRECTORY.resolve(hash + "." + Thread.currentThread().getId() + ".tmp");
+		try {
+			Files.write(temp, encoded);
+			Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+		} catch (IOException e) {
+			Files.deleteIfExists(temp);
+			if (!Files.exists(file)) {
+				throw e;
+			}
+		}
+		bytesWritten.addAndGet(encoded.length);
+		return file;
+	}
+
+	private static byte[] encode(byte[] png) throws IOException {
+		return encode(png, FORMAT, MAX_WIDTH);
+	}
+
+	/** Re-encodes a PNG, scaled down to maxWidth if wider; returned unchanged if nothing needs doing. */
+	static byte[] encode(byte[] png, Format format, int maxWidth) throws IOException {
+		BufferedImage image = ImageIO.read(new ByteArrayInputStream(png));
+		if (image == null) {
+			throw new IOException("Screenshot is not a readable image");
+		}
+		boolean scaled = image.getWidth() > maxWidth;
+		if (!scaled && format == Format.PNG) {
+			return png;
+		}
+		if (scaled) {
+			int height = Math.max(1, (int) Math.round(image.getHeight() * (double) maxWidth / image.getWidth()));
+			image = redraw(image, maxWidth, height, BufferedImage.TYPE_INT_RGB);
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream(png.length / 2);
+		switch (format) {
+		case INDEXED:
+			ImageIO.write(redraw(image, image.getWidth(), image.getHeight(), BufferedImage.TYPE_BYTE_INDEXED), "png",
+					out);
+			break;
+		case JPEG:
+			writeJpeg(image.getType() == BufferedImage.TYPE_INT_RGB ? image
+					: redraw(image, image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB), out);
+			break;
+		default:
+			ImageIO.write(image, "png", out);
+		}
+		return out.toByteArray();
+	}
+
+	private static BufferedImage redraw(BufferedImage source, int width, int height, int type) {
+		BufferedImage target = new BufferedImage(width, height, type);
+		Graphics2D g = target.createGraphics();
+		try {
+			g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+			g.drawImage(source, 0, 0, width, height, null);
+		} finally {
+			g.dispose();
+		}
+		return target;
+	}
+
+	private static void writeJpeg(BufferedImage image, ByteArrayOutputStream out) throws IOException {
+		ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+		try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+			ImageWriteParam param = writer.getDefaultWriteParam();
+			param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+			param.setCompressionQuality(JPEG_QUALITY);
+			writer.setOutput(stream);
+			writer.write(null, new IIOImage(image, null, null), param);
+		} finally {
+			writer.dispose();
+		}
+	}
+
+	private static String sha256(byte[] bytes) {
+		try {
+			return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/* ==========================Statistics======================== */
+
+	public static String getStatsSummary() {
+		return String.format("Screenshots: %d captured, %d duplicates, %d KB captured, %d KB written (%s)",
+				captured.get(), duplicates.get(), bytesCaptured.get() / 1024, bytesWritten.get() / 1024,
+				FORMAT.name().toLowerCase(Locale.ROOT));
+	}
+}
@@ -0,0 +1,19 @@
+package WebUtils;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Read-only view of one Excel sheet indexed by TestCaseID (column 0,
+ * case-insensitive), backed either by a parsed workbook or a binary snapshot.
+ */
+interface SheetTable {
+
+	List<String> headers();
+
+	/** Header-keyed row values, or an empty map if the TestCaseID is absent. */
+	Map<String, String> row(String testCaseID);
+
+	/** Sheet row number of the TestCaseID, or -1 if it is absent. */
+	int rowNumber(String testCaseID);
+}
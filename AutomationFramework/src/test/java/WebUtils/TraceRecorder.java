@@ -0,0 +1,157 @@
+package WebUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Timeline of framework spans for the whole run, written in the Chrome
+ * trace-event format so it opens in Perfetto (ui.perfetto.dev) or
+ * chrome://tracing.
+ *
+ * Every WebUtil action is recorded through {@link ActionMetrics}; WaitEngine
+ * adds each wait and its polling attempts, DriverPool the time spent waiting
+ * for a session, ReportManager its flushes and BaseTest setup and teardown.
+ * Spans from one thread nest on one track, so parallel test threads show up
+ * side by side. Timestamps are System.nanoTime() in microseconds; the
+ * viewers start the timeline at the first event. Recording is on by default
+ * and bounded by {@code -Dtrace.maxEvents} (default 500000); switch it off
+ * with {@code -Dtrace.enabled=false}.
+ */
+public final class TraceRecorder {
+
+	private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("trace.enabled", "true"));
+	private static final int MAX_EVENTS = Integer.getInteger("trace.maxEvents", 500_000);
+	private static final int PID = 1;
+
+	private static final Queue<Event> EVENTS = new ConcurrentLinkedQueue<>();
+	private static final AtomicInteger size = new AtomicInteger();
+	private static final Set<Long> NAMED_THREADS = ConcurrentHashMap.newKeySet();
+
+	private TraceRecorder() {
+	}
+
+	/* ==========================Recording======================== */
+
+	/** Records a span that started at the given System.nanoTime() and ends now. */
+	public static void complete(String name, String category, long startNanos) {
+		complete(name, category, startNanos, System.nanoTime() - startNanos, null);
+	}
+
+	/**
+	 * Records a span on the calling thread's track.
+	 *
+	 * @param args extra fields shown when the span is selected, may be null
+	 */
+	public static void complete(String name, String category, long startNanos, long durationNanos,
+			Map<String, Object> args) {
+		add(new Event("X", name, category, startNanos, durationNanos, args));
+	}
+
+	/** Records a point in time on the calling thread's track, e.g. a retry. */
+	public static void instant(String name, String category, Map<String, Object> args) {
+		add(new Event("i", name, category, System.nanoTime(), 0, args));
+	}
+
+	private static void add(Event event) {
+		if (!ENABLED) {
+			return;
+		}
+		if (size.incrementAndGet() > MAX_EVENTS) {
+			size.decrementAndGet();
+			return;
+		}
+		if (NAMED_THREADS.add(event.threadId)) {
+			EVENTS.offer(Event.threadName(Thread.currentThread().getName()));
+		}
+		EVENTS.offer(event);
+	}
+
+	public static int getEventCount() {
+		return size.get();
+	}
+
+	public static void reset() {
+		EVENTS.clear();
+		NAMED_THREADS.clear();
+		size.set(0);
+	}
+
+	/* ==========================Export======================== */
+
+	/** Writes every event recorded so far as a trace-event JSON file. */
+	public static void write(Path file) throws IOException {
+		if (file.getParent() != null) {
+			Files.createDirectories(file.getParent());
+		}
+		try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+			out.write("{\"displayTimeUnit\": \"ms\",\"traceEvents\": [\n");
+			boolean first = true;
+			for (Event event : EVENTS) {
+				if (!first) {
+					out.write(",\n");
+				}
+				out.write(JsonLinesWriter.toJson(event.toMap()));
+				first = false;
+			}
+			out.write("\n]}\n");
+		}
+	}
+
+	private static final class Event {
+		private final String phase;
+		private final String name;
+		private final String category;
+		private final long startNanos;
+		private final long durationNanos;
+		private final Map<String, Object> args;
+		private final long threadId = Thread.currentThread().getId();
+
+		private Event(String phase, String name, String category, long startNanos, long durationNanos,
+				Map<String, Object> args) {
+			this.phase = phase;
+			this.name = name;
+			this.category = category;
+			this.startNanos = startNanos;
+			this.durationNanos = durationNanos;
+			this.args = args;
+		}
+
+		private static Event threadName(String threadName) {
+			Map<String, Object> args = new LinkedHashMap<>();
+			args.put("name", threadName);
+			return new Event("M", "thread_name", null, 0, 0, args);
+		}
+
+		private Map<String, Object> toMap() {
+			Map<String, Object> map = new LinkedHashMap<>();
+			map.put("name", name);
+			if (category != null) {
+				map.put("cat", category);
+			}
+			map.put("ph", phase);
+			map.put("ts", TimeUnit.NANOSECONDS.toMicros(startNanos));
+			if ("X".equals(phase)) {
+				map.put("dur", TimeUnit.NANOSECONDS.toMicros(durationNanos));
+			} else if ("i".equals(phase)) {
+				map.put("s", "t");
+			}
+			map.put("pid", PID);
+			map.put("tid", threadId);
+			if (args != null) {
+				map.put("args", args);
+			}
+			return map;
+		}
+	}
+}
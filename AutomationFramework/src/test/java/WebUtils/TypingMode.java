@@ -0,0 +1,21 @@
+package WebUtils;
+
+/**
+ * How {@link WebUtil#type} enters text. Set a default with
+ * {@link WebUtil#setTypingMode(TypingMode)} or pass one per call.
+ */
+public enum TypingMode {
+
+	/** Real key events through sendKeys, one per character. */
+	KEYS,
+
+	/**
+	 * Sets the whole value in one script call and fires input and change
+	 * events so React, Angular and similar frameworks see the change. Falls back
+	 * to {@link #KEYS} on its own for fields that need real key events: anything
+	 * other than a text-like input or textarea, a value cut by maxlength, or a
+	 * page that rewrites the value (input masks, key handlers). See
+	 * {@link FastFill}.
+	 */
+	FAST_FILL
+}
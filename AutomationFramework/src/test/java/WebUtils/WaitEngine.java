@@ -0,0 +1,186 @@
+package WebUtils;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import org.openqa.selenium.NotFoundException;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedCondition;
+
+/**
+ * Central polling wait used by WebUtil's element lookups, clicks and waitFor*
+ * methods.
+ *
+ * A condition is tried immediately, then re-tried with exponentially growing
+ * pauses (50 ms, 100 ms, 200 ms ... capped at 1 s) until it yields a non-null,
+ * non-false value or the deadline passes. Element-not-found and stale-element
+ * errors count as "not yet"; any other exception fails the wait at once.
+ * A driver-side implicit wait would make a single attempt block for its whole
+ * length and overrun the deadline, so WebUtil launches sessions without one.
+ *
+ * Every wait is timed per condition name so timeouts can be tuned from real
+ * numbers: see {@link #getStats()} and {@link #writeReport(Path)}. Each wait
+ * and each of its attempts is also a span in the {@link TraceRecorder}
+ * timeline.
+ */
+public final class WaitEngine {
+
+	private static final long INITIAL_INTERVAL_MILLIS = 50;
+	private static final long MAX_INTERVAL_MILLIS = 1000;
+
+	private static final Map<String, ConditionStats> STATS = new ConcurrentHashMap<>();
+
+	private WaitEngine() {
+	}
+
+	/* ==========================Waiting======================== */
+
+	public static <T> T until(WebDriver driver, String conditionName, Duration timeout,
+			ExpectedCondition<T> condition) {
+		return until(conditionName, timeout, () -> condition.apply(driver));
+	}
+
+	/**
+	 * Polls the condition until it returns a non-null, non-false value.
+	 *
+	 * @throws TimeoutException if the deadline passes first; the last
+	 *                          not-found/stale error is attached as the cause
+	 */
+	public static <T> T until(String conditionName, Duration timeout, Supplier<T> condition) {
+		long start = System.nanoTime();
+		long deadline = start + timeout.toNanos();
+		long interval = INITIAL_INTERVAL_MILLIS;
+		int attempts = 0;
+		RuntimeException lastError = null;
+		ConditionStats stats = STATS.computeIfAbsent(conditionName, n -> new ConditionStats());
+
+		while (true) {
+			attempts++;
+			long attemptStart = System.nanoTime();
+			try {
+				T value = condition.get();
+				if (value != null && !Boolean.FALSE.equals(value)) {
+					TraceRecorder.complete(conditionName + " #" + attempts, "wait", attemptStart);
+					stats.record(System.nanoTime() - start, attempts, true);
+					trace(conditionName, start, attempts, "met");
+					return value;
+				}
+			} catch (NotFoundException | StaleElementReferenceException e) {
+				lastError = e;
+			} catch (RuntimeException e) {
+				TraceRecorder.complete(conditionName + " #" + attempts, "wait", attemptStart);
+				stats.record(System.nanoTime() - start, attempts, false);
+				trace(conditionName, start, attempts, e.getClass().getSimpleName());
+				throw e;
+			}
+			TraceRecorder.complete(conditionName + " #" + attempts, "wait", attemptStart);
+
+			long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+			if (remainingMillis <= 0) {
+				stats.record(System.nanoTime() - start, attempts, false);
+				trace(conditionName, start, attempts, "timeout");
+				throw new TimeoutException("Condition '" + conditionName + "' not met within "
+						+ timeout.toMillis() + " ms after " + attempts + " attempts", lastError);
+			}
+			try {
+				Thread.sleep(Math.min(interval, remainingMillis));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				stats.record(System.nanoTime() - start, attempts, false);
+				trace(conditionName, start, attempts, "interrupted");
+				throw new TimeoutException("Interrupted while waiting for '" + conditionName + "'", e);
+			}
+			interval = Math.min(interval * 2, MAX_INTERVAL_MILLIS);
+		}
+	}
+
+	private static void trace(String conditionName, long start, int attempts, String outcome) {
+		Map<String, Object> args = new LinkedHashMap<>();
+		args.put("attempts", attempts);
+		args.put("outcome", outcome);
+		TraceRecorder.complete("wait " + conditionName, "wait", start, System.nanoTime() - start, args);
+	}
+
+	/* ==========================Statistics======================== */
+
+	public static Map<String, ConditionStats> getStats() {
+		return new TreeMap<>(STATS);
+	}
+
+	public static void resetStats() {
+		STATS.clear();
+	}
+
+	/** Writes one CSV row per condition: counts, timeouts and wait durations in ms. */
+	public static void writeReport(Path csvFile) throws IOException {
+		if (csvFile.getParent() != null) {
+			Files.createDirectories(csvFile.getParent());
+		}
+		try (BufferedWriter out = Files.newBufferedWriter(csvFile, StandardCharsets.UTF_8)) {
+			out.write("condition,waits,timeouts,meanMs,maxMs,meanAttempts");
+			out.newLine();
+			for (Map.Entry<String, ConditionStats> entry : getStats().entrySet()) {
+				ConditionStats stats = entry.getValue();
+				out.write(entry.getKey().replace(',', ';') + "," + stats.getCount() + "," + stats.getTimeouts() + ","
+						+ stats.getMeanMillis() + "," + stats.getMaxMillis() + ","
+						+ String.format("%.1f", stats.getMeanAttempts()));
+				out.newLine();
+			}
+		}
+	}
+
+	public static final class ConditionStats {
+		private final LongAdder count = new LongAdder();
+		private final LongAdder timeouts = new LongAdder();
+		private final LongAdder totalNanos = new LongAdder();
+		private final LongAdder totalAttempts = new LongAdder();
+		private final AtomicLong maxNanos = new AtomicLong();
+
+		private void record(long nanos, int attempts, boolean met) {
+			count.increment();
+			if (!met) {
+				timeouts.increment();
+			}
+			totalNanos.add(nanos);
+			totalAttempts.add(attempts);
+			maxNanos.accumulateAndGet(nanos, Math::max);
+		}
+
+		public long getCount() {
+			return count.sum();
+		}
+
+		/** Waits that ended without the condition being met. */
+		public long getTimeouts() {
+			return timeouts.sum();
+		}
+
+		public long getMeanMillis() {
+			long n = count.sum();
+			return n == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalNanos.sum() / n);
+		}
+
+		public long getMaxMillis() {
+			return TimeUnit.NANOSECONDS.toMillis(maxNanos.get());
+		}
+
+		public double getMeanAttempts() {
+			long n = count.sum();
+			return n == 0 ? 0 : (double) totalAttempts.sum() / n;
+		}
+	}
+}
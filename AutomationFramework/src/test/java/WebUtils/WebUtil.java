@@ -1,25 +1,21 @@
-package utils;
-
-import java.io.File;
-import java.io.FileInputStream;
-import java.io.IOException;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.nio.file.Files;
+package WebUtils;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.NoSuchElementException;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
 
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Cell;
-import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Workbook;
-import org.apache.poi.ss.usermodel.WorkbookFactory;
 import org.openqa.selenium.Alert;
 import org.openqa.selenium.By;
 import org.openqa.selenium.Dimension;
@@ -28,157 +24,539 @@ import org.openqa.selenium.ElementNotInteractableException;
 import org.openqa.selenium.InvalidSelectorException;
 import org.openqa.selenium.JavascriptExecutor;
 import org.openqa.selenium.NoAlertPresentException;
+import org.openqa.selenium.NoSuchElementException;
 import org.openqa.selenium.NoSuchFrameException;
 import org.openqa.selenium.OutputType;
+import org.openqa.selenium.PageLoadStrategy;
 import org.openqa.selenium.TakesScreenshot;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebDriverException;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.chromium.ChromiumDriver;
 import org.openqa.selenium.edge.EdgeDriver;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.interactions.Actions;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
-import org.openqa.selenium.support.ui.WebDriverWait;
 
 import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.Status;
 
+import WebUtils.ActionMetrics.Span;
+import WebUtils.BatchActions.ActionOutcome;
+import WebUtils.BrokenLinkChecker.LinkResult;
+import WebUtils.BrokenLinkChecker.LinkScan;
+import WebUtils.BulkExtractor.ElementData;
+import WebUtils.LinkCrawler.CrawlSummary;
+import WebUtils.PageReadiness.Navigation;
+
 public class WebUtil {
 
 	private WebDriver driver;
 	private ExtentTest et;
+	private Duration searchTimeout = Duration.ofSeconds(5);
+	private TypingMode typingMode = TypingMode.KEYS;
+	private final AtomicLong pageContextVersion = new AtomicLong();
+	private FailureRecorder failureRecorder;
+	private ResourceBlocker resourceBlocker;
+	private PageLoadStrategy pageLoadStrategy = PageLoadStrategy.NORMAL;
+	private Duration pageReadyTimeout = Duration.ofSeconds(30);
+	private Navigation pendingNavigation;
+	private PerformanceCollector performanceCollector;
+	private final Set<String> visitedOrigins = new LinkedHashSet<>();
 
 	public WebUtil(ExtentTest et) {
 		this.et = et;
 	}
 
+	/** Wraps a driver started elsewhere, e.g. a RemoteWebDriver or a test double. */
+	public WebUtil(WebDriver driver, ExtentTest et) {
+		this.driver = driver;
+		this.et = et;
+	}
+
 	public WebDriver getDriver() {
 		return driver;
 	}
 
+	public void setExtentTest(ExtentTest et) {
+		this.et = et;
+	}
+
+	/** Keeps the last actions of this session for dumping when a test fails; null turns it off. */
+	public void setFailureRecorder(FailureRecorder failureRecorder) {
+		this.failureRecorder = failureRecorder;
+	}
+
+	public FailureRecorder getFailureRecorder() {
+		return failureRecorder;
+	}
+
+	/** Measures every page this session visits against the run's budgets; null turns it off. */
+	public void setPerformanceCollector(PerformanceCollector performanceCollector) {
+		this.performanceCollector = performanceCollector;
+	}
+
+	public PerformanceCollector getPerformanceCollector() {
+		return performanceCollector;
+	}
+
+	private void log(Status status, String details) {
+		if (status == Status.FAIL) {
+			ActionMetrics.markError();
+		}
+		if (failureRecorder != null) {
+			failureRecorder.message(status, details);
+		}
+		ReportManager.log(et, status, details);
+	}
+
+	private Span startSpan(String operation, String element) {
+		return startSpan(operation, element, null);
+	}
+
+	/** Starts timing an operation and, if a recorder is attached, records it; target is its element or XPath. */
+	private Span startSpan(String operation, String element, Object target) {
+		Span span = ActionMetrics.start(operation, element);
+		if (failureRecorder != null) {
+			span.onEnd(failureRecorder.begin(span, driver, target));
+		}
+		return span;
+	}
+
+	/**
+	 * Counter bumped whenever this WebUtil navigates, switches window or frame,
+	 * or replaces the browser. Element references found under an older value
+	 * may belong to a page or context that is no longer current; see
+	 * {@link CachingElementLocatorFactory}.
+	 */
+	public long getPageContextVersion() {
+		return pageContextVersion.get();
+	}
+
+	/** Call after navigating or switching context through the driver directly. */
+	public void pageContextChanged() {
+		pageContextVersion.incrementAndGet();
+	}
+
 	// Browser Management Methods
 	public WebDriver launchBrowser(String browserName, int timeInSeconds) {
-		switch (browserName.toLowerCase()) {
-		case "chrome":
-			driver = new ChromeDriver();
-			break;
-		case "firefox":
-			driver = new FirefoxDriver();
-			break;
-		case "edge":
-			driver = new EdgeDriver();
-			break;
-		default:
-
-			et.log(Status.FAIL, "Invalid browser name: " + browserName);
-			throw new IllegalArgumentException("Invalid browser name: " + browserName);
-		}
-		driver.manage().window().maximize();
-		driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(timeInSeconds));
-		et.log(Status.INFO, browserName + " browser launched successfully");
-		return driver;
+		return launchBrowser(browserName, timeInSeconds, ExecutionProfile.STANDARD);
+	}
+
+	/** Starts the browser headed and maximized (STANDARD) or headless with resources blocked (FAST). */
+	public WebDriver launchBrowser(String browserName, int timeInSeconds, ExecutionProfile profile) {
+		return launchBrowser(browserName, timeInSeconds, profile, PageLoadStrategy.NORMAL);
+	}
+
+	/**
+	 * With an EAGER or NONE page-load strategy, navigation no longer waits for
+	 * every subresource; use {@link #openURL(String, Class)} so it waits for the
+	 * page object's readiness condition instead.
+	 */
+	public WebDriver launchBrowser(String browserName, int timeInSeconds, ExecutionProfile profile,
+			PageLoadStrategy strategy) {
+		Span span = startSpan("launchBrowser", browserName);
+		try {
+			switch (browserName.toLowerCase()) {
+			case "chrome":
+				driver = new ChromeDriver(profile.chromeOptions(strategy));
+				break;
+			case "firefox":
+				driver = new FirefoxDriver(profile.firefoxOptions(strategy));
+				break;
+			case "edge":
+				driver = new EdgeDriver(profile.edgeOptions(strategy));
+				break;
+			case "inmemory":
+				driver = new InMemoryWebDriver();
+				break;
+			default:
+
+				log(Status.FAIL, "Invalid browser name: " + browserName);
+				throw new IllegalArgumentException("Invalid browser name: " + browserName);
+			}
+			pageContextChanged();
+			pageLoadStrategy = strategy;
+			if (profile == ExecutionProfile.FAST) {
+				driver.manage().window().setSize(ExecutionProfile.VIEWPORT);
+			} else {
+				driver.manage().window().maximize();
+			}
+			// the driver's implicit wait stays at 0: lookups poll with WaitEngine for up to timeInSeconds instead
+			searchTimeout = Duration.ofSeconds(timeInSeconds);
+			if (profile.blocksResources() && driver instanceof ChromiumDriver) {
+				try {
+					resourceBlocker = ResourceBlocker.attach(driver, this::log);
+				} catch (WebDriverException e) {
+					log(Status.WARNING, "Resource blocking unavailable, loading everything: " + e.getMessage());
+				}
+			}
+			log(Status.INFO, browserName + " browser launched successfully (" + profile.name().toLowerCase()
+					+ " profile, " + strategy + " page loads)");
+			return driver;
+		} catch (RuntimeException e) {
+			throw span.fail(e);
+		} finally {
+			span.end();
+		}
+	}
+
+	/** Records how long before its load event the last early-returning page was ready. */
+	private void settleNavigation() {
+		Navigation navigation = pendingNavigation;
+		pendingNavigation = null;
+		if (navigation != null && driver != null) {
+			long saved = navigation.settle(driver);
+			if (saved >= 0) {
+				log(Status.INFO, navigation.getPage() + " was usable " + saved + " ms before its load event");
+			}
+		}
+	}
+
+	/** Reads the current page's timings before an action that may navigate away from it. */
+	private void observePage() {
+		if (performanceCollector != null && driver != null) {
+			performanceCollector.collect(driver, this::log);
+		}
+	}
+
+	/** Reports the current page before the session leaves it for good. */
+	private void reportPage() {
+		if (performanceCollector != null && driver != null) {
+			performanceCollector.flush(driver, this::log);
+		}
+	}
+
+	private void detachResourceBlocker() {
+		if (resourceBlocker != null) {
+			resourceBlocker.detach();
+			resourceBlocker = null;
+		}
 	}
 
 	/* ==========================Close Browser Method======================== */
 	public void closeBrowser() {
+		Span span = startSpan("closeBrowser", null);
 		try {
 			if (driver != null) {
+				reportPage();
+				settleNavigation();
+				detachResourceBlocker();
 				driver.quit();
-				et.log(Status.INFO, "Browser session closed successfully.");
+				pageContextChanged();
+				log(Status.INFO, "Browser session closed successfully.");
 				System.out.println("Browser session closed successfully.");
 			}
 		} catch (WebDriverException e) {
-			et.log(Status.FAIL, "WebDriverException while quitting driver: " + e.getMessage());
+			log(Status.FAIL, "WebDriverException while quitting driver: " + e.getMessage());
 		} catch (Exception e) {
-			et.log(Status.FAIL, "Unexpected exception while quitting driver: " + e.getMessage());
+			log(Status.FAIL, "Unexpected exception while quitting driver: " + e.getMessage());
+		} finally {
+			span.end();
 		}
 	}
 
 	/* ==========================Quit Browser Method======================== */
 
 	public void quitBrowser() {
+		Span span = startSpan("quitBrowser", null);
 		try {
 			if (driver != null) {
+				reportPage();
+				settleNavigation();
+				detachResourceBlocker();
 				driver.quit();
-				et.log(Status.INFO, "Browser session quit successfully.");
+				pageContextChanged();
+				log(Status.INFO, "Browser session quit successfully.");
 			}
 		} catch (WebDriverException e) {
-			et.log(Status.FAIL, "WebDriverException while quitting browser: " + e.getMessage());
+			log(Status.FAIL, "WebDriverException while quitting browser: " + e.getMessage());
+		} catch (Exception e) {
+			log(Status.FAIL, "Unexpected exception while quitting browser: " + e.getMessage());
+		} finally {
+			span.end();
+		}
+	}
+
+	/* ==========================Session Reset Method======================== */
+
+	/**
+	 * Returns the browser to a clean state so the session can be reused by the
+	 * next test: child windows closed, storage and cookies cleared and the
+	 * window parked on about:blank. Returns false if any step failed, in which
+	 * case the session should be discarded.
+	 *
+	 * Script access only reaches the storage of the origin the test ended on.
+	 * On Chrome and Edge every origin the test visited is also cleared through
+	 * CDP: those opened with openURL and those in the tab's history, which
+	 * includes pages reached by clicks and redirects. Origins seen only in
+	 * iframes or closed child windows are not known and keep their storage.
+	 * Firefox only gets the current origin's storage cleared.
+	 */
+	public boolean resetSession() {
+		Span span = startSpan("resetSession", null);
+		try {
+			reportPage();
+			settleNavigation();
+			if (resourceBlocker != null) {
+				// before the session moves on to another test's ExtentTest
+				resourceBlocker.finishPage();
+			}
+			closeAllChildWindowsAndSwitchToParent();
+			driver.switchTo().defaultContent();
+			((JavascriptExecutor) driver).executeScript(
+					"try { window.localStorage.clear(); window.sessionStorage.clear(); } catch (e) {}");
+			if (driver instanceof ChromiumDriver) {
+				ChromiumDriver chromium = (ChromiumDriver) driver;
+				clearVisitedStorage(chromium);
+				// deleteAllCookies only covers the current domain
+				chromium.executeCdpCommand("Network.clearBrowserCookies", new HashMap<>());
+			} else {
+				driver.manage().deleteAllCookies();
+			}
+			driver.get("about:blank");
+			pageContextChanged();
+			visitedOrigins.clear();
+			log(Status.INFO, "Browser session reset for reuse");
+			return true;
 		} catch (Exception e) {
-			et.log(Status.FAIL, "Unexpected exception while quitting browser: " + e.getMessage());
+			log(Status.WARNING, "Failed to reset browser session: " + e.getMessage());
+			return false;
+		} finally {
+			span.end();
+		}
+	}
+
+	/** Clears local, session, IndexedDB and cache storage of every origin this session is known to have visited. */
+	@SuppressWarnings("unchecked")
+	private void clearVisitedStorage(ChromiumDriver chromium) {
+		Map<String, Object> history = chromium.executeCdpCommand("Page.getNavigationHistory", new HashMap<>());
+		Object entries = history.get("entries");
+		if (entries instanceof List) {
+			for (Object entry : (List<Object>) entries) {
+				if (entry instanceof Map) {
+					rememberOrigin(String.valueOf(((Map<String, Object>) entry).get("url")));
+				}
+			}
+		}
+		for (String origin : visitedOrigins) {
+			chromium.executeCdpCommand("Storage.clearDataForOrigin", Map.of("origin", origin, "storageTypes", "all"));
+		}
+	}
+
+	private void rememberOrigin(String url) {
+		try {
+			URI uri = new URI(url);
+			String scheme = uri.getScheme();
+			if (uri.getHost() != null && ("http".equalsIgnoreCase(scheme) || "https".equalsIgnoreCase(scheme))) {
+				visitedOrigins.add(scheme.toLowerCase() + "://" + uri.getHost().toLowerCase()
+						+ (uri.getPort() < 0 ? "" : ":" + uri.getPort()));
+			}
+		} catch (URISyntaxException e) {
+			// not a URL a page can have stored anything under
 		}
 	}
 
 	/* ==========================Navigation Methods======================== */
 
 	public String getPageTitle() {
+		Span span = startSpan("getPageTitle", null);
 		try {
 			String title = driver.getTitle();
-			et.log(Status.INFO, "Page title retrieved successfully : " + title);
+			log(Status.INFO, "Page title retrieved successfully : " + title);
 			return title;
 
 		} catch (Exception e) {
-			et.log(Status.FAIL, "Failed to retrieve page title: " + e.getMessage());
+			log(Status.FAIL, "Failed to retrieve page title: " + e.getMessage());
 			e.printStackTrace();
 			return null;
+		} finally {
+			span.end();
 		}
 	}
 
 	public String getPageURL() {
+		Span span = startSpan("getPageURL", null);
 		try {
 			String url = driver.getCurrentUrl();
-			et.log(Status.INFO, "Page URL retrieved successfully: " + url);
+			log(Status.INFO, "Page URL retrieved successfully: " + url);
 			return url;
 		} catch (Exception e) {
-			et.log(Status.FAIL, "Failed to retrieve page URL: " + e.getMessage());
+			log(Status.FAIL, "Failed to retrieve page URL: " + e.getMessage());
 			return null;
+		} finally {
+			span.end();
 		}
 	}
 
 	public void openURL(String url) {
+		if (pageLoadStrategy != PageLoadStrategy.NORMAL) {
+			try {
+				openURL(url, PageReadiness.DOCUMENT);
+			} catch (RuntimeException e) {
+				// already logged; this overload has always carried on after a failed open
+			}
+			return;
+		}
+		observePage();
+		Span span = startSpan("openURL", url);
 		try {
+			settleNavigation();
+			rememberOrigin(url);
 			driver.get(url);
-			et.log(Status.INFO, "URL opened successfully: " + url);
+			pageContextChanged();
+			log(Status.INFO, "URL opened successfully: " + url);
 
 		} catch (Exception e) {
-			et.log(Status.FAIL, "Failed to open URL: " + url + ". Error: " + e.getMessage());
+			log(Status.FAIL, "Failed to open URL: " + url + ". Error: " + e.getMessage());
 			e.printStackTrace();
+		} finally {
+			span.end();
+		}
+	}
+
+	/**
+	 * Opens the URL and waits until the page object's {@link PageReady} element is present.
+	 *
+	 * @throws org.openqa.selenium.TimeoutException if the page is not ready in time
+	 */
+	public void openURL(String url, Class<?> page) {
+		openURL(url, PageReadiness.of(page));
+	}
+
+	/**
+	 * Opens the URL and waits until the readiness condition holds. Unlike
+	 * {@link #openURL(String)}, a failure is logged and rethrown, so the test
+	 * stops here instead of failing later on a page that never became usable.
+	 *
+	 * @throws org.openqa.selenium.TimeoutException if the page is not ready in time
+	 */
+	public void openURL(String url, PageReadiness readiness) {
+		observePage();
+		Span span = startSpan("openURL", url);
+		try {
+			settleNavigation();
+			Double previousDocument = pageLoadStrategy == PageLoadStrategy.NONE
+					? PageReadiness.currentDocument(driver)
+					: null;
+			rememberOrigin(url);
+			driver.get(url);
+			pageContextChanged();
+			Navigation navigation = readiness.await(driver, previousDocument, pageReadyTimeout);
+			if (pageLoadStrategy != PageLoadStrategy.NORMAL) {
+				pendingNavigation = navigation;
+			}
+			log(Status.INFO, "URL opened successfully: " + url + " (" + readiness.getName() + " ready after "
+					+ navigation.getReadyAtMillis() + " ms)");
+		} catch (RuntimeException e) {
+			log(Status.FAIL, "Failed to open URL: " + url + ". Error: " + e.getMessage());
+			throw span.fail(e);
+		} finally {
+			span.end();
+		}
+	}
+
+	/** How long openURL waits for a page's readiness condition (default 30 s). */
+	public void setPageReadyTimeout(Duration pageReadyTimeout) {
+		this.pageReadyTimeout = pageReadyTimeout;
+	}
+
+	/* ==========================Performance Methods======================== */
+
+	/**
+	 * Reports the current page and any earlier one not yet reported to the
+	 * attached {@link PerformanceCollector}.
+	 *
+	 * @return the budget violations reported since the last call; empty if no
+	 *         collector is attached
+	 */
+	public List<String> flushPerformance() {
+		if (performanceCollector == null) {
+			return List.of();
+		}
+		reportPage();
+		return performanceCollector.takeViolations();
+	}
+
+	/**
+	 * Waits for the current page's load event and fails the test if it fired
+	 * later than maxMillis after the navigation started.
+	 *
+	 * @throws AssertionError if the page loaded too slowly or not at all in
+	 *                        time, or is a page without a load, e.g. about:blank
+	 */
+	public void assertPageLoadUnder(long maxMillis) {
+		Span span = startSpan("assertPageLoadUnder", String.valueOf(maxMillis));
+		try {
+			long loadMillis = PerformanceCollector.waitForLoad(driver, maxMillis);
+			if (loadMillis < 0 || loadMillis > maxMillis) {
+				String message = "Page load budget exceeded on " + driver.getCurrentUrl() + ": "
+						+ (loadMillis < 0 ? "not loaded" : loadMillis + " ms") + " > " + maxMillis + " ms";
+				log(Status.FAIL, message);
+				throw span.fail(new AssertionError(message));
+			}
+			log(Status.PASS, "Page loaded in " + loadMillis + " ms, within " + maxMillis + " ms");
+		} catch (RuntimeException e) {
+			log(Status.FAIL, "Could not read the page load time: " + e.getMessage());
+			throw span.fail(e);
+		} finally {
+			span.end();
 		}
 	}
 
 	/* ==========================Element Location Methods======================== */
 	public WebElement searchElement(String xpath, String element) {
-		WebElement we = null;
+		Span span = startSpan("searchElement", element, xpath);
 		try {
-			we = driver.findElement(By.xpath(xpath));
-
-			et.log(Status.PASS, element + " found successfully");
-		} catch (NoSuchElementException e) {
-			et.log(Status.WARNING, element + " not found on first attempt, retrying after wait...");
-			System.out.println(element + " not found on first attempt, retrying...");
+			WebElement we = null;
 			try {
-				Thread.sleep(5000);
-				we = driver.findElement(By.xpath(xpath));
-				et.log(Status.PASS, element + " found successfully after retry");
-			} catch (NoSuchElementException e2) {
-				et.log(Status.FAIL, element + " not found after retry");
-				e2.printStackTrace();
-				throw e2;
-			} catch (InterruptedException ie) {
-				ie.printStackTrace();
+				we = WaitEngine.until("searchElement", searchTimeout, () -> driver.findElement(By.xpath(xpath)));
+
+				log(Status.PASS, element + " found successfully");
+			} catch (org.openqa.selenium.TimeoutException e) {
+				log(Status.FAIL, element + " not found within " + searchTimeout.toMillis() + " ms");
+				if (e.getCause() instanceof NoSuchElementException) {
+					throw (NoSuchElementException) e.getCause();
+				}
+				throw e;
+			} catch (InvalidSelectorException e) {
+				log(Status.FAIL, element + " has invalid XPath syntax: " + e.getMessage());
+				e.printStackTrace();
+				throw e;
+			} catch (Exception e) {
+				log(Status.FAIL, "Exception while searching for " + element + ": " + e.getMessage());
+				e.printStackTrace();
+				throw e;
 			}
-		} catch (InvalidSelectorException e) {
-			et.log(Status.FAIL, element + " has invalid XPath syntax: " + e.getMessage());
-			e.printStackTrace();
-			throw e;
-		} catch (Exception e) {
-			et.log(Status.FAIL, "Exception while searching for " + element + ": " + e.getMessage());
-			e.printStackTrace();
-			throw e;
+			return we;
+		} catch (RuntimeException e) {
+			throw span.fail(e);
+		} finally {
+			span.end();
 		}
-		return we;
+	}
+
+	/**
+	 * How long searchElement and page object fields keep polling for a missing
+	 * element (5 s, or the time given to launchBrowser).
+	 */
+	public void setSearchTimeout(Duration searchTimeout) {
+		this.searchTimeout = searchTimeout;
+	}
+
+	public Duration getSearchTimeout() {
+		return searchTimeout;
+	}
+
+	/** Default mode for {@link #type(WebElement, String, String)}; KEYS unless changed. */
+	public void setTypingMode(TypingMode typingMode) {
+		this.typingMode = typingMode;
+	}
+
+	public TypingMode getTypingMode() {
+		return typingMode;
 	}
 
 	/*
@@ -186,52 +564,73 @@ public class WebUtil {
 	 */
 
 	public void type(WebElement we, String value, String element) {
-		try {
+		type(we, value, element, typingMode);
+	}
 
+	/** Types with the given mode instead of this WebUtil's default; see {@link TypingMode}. */
+	public void type(WebElement we, String value, String element, TypingMode mode) {
+		observePage();
+		Span span = startSpan("type", element, we);
+		try {
+			if (mode == TypingMode.FAST_FILL) {
+				String reason = FastFill.fill(driver, we, value);
+				if (reason == null) {
+					log(Status.INFO, element + " filled with '" + value + "' successfully");
+					return;
+				}
+				log(Status.INFO, "Fast fill not possible on " + element + " (" + reason + "), typing keys instead");
+			}
 			we.sendKeys(value);
-			et.log(Status.INFO, element + " entered '" + value + "' successfully");
+			log(Status.INFO, element + " entered '" + value + "' successfully");
 		} catch (ElementNotInteractableException e) {
 			try {
-				JavascriptExecutor jse = (JavascriptExecutor) driver;
-				jse.executeScript("arguments[0].value='" + value + "';", we);
-				et.log(Status.INFO, element + " entered '" + value + "' successfully by JavaScriptExecutor");
+				String reason = FastFill.fill(driver, we, value);
+				if (reason != null) {
+					throw new ElementNotInteractableException(reason, e);
+				}
+				log(Status.INFO, element + " entered '" + value + "' successfully by JavaScriptExecutor");
 			} catch (Exception jsEx) {
-				et.log(Status.FAIL, "JS typing failed on " + element + ". Error: " + jsEx.getMessage());
+				log(Status.FAIL, "JS typing failed on " + element + ". Error: " + jsEx.getMessage());
 				jsEx.printStackTrace();
 				throw jsEx;
 			}
 		} catch (Exception e) {
-			et.log(Status.FAIL, "Typing failed on " + element + ". Error: " + e.getMessage());
+			log(Status.FAIL, "Typing failed on " + element + ". Error: " + e.getMessage());
 			e.printStackTrace();
 			throw e;
+		} finally {
+			span.end();
 		}
 	}
 
 	public void click(WebElement we, String element) {
+		observePage();
+		Span span = startSpan("click", element, we);
 		try {
 			we.click();
-			et.log(Status.INFO, element + " clicked successfully");
+			log(Status.INFO, element + " clicked successfully");
 
 		} catch (ElementClickInterceptedException e) {
-			WebDriverWait wait = new WebDriverWait(driver, Duration.ofSeconds(10));
-			wait.until(ExpectedConditions.elementToBeClickable(we));
+			WaitEngine.until(driver, "click", Duration.ofSeconds(10), ExpectedConditions.elementToBeClickable(we));
 			((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", we);
 			we.click();
-			et.log(Status.INFO, element + " clicked successfully");
+			log(Status.INFO, element + " clicked successfully");
 		} catch (ElementNotInteractableException e) {
 			try {
 				JavascriptExecutor jse = (JavascriptExecutor) driver;
 				jse.executeScript("arguments[0].click();", we);
-				et.log(Status.INFO, e.getMessage() + "\n" + element + " clicked successfully by JavaScript");
+				log(Status.INFO, e.getMessage() + "\n" + element + " clicked successfully by JavaScript");
 			} catch (Exception jsEx) {
-				et.log(Status.FAIL, "JS click failed on " + element + ". Error: " + jsEx.getMessage());
+				log(Status.FAIL, "JS click failed on " + element + ". Error: " + jsEx.getMessage());
 				jsEx.printStackTrace();
 				throw jsEx;
 			}
 		} catch (Exception e) {
-			et.log(Status.FAIL, "Click failed on " + element + ". Error: " + e.getMessage());
+			log(Status.FAIL, "Click failed on " + element + ". Error: " + e.getMessage());
 			e.printStackTrace();
 
+		} finally {
+			span.end();
 		}
 	}
 
@@ -240,57 +639,73 @@ public class WebUtil {
 	 */
 
 	public void jsClick(WebElement we, String element) {
+		observePage();
+		Span span = startSpan("jsClick", element, we);
 		try {
 			JavascriptExecutor jse = (JavascriptExecutor) driver;
 			jse.executeScript("arguments[0].click();", we);
-			et.log(Status.INFO, element + " clicked successfully by JavaScriptExecutor");
+			log(Status.INFO, element + " clicked successfully by JavaScriptExecutor");
 		} catch (Exception e) {
-			et.log(Status.FAIL, "Failed to click " + element + " by JavaScriptExecutor. Error: " + e.getMessage());
+			log(Status.FAIL, "Failed to click " + element + " by JavaScriptExecutor. Error: " + e.getMessage());
 			e.printStackTrace();
+		} finally {
+			span.end();
 		}
 	}
 
 	public void jsType(WebElement we, String value, String element) {
+		Span span = startSpan("jsType", element, we);
 		try {
 			JavascriptExecutor jse = (JavascriptExecutor) driver;
 			jse.executeScript("arguments[0].value=arguments[1];", we, value);
-			et.log(Status.INFO, element + " typed successfully by JavaScript");
+			log(Status.INFO, element + " typed successfully by JavaScript");
 		} catch (Exception e) {
-			et.log(Status.FAIL, "Failed to type " + element + " by JavaScript. Error: " + e.getMessage());
+			log(Status.FAIL, "Failed to type " + element + " by JavaScript. Error: " + e.getMessage());
 			e.printStackTrace();
+		} finally {
+			span.end();
 		}
 	}
 
 	public void jsScrollToBottom() {
+		Span span = startSpan("jsScrollToBottom", null);
 		try {
 			JavascriptExecutor jse = (JavascriptExecutor) driver;
 			jse.executeScript("window.scrollTo(0, document.body.scrollHeight);");
-			et.log(Status.INFO, "Scrolled to the bottom of the page successfully.");
+			log(Status.INFO, "Scrolled to the bottom of the page successfully.");
 		} catch (Exception e) {
-			et.log(Status.FAIL, "Failed to scroll to the bottom. Error: " + e.getMessage());
+			log(Status.FAIL, "Failed to scroll to the bottom. Error: " + e.getMessage());
 			e.printStackTrace();
+		} finally {
+			span.end();
 		}
 	}
 
 	public void jsScrollByAmount(int x, int y) {
+		Span span = startSpan("jsScrollByAmount", null);
 		try {
 			JavascriptExecutor jse = (JavascriptExecutor) driver;
 			jse.executeScript("window.scrollBy(arguments[0], arguments[1]);", x, y);
-			et.log(Status.INFO, "Scrolled by amount X: " + x + ", Y: " + y + " using JavaScript.");
+			log(Status.INFO, "Scrolled by amount X: " + x + ", Y: " + y + " using JavaScript.");
 		} catch (Exception e) {
-			et.log(Status.FAIL, "Failed to scroll by amount X: " + x + ", Y: " + y + ". Error: " + e.getMessage());
+			log(Status.FAIL, "Failed to scroll by amount X: " + x + ", Y: " + y + ". Error: " + e.getMessage());
 			e.printStackTrace();
+		} finally {
+			span.end();
 		}
 	}
 
 	public void jsScrollToElement(WebElement we, String elementName) {
+		Span span = startSpan("jsScrollToElement", elementName, we);
 		try {
 			JavascriptExecutor jse = (JavascriptExecutor) driver;
 			jse.executeScript("arguments[0].scrollIntoView(true);", we);
-			et.log(Status.INFO, "Scrolled to element: " + elementName + " using JavaScript.");
+			log(Status.INFO, "Scrolled to element: " + elementName + " using JavaScript.");
 		} catch (Exception e) {
-			et.log(Status.FAIL, "Failed to scroll to element: " + elementName + ". Error: " + e.getMessage());
+			log(Status.FAIL, "Failed to scroll to element: " + elementName + ". Error: " + e.getMessage());
 			e.printStackTrace();
+		} finally {
+			span.end();
 		}
 	}
 
@@ -299,37 +714,46 @@ public class WebUtil {
 	 */
 
 	public void selectTextFromListBox(WebElement we, String selectText, String elementName) {
+		Span span = startSpan("selectTextFromListBox", elementName, we);
 		try {
 			Select select = new Select(we);
 			select.selectByVisibleText(selectText);
-			et.log(Status.INFO, elementName + " selected successfully with text: " + selectText);
+			log(Status.INFO, elementName + " selected successfully with text: " + selectText);
 		} catch (Exception e) {
-			et.log(Status.FAIL,
+			log(Status.FAIL,
 					"Failed to select " + elementName + " with text: " + selectText + ". Error: " + e.getMessage());
 			e.printStackTrace();
+		} finally {
+			span.end();
 		}
 	}
 
 	public void selectTextFromListBoxByIndex(WebElement we, int index, String elementName) {
+		Span span = startSpan("selectTextFromListBoxByIndex", elementName, we);
 		try {
 			Select select = new Select(we);
 			select.selectByIndex(index);
-			et.log(Status.INFO, elementName + " selected successfully by index: " + index);
+			log(Status.INFO, elementName + " selected successfully by index: " + index);
 		} catch (Exception e) {
-			et.log(Status.FAIL,
+			log(Status.FAIL,
 					"Failed to select " + elementName + " by index: " + index + ". Error: " + e.getMessage());
 			e.printStackTrace();
+		} finally {
+			span.end();
 		}
 	}
 
 	public void selectTextByValue(WebElement we, String value) {
+		Span span = startSpan("selectTextByValue", null, we);
 		try {
 			Select select = new Select(we);
 			select.selectByValue(value);
-			et.log(Status.INFO, "Selected value '" + value + "' successfully.");
+			log(Status.INFO, "Selected value '" + value + "' successfully.");
 		} catch (Exception e) {
-			et.log(Status.FAIL, "Failed to select value '" + value + "'. Error: " + e.getMessage());
+			log(Status.FAIL, "Failed to select value '" + value + "'. Error: " + e.getMessage());
 			e.printStackTrace();
+		} finally {
+			span.end();
 		}
 	}
 
@@ -338,59 +762,74 @@ public class WebUtil {
 	 */
 
 	public void rightClick(WebElement we, String elementName) {
+		Span span = startSpan("rightClick", elementName, we);
 		try {
 			Actions act = new Actions(driver);
 			act.contextClick(we).build().perform();
-			et.log(Status.PASS, "Right click performed successfully on element: " + elementName);
+			log(Status.PASS, "Right click performed successfully on element: " + elementName);
 		} catch (Exception e) {
-			et.log(Status.FAIL,
+			log(Status.FAIL,
 					"Failed to perform right click on element: " + elementName + ". Error: " + e.getMessage());
 			e.printStackTrace();
+		} finally {
+			span.end();
 		}
 	}
 
 	public void doubleClick(WebElement we, String elementName) {
+		Span span = startSpan("doubleClick", elementName, we);
 		try {
 			Actions act = new Actions(driver);
 			act.doubleClick(we).build().perform();
-			et.log(Status.INFO, "Double clicked successfully on element: " + elementName);
+			log(Status.INFO, "Double clicked successfully on element: " + elementName);
 		} catch (Exception e) {
-			et.log(Status.FAIL, "Failed to double click on element: " + elementName + ". Error: " + e.getMessage());
+			log(Status.FAIL, "Failed to double click on element: " + elementName + ". Error: " + e.getMessage());
 			e.printStackTrace();
+		} finally {
+			span.end();
 		}
 	}
 
 	public void moveToElement(WebElement we, String elementName) {
+		Span span = startSpan("moveToElement", elementName, we);
 		try {
 			Actions act = new Actions(driver);
 			act.moveToElement(we).build().perform();
-			et.log(Status.PASS, "Hovered successfully on element: " + elementName);
+			log(Status.PASS, "Hovered successfully on element: " + elementName);
 			System.out.println(elementName + " hover successfuly");
 		} catch (Exception e) {
-			et.log(Status.FAIL, "Failed to hover on element: " + elementName + ". Error: " + e.getMessage());
+			log(Status.FAIL, "Failed to hover on element: " + elementName + ". Error: " + e.getMessage());
 			e.printStackTrace();
+		} finally {
+			span.end();
 		}
 	}
 
 	public void scrollByAmount(int x, int y) {
+		Span span = startSpan("scrollByAmount", null);
 		try {
 			Actions act = new Actions(driver);
 			act.scrollByAmount(x, y).build().perform();
-			et.log(Status.PASS, "Scrolled successfully by amount x: " + x + ", y: " + y);
+			log(Status.PASS, "Scrolled successfully by amount x: " + x + ", y: " + y);
 		} catch (Exception e) {
-			et.log(Status.FAIL, "Failed to scroll by amount x: " + x + ", y: " + y + ". Error: " + e.getMessage());
+			log(Status.FAIL, "Failed to scroll by amount x: " + x + ", y: " + y + ". Error: " + e.getMessage());
 			e.printStackTrace();
+		} finally {
+			span.end();
 		}
 	}
 
 	public void scrollToElement(WebElement we, String elementName) {
+		Span span = startSpan("scrollToElement", elementName, we);
 		try {
 			Actions act = new Actions(driver);
 			act.scrollToElement(we).build().perform();
-			et.log(Status.INFO, "Scrolled successfully to element: " + elementName);
+			log(Status.INFO, "Scrolled successfully to element: " + elementName);
 		} catch (Exception e) {
-			et.log(Status.FAIL, "Failed to scroll to element: " + elementName + ". Error: " + e.getMessage());
+			log(Status.FAIL, "Failed to scroll to element: " + elementName + ". Error: " + e.getMessage());
 			e.printStackTrace();
+		} finally {
+			span.end();
 		}
 	}
 
@@ -399,181 +838,289 @@ public class WebUtil {
 	 */
 
 	public String getInnerText(WebElement we, String elementName) {
-		String text = null;
+		Span span = startSpan("getInnerText", elementName, we);
 		try {
-			text = we.getText();
-			et.log(Status.INFO, elementName + " inner text found successfully: " + text);
-		} catch (Exception e) {
-			et.log(Status.FAIL, "Failed to get inner text of element: " + elementName + ". Error: " + e.getMessage());
-			e.printStackTrace();
+			String text = null;
+			try {
+				text = we.getText();
+				log(Status.INFO, elementName + " inner text found successfully: " + text);
+			} catch (Exception e) {
+				log(Status.FAIL, "Failed to get inner text of element: " + elementName + ". Error: " + e.getMessage());
+				e.printStackTrace();
+			}
+			return text;
+		} catch (RuntimeException e) {
+			throw span.fail(e);
+		} finally {
+			span.end();
 		}
-		return text;
 	}
 
 	public String getAttributeValue(WebElement we, String attributeName, String elementName) {
-		String attrValue = "";
+		Span span = startSpan("getAttributeValue", elementName, we);
 		try {
-			attrValue = we.getDomAttribute(attributeName);
-			et.log(Status.INFO, elementName + " attribute '" + attributeName + "' found: " + attrValue);
-		} catch (Exception e) {
-			et.log(Status.FAIL, "Failed to get attribute '" + attributeName + "' from " + elementName + ". Error: "
-					+ e.getMessage());
-			e.printStackTrace();
+			String attrValue = "";
+			try {
+				attrValue = we.getDomAttribute(attributeName);
+				log(Status.INFO, elementName + " attribute '" + attributeName + "' found: " + attrValue);
+			} catch (Exception e) {
+				log(Status.FAIL, "Failed to get attribute '" + attributeName + "' from " + elementName + ". Error: "
+						+ e.getMessage());
+				e.printStackTrace();
+			}
+			return attrValue;
+		} catch (RuntimeException e) {
+			throw span.fail(e);
+		} finally {
+			span.end();
 		}
-		return attrValue;
 	}
 
 	/*
 	 * ==========================Multiple Elements Methods========================
 	 */
 
+	/**
+	 * Trimmed text of every element matching the XPath, read in one script call.
+	 * Hidden text is included; use {@link #getAllElementsText(String, boolean)}
+	 * for what the user actually sees.
+	 */
 	public List<String> getAllElementsText(String xpath) {
-		List<String> elementTextList = new ArrayList<>();
+		return getAllElementsText(xpath, false);
+	}
+
+	public List<String> getAllElementsText(String xpath, boolean visibleText) {
+		Span span = startSpan("getAllElementsText", xpath, xpath);
 		try {
-			List<WebElement> elements = driver.findElements(By.xpath(xpath));
+			List<String> elementTextList = new ArrayList<>();
+			for (ElementData element : extractElements(xpath, visibleText)) {
+				elementTextList.add(element.getText());
+			}
+			return elementTextList;
+		} catch (RuntimeException e) {
+			throw span.fail(e);
+		} finally {
+			span.end();
+		}
+	}
 
-			if (elements.isEmpty()) {
-				et.log(Status.WARNING, "No elements found for locator : " + xpath);
-			} else {
-				for (WebElement element : elements) {
-					elementTextList.add(element.getText().trim());
+	/**
+	 * Text and the named attributes of every element matching the XPath, in one
+	 * round trip to the browser. See {@link BulkExtractor}.
+	 */
+	public List<ElementData> extractElements(String xpath, boolean visibleText, String... attributes) {
+		Span span = startSpan("extractElements", xpath, xpath);
+		try {
+			List<ElementData> elements = new ArrayList<>();
+			try {
+				elements = BulkExtractor.extract(driver, xpath, visibleText, attributes);
+
+				if (elements.isEmpty()) {
+					log(Status.WARNING, "No elements found for locator : " + xpath);
+				} else {
+					log(Status.PASS, "Found " + elements.size() + " elements for XPath: " + xpath);
 				}
-				et.log(Status.PASS, "Found " + elements.size() + " elements for XPath: " + xpath);
+			} catch (Exception e) {
+				log(Status.FAIL,
+						"Exception while getting elements text for XPath: " + xpath + ". Error: " + e.getMessage());
+				e.printStackTrace();
 			}
-		} catch (Exception e) {
-			et.log(Status.FAIL,
-					"Exception while getting elements text for XPath: " + xpath + ". Error: " + e.getMessage());
-			e.printStackTrace();
+			return elements;
+		} catch (RuntimeException e) {
+			throw span.fail(e);
+		} finally {
+			span.end();
 		}
-		return elementTextList;
 	}
 
-	public void clickAllElements(String xpath) {
-		List<WebElement> list = driver.findElements(By.xpath(xpath));
-		for (WebElement we : list) {
-			we.click();
+	/**
+	 * Clicks every element matching the XPath with a native click each, so a
+	 * click a user could not make (hidden, covered) fails as it always did. A
+	 * failing element is reported and skipped instead of stopping the rest.
+	 */
+	public List<ActionOutcome> clickAllElements(String xpath) {
+		Span span = startSpan("clickAllElements", xpath, xpath);
+		try {
+			return batch().click(By.xpath(xpath)).runNative();
+		} catch (RuntimeException e) {
+			throw span.fail(e);
+		} finally {
+			span.end();
 		}
 	}
 
+	/** New batch of actions on this driver that reports failures to this test. See {@link BatchActions}. */
+	public BatchActions batch() {
+		return new BatchActions(driver, this::log);
+	}
+
 	/*
 	 * ========================== Window Handling Methods========================
 	 */
 
 	public void switchTowindowByUrl(String expectedURL) {
-		Set<String> handleValues = driver.getWindowHandles();
-		boolean isSwitched = false;
+		Span span = startSpan("switchTowindowByUrl", expectedURL);
+		try {
+			Set<String> handleValues = driver.getWindowHandles();
+			boolean isSwitched = false;
 
-		for (String handleValue : handleValues) {
-			driver.switchTo().window(handleValue);
-			String currentWindowURL = driver.getCurrentUrl();
+			for (String handleValue : handleValues) {
+				driver.switchTo().window(handleValue);
+				pageContextChanged();
+				String currentWindowURL = driver.getCurrentUrl();
 
-			if (currentWindowURL.equalsIgnoreCase(expectedURL)) {
-				et.log(Status.INFO, "Switched to window with URL: " + expectedURL);
-				isSwitched = true;
-				break;
+				if (currentWindowURL.equalsIgnoreCase(expectedURL)) {
+					log(Status.INFO, "Switched to window with URL: " + expectedURL);
+					isSwitched = true;
+					break;
+				}
 			}
-		}
 
-		if (!isSwitched) {
-			et.log(Status.FAIL, "Failed to switch to window with URL: " + expectedURL);
+			if (!isSwitched) {
+				log(Status.FAIL, "Failed to switch to window with URL: " + expectedURL);
+			}
+		} catch (RuntimeException e) {
+			throw span.fail(e);
+		} finally {
+			span.end();
 		}
 	}
 
 	public void switchToWindowByTitle(String expectedTitle) {
-		Set<String> handles = driver.getWindowHandles();
-		boolean isSwitched = false;
+		Span span = startSpan("switchToWindowByTitle", expectedTitle);
+		try {
+			Set<String> handles = driver.getWindowHandles();
+			boolean isSwitched = false;
 
-		for (String handle : handles) {
-			driver.switchTo().window(handle);
-			String currentTitle = driver.getTitle();
+			for (String handle : handles) {
+				driver.switchTo().window(handle);
+				pageContextChanged();
+				String currentTitle = driver.getTitle();
 
-			if (currentTitle.equalsIgnoreCase(expectedTitle)) {
-				et.log(Status.INFO, "Switched to window with Title: " + expectedTitle);
-				isSwitched = true;
-				break;
+				if (currentTitle.equalsIgnoreCase(expectedTitle)) {
+					log(Status.INFO, "Switched to window with Title: " + expectedTitle);
+					isSwitched = true;
+					break;
+				}
 			}
-		}
 
-		if (!isSwitched) {
-			et.log(Status.FAIL, "Failed to switch to window with Title: " + expectedTitle);
+			if (!isSwitched) {
+				log(Status.FAIL, "Failed to switch to window with Title: " + expectedTitle);
+			}
+		} catch (RuntimeException e) {
+			throw span.fail(e);
+		} finally {
+			span.end();
 		}
 	}
 
 	public void switchToWindowByIndex(int index) {
-		Set<String> handles = driver.getWindowHandles();
+		Span span = startSpan("switchToWindowByIndex", null);
+		try {
+			Set<String> handles = driver.getWindowHandles();
 
-		if (index < 0 || index >= handles.size()) {
-			et.log(Status.FAIL, "Invalid window index: " + index);
-			return;
-		}
+			if (index < 0 || index >= handles.size()) {
+				log(Status.FAIL, "Invalid window index: " + index);
+				return;
+			}
 
-		String[] handlesArray = handles.toArray(new String[0]);
-		driver.switchTo().window(handlesArray[index]);
-		et.log(Status.INFO, "Switched to window at index: " + index);
+			String[] handlesArray = handles.toArray(new String[0]);
+			driver.switchTo().window(handlesArray[index]);
+			pageContextChanged();
+			log(Status.INFO, "Switched to window at index: " + index);
+		} catch (RuntimeException e) {
+			throw span.fail(e);
+		} finally {
+			span.end();
+		}
 	}
 
 	public void closeAllChildWindowsAndSwitchToParent() {
-		String parentHandle = driver.getWindowHandle();
-		Set<String> handles = driver.getWindowHandles();
-
-		for (String handle : handles) {
-			if (!handle.equals(parentHandle)) {
-				driver.switchTo().window(handle);
-				driver.close();
-				et.log(Status.INFO, "Closed child window: " + handle);
+		Span span = startSpan("closeAllChildWindowsAndSwitchToParent", null);
+		try {
+			String parentHandle = driver.getWindowHandle();
+			Set<String> handles = driver.getWindowHandles();
+
+			for (String handle : handles) {
+				if (!handle.equals(parentHandle)) {
+					driver.switchTo().window(handle);
+					driver.close();
+					log(Status.INFO, "Closed child window: " + handle);
+				}
 			}
-		}
 
-		driver.switchTo().window(parentHandle);
-		et.log(Status.INFO, "Switched back to parent window.");
+			driver.switchTo().window(parentHandle);
+			pageContextChanged();
+			log(Status.INFO, "Switched back to parent window.");
+		} catch (RuntimeException e) {
+			throw span.fail(e);
+		} finally {
+			span.end();
+		}
 	}
 
 	/*
 	 * ========================== Frame Handling Methods ========================
 	 */
 	public void switchToFrameByIndex(int index) {
+		Span span = startSpan("switchToFrameByIndex", null);
 		try {
 			driver.switchTo().frame(index);
-			et.log(Status.INFO, "Switched to frame with index: " + index);
+			pageContextChanged();
+			log(Status.INFO, "Switched to frame with index: " + index);
 		} catch (NoSuchFrameException e) {
-			et.log(Status.FAIL, "No frame found at index: " + index + ". Error: " + e.getMessage());
+			log(Status.FAIL, "No frame found at index: " + index + ". Error: " + e.getMessage());
 			e.printStackTrace();
 		} catch (Exception e) {
-			et.log(Status.FAIL, "Error while switching to frame by index: " + index + ". Error: " + e.getMessage());
+			log(Status.FAIL, "Error while switching to frame by index: " + index + ". Error: " + e.getMessage());
 			e.printStackTrace();
+		} finally {
+			span.end();
 		}
 	}
 
 	public void switchToFrameByWebElement(WebElement weFrame) {
+		Span span = startSpan("switchToFrameByWebElement", null, weFrame);
 		try {
 			driver.switchTo().frame(weFrame);
-			et.log(Status.INFO, "Switched to frame successfully using WebElement.");
+			pageContextChanged();
+			log(Status.INFO, "Switched to frame successfully using WebElement.");
 		} catch (NoSuchFrameException e) {
-			et.log(Status.FAIL, "No such frame found using the provided WebElement. Error: " + e.getMessage());
+			log(Status.FAIL, "No such frame found using the provided WebElement. Error: " + e.getMessage());
 			e.printStackTrace();
 		} catch (Exception e) {
-			et.log(Status.FAIL, "Error while switching to frame using WebElement. Error: " + e.getMessage());
+			log(Status.FAIL, "Error while switching to frame using WebElement. Error: " + e.getMessage());
 			e.printStackTrace();
+		} finally {
+			span.end();
 		}
 	}
 
 	public void switchToFrameByNameOrId(String nameOrId) {
+		Span span = startSpan("switchToFrameByNameOrId", nameOrId);
 		try {
 			driver.switchTo().frame(nameOrId);
-			et.log(Status.INFO, "Switched to frame: " + nameOrId);
+			pageContextChanged();
+			log(Status.INFO, "Switched to frame: " + nameOrId);
 		} catch (Exception e) {
-			et.log(Status.FAIL, "Failed to switch to frame: " + nameOrId + ". Error: " + e.getMessage());
+			log(Status.FAIL, "Failed to switch to frame: " + nameOrId + ". Error: " + e.getMessage());
 			e.printStackTrace();
+		} finally {
+			span.end();
 		}
 	}
 
 	public void switchToDefaultContent() {
+		Span span = startSpan("switchToDefaultContent", null);
 		try {
 			driver.switchTo().defaultContent();
-			et.log(Status.INFO, "Switched back to default content");
+			pageContextChanged();
+			log(Status.INFO, "Switched back to default content");
 		} catch (Exception e) {
-			et.log(Status.FAIL, "Failed to switch to default content. Error: " + e.getMessage());
+			log(Status.FAIL, "Failed to switch to default content. Error: " + e.getMessage());
 			e.printStackTrace();
+		} finally {
+			span.end();
 		}
 	}
 
@@ -581,76 +1128,102 @@ public class WebUtil {
 	 * ========================== Wait Methods ========================
 	 */
 	public void staticWait(int timeInSecond) {
+		Span span = startSpan("staticWait", null);
 		try {
 			Thread.sleep(timeInSecond * 1000);
-			et.log(Status.INFO, "Static wait applied for " + timeInSecond + " seconds.");
+			log(Status.INFO, "Static wait applied for " + timeInSecond + " seconds.");
 		} catch (InterruptedException e) {
-			et.log(Status.FAIL, "Static wait interrupted. Error: " + e.getMessage());
+			log(Status.FAIL, "Static wait interrupted. Error: " + e.getMessage());
 			e.printStackTrace();
+		} finally {
+			span.end();
 		}
 	}
 
+	/**
+	 * Turns on a 60 s driver-side implicit wait. Sessions start without one,
+	 * because WebUtil's lookups and waits poll on their own; with it on, each
+	 * of their attempts on a missing element blocks for the full 60 s.
+	 */
 	public void implicityWait() {
+		Span span = startSpan("implicityWait", null);
 		try {
 			driver.manage().timeouts().implicitlyWait(Duration.ofSeconds(60));
-			et.log(Status.INFO, "Implicit wait of 60 seconds applied successfully.");
+			log(Status.INFO, "Implicit wait of 60 seconds applied successfully.");
 		} catch (Exception e) {
-			et.log(Status.FAIL, "Failed to apply implicit wait. Error: " + e.getMessage());
+			log(Status.FAIL, "Failed to apply implicit wait. Error: " + e.getMessage());
 			e.printStackTrace();
+		} finally {
+			span.end();
 		}
 	}
 
 	public void waitForVisibility(WebElement we, int timeouts) throws TimeoutException {
+		Span span = startSpan("waitForVisibility", null, we);
 		try {
-			WebDriverWait wt = new WebDriverWait(driver, Duration.ofSeconds(timeouts));
-			wt.until(ExpectedConditions.visibilityOf(we));
-			et.log(Status.INFO, "Element became visible within " + timeouts + " seconds.");
+			WaitEngine.until(driver, "waitForVisibility", Duration.ofSeconds(timeouts),
+					ExpectedConditions.visibilityOf(we));
+			log(Status.INFO, "Element became visible within " + timeouts + " seconds.");
 		} catch (Exception e) {
-			et.log(Status.FAIL, "Error during waitForVisibility: " + e.getMessage());
+			log(Status.FAIL, "Error during waitForVisibility: " + e.getMessage());
 			e.printStackTrace();
+		} finally {
+			span.end();
 		}
 	}
 
 	public void waitForEnabling(WebElement we, int timeouts) throws TimeoutException {
+		Span span = startSpan("waitForEnabling", null, we);
 		try {
-			WebDriverWait wt = new WebDriverWait(driver, Duration.ofSeconds(timeouts));
-			wt.until(ExpectedConditions.elementToBeClickable(we));
-			et.log(Status.INFO, "Element is enabled and clickable within " + timeouts + " seconds.");
+			WaitEngine.until(driver, "waitForEnabling", Duration.ofSeconds(timeouts),
+					ExpectedConditions.elementToBeClickable(we));
+			log(Status.INFO, "Element is enabled and clickable within " + timeouts + " seconds.");
 		} catch (Exception e) {
-			et.log(Status.FAIL, "Error during waitForEnabling: " + e.getMessage());
+			log(Status.FAIL, "Error during waitForEnabling: " + e.getMessage());
 			e.printStackTrace();
+		} finally {
+			span.end();
 		}
 	}
 
 	public void waitForText(WebElement we, int timeouts) throws TimeoutException {
+		Span span = startSpan("waitForText", null, we);
 		try {
-			WebDriverWait wt = new WebDriverWait(driver, Duration.ofSeconds(timeouts));
-			wt.until(ExpectedConditions.textToBePresentInElement(we, "ReLead"));
-			et.log(Status.INFO, "Text 'ReLead' is present in the element within " + timeouts + " seconds.");
+			WaitEngine.until(driver, "waitForText", Duration.ofSeconds(timeouts),
+					ExpectedConditions.textToBePresentInElement(we, "ReLead"));
+			log(Status.INFO, "Text 'ReLead' is present in the element within " + timeouts + " seconds.");
 		} catch (Exception e) {
-			et.log(Status.FAIL, "Error occurred in waitForText: " + e.getMessage());
+			log(Status.FAIL, "Error occurred in waitForText: " + e.getMessage());
 			e.printStackTrace();
+		} finally {
+			span.end();
 		}
 	}
 
 	public void waitForInvisibility(WebElement we, int timeouts) throws TimeoutException {
+		Span span = startSpan("waitForInvisibility", null, we);
 		try {
-			WebDriverWait wt = new WebDriverWait(driver, Duration.ofSeconds(timeouts));
-			wt.until(ExpectedConditions.invisibilityOf(we));
-			et.log(Status.INFO, "Element became invisible within " + timeouts + " seconds.");
+			WaitEngine.until(driver, "waitForInvisibility", Duration.ofSeconds(timeouts),
+					ExpectedConditions.invisibilityOf(we));
+			log(Status.INFO, "Element became invisible within " + timeouts + " seconds.");
 		} catch (Exception e) {
-			et.log(Status.FAIL, "Error occurred while waiting for invisibility: " + e.getMessage());
+			log(Status.FAIL, "Error occurred while waiting for invisibility: " + e.getMessage());
 			e.printStackTrace();
+		} finally {
+			span.end();
 		}
 	}
 
 	public void changePageLoadTimeout(int timeouts) {
+		Span span = startSpan("changePageLoadTimeout", null);
 		try {
 			driver.manage().timeouts().pageLoadTimeout(Duration.ofSeconds(timeouts));
-			et.log(Status.INFO, "Page load timeout set to " + timeouts + " seconds successfully.");
+			log(Status.INFO, "Page load timeout set to " + timeouts + " seconds successfully.");
 		} catch (Exception e) {
-			et.log(Status.FAIL, "Failed to set page load timeout. Error: " + e.getMessage());
+			log(Status.FAIL, "Failed to set page load timeout. Error: " + e.getMessage());
 			e.printStackTrace();
+		} finally {
+			span.end();
 		}
 	}
 
@@ -659,23 +1232,29 @@ public class WebUtil {
 	 */
 
 	public void maximizeWindow() {
+		Span span = startSpan("maximizeWindow", null);
 		try {
 			driver.manage().window().maximize();
-			et.log(Status.INFO, "Browser window maximized successfully");
+			log(Status.INFO, "Browser window maximized successfully");
 		} catch (Exception e) {
-			et.log(Status.FAIL, "Failed to maximize browser window. Error: " + e.getMessage());
+			log(Status.FAIL, "Failed to maximize browser window. Error: " + e.getMessage());
 			e.printStackTrace();
+		} finally {
+			span.end();
 		}
 	}
 
 	public void setWindowSize(int width, int height) {
+		Span span = startSpan("setWindowSize", null);
 		try {
 			Dimension dim = new Dimension(width, height);
 			driver.manage().window().setSize(dim);
-			et.log(Status.INFO, "Browser window size set to: Width = " + width + ", Height = " + height);
+			log(Status.INFO, "Browser window size set to: Width = " + width + ", Height = " + height);
 		} catch (Exception e) {
-			et.log(Status.FAIL, "Failed to set browser window size. Error: " + e.getMessage());
+			log(Status.FAIL, "Failed to set browser window size. Error: " + e.getMessage());
 			e.printStackTrace();
+		} finally {
+			span.end();
 		}
 	}
 
@@ -683,156 +1262,235 @@ public class WebUtil {
 	 * ========================== Element Status Methods ========================
 	 */
 	public boolean getElementDisplayStatus(WebElement we, String elementName) {
-		boolean status = false;
+		Span span = startSpan("getElementDisplayStatus", elementName, we);
 		try {
-			Dimension dim = we.getSize();
-			if (dim.getHeight() > 0 && dim.getWidth() > 0) {
-				status = true;
-				et.log(Status.PASS, elementName + " is displayed with dimensions: " + dim);
-			} else {
-				et.log(Status.FAIL, elementName + " is not displayed properly (zero size).");
+			boolean status = false;
+			try {
+				Dimension dim = we.getSize();
+				if (dim.getHeight() > 0 && dim.getWidth() > 0) {
+					status = true;
+					log(Status.PASS, elementName + " is displayed with dimensions: " + dim);
+				} else {
+					log(Status.FAIL, elementName + " is not displayed properly (zero size).");
+				}
+			} catch (Exception e) {
+				log(Status.FAIL, "Exception while checking display status of " + elementName + ": " + e.getMessage());
+				e.printStackTrace();
 			}
-		} catch (Exception e) {
-			et.log(Status.FAIL, "Exception while checking display status of " + elementName + ": " + e.getMessage());
-			e.printStackTrace();
+			return status;
+		} catch (RuntimeException e) {
+			throw span.fail(e);
+		} finally {
+			span.end();
 		}
-		return status;
 	}
 
 	public boolean getElementDisplayStatus1(WebElement we, String elementName) {
-		boolean status = false;
+		Span span = startSpan("getElementDisplayStatus1", elementName, we);
 		try {
-			Dimension dim = we.getSize();
-			if (dim.getHeight() > 0 && dim.getWidth() > 0) {
-				status = true;
-				et.log(Status.PASS, elementName + " is displayed with size: " + dim);
-				System.out.println(elementName + " is visible with dimensions: " + dim);
-			} else {
-				et.log(Status.FAIL, elementName + " is not displayed (zero size).");
+			boolean status = false;
+			try {
+				Dimension dim = we.getSize();
+				if (dim.getHeight() > 0 && dim.getWidth() > 0) {
+					status = true;
+					log(Status.PASS, elementName + " is displayed with size: " + dim);
+					System.out.println(elementName + " is visible with dimensions: " + dim);
+				} else {
+					log(Status.FAIL, elementName + " is not displayed (zero size).");
+				}
+			} catch (Exception e) {
+				log(Status.FAIL, "Error checking display status of " + elementName + ": " + e.getMessage());
+				e.printStackTrace();
 			}
-		} catch (Exception e) {
-			et.log(Status.FAIL, "Error checking display status of " + elementName + ": " + e.getMessage());
-			e.printStackTrace();
+			return status;
+		} catch (RuntimeException e) {
+			throw span.fail(e);
+		} finally {
+			span.end();
 		}
-		return status;
 	}
 
 	/*
 	 * ========================== Validation Methods ========================
 	 */
+
+	/**
+	 * Captures the page in one script call for local, read-only lookups and
+	 * validations; see {@link DomSnapshot} for when to take a new one.
+	 */
+	public DomSnapshot takeDomSnapshot() {
+		Span span = startSpan("takeDomSnapshot", null);
+		try {
+			DomSnapshot snapshot = DomSnapshot.capture(this, this::log);
+			log(Status.INFO, "DOM snapshot of " + snapshot.getUrl() + " captured: " + snapshot.getElementCount()
+					+ " elements in " + snapshot.getCaptureMillis() + " ms");
+			return snapshot;
+		} catch (Exception e) {
+			log(Status.FAIL, "Failed to capture DOM snapshot: " + e.getMessage());
+			e.printStackTrace();
+			throw e;
+		} finally {
+			span.end();
+		}
+	}
+
+	/**
+	 * Collects text, attribute, enabled, visibility and selected-option checks
+	 * and evaluates them all in one script call. See {@link BatchValidator}.
+	 */
+	public BatchValidator validator() {
+		return new BatchValidator(driver, this::log);
+	}
+
 	public void validateInnerText(WebElement we, String expectedText, String elementName) {
+		Span span = startSpan("validateInnerText", elementName, we);
 		try {
 			String actualText = we.getText();
 			if (actualText.equalsIgnoreCase(expectedText)) {
-				et.log(Status.PASS, "Validation passed for " + elementName + ". Actual: '" + actualText
+				log(Status.PASS, "Validation passed for " + elementName + ". Actual: '" + actualText
 						+ "', Expected: '" + expectedText + "'");
 
 			} else {
-				et.log(Status.FAIL, "Validation failed for " + elementName + ". Actual: '" + actualText
+				log(Status.FAIL, "Validation failed for " + elementName + ". Actual: '" + actualText
 						+ "', Expected: '" + expectedText + "'");
 
 			}
 		} catch (Exception e) {
-			et.log(Status.FAIL, "Exception while validating text for " + elementName + ": " + e.getMessage());
+			log(Status.FAIL, "Exception while validating text for " + elementName + ": " + e.getMessage());
 			e.printStackTrace();
+		} finally {
+			span.end();
 		}
 	}
 
 	public void validateAttribute(WebElement we, String expectedAttribute, String attributeName, String elementName) {
+		Span span = startSpan("validateAttribute", elementName, we);
 		try {
 			String actualAttribute = we.getDomAttribute(attributeName);
 
 			if (actualAttribute != null && actualAttribute.equalsIgnoreCase(expectedAttribute)) {
-				et.log(Status.PASS, "Validation passed for attribute '" + attributeName + "' of " + elementName
+				log(Status.PASS, "Validation passed for attribute '" + attributeName + "' of " + elementName
 						+ ". Actual: '" + actualAttribute + "', Expected: '" + expectedAttribute + "'");
 
 			} else {
-				et.log(Status.FAIL, "Validation failed for attribute '" + attributeName + "' of " + elementName
+				log(Status.FAIL, "Validation failed for attribute '" + attributeName + "' of " + elementName
 						+ ". Actual: '" + actualAttribute + "', Expected: '" + expectedAttribute + "'");
 
 			}
 		} catch (Exception e) {
-			et.log(Status.FAIL, "Exception while validating attribute '" + attributeName + "' for " + elementName + ": "
+			log(Status.FAIL, "Exception while validating attribute '" + attributeName + "' for " + elementName + ": "
 					+ e.getMessage());
 			e.printStackTrace();
+		} finally {
+			span.end();
 		}
 	}
 
 	public void ElementIsVisible(WebElement we, String elementName) {
+		Span span = startSpan("ElementIsVisible", elementName, we);
 		try {
 			boolean actualStatus = we.isDisplayed();
 			if (actualStatus) {
-				et.log(Status.PASS, elementName + " is visible on the page.");
+				log(Status.PASS, elementName + " is visible on the page.");
 			} else {
-				et.log(Status.FAIL, elementName + " is NOT visible on the page.");
+				log(Status.FAIL, elementName + " is NOT visible on the page.");
 			}
 		} catch (Exception e) {
-			et.log(Status.FAIL, "Exception while verifying visibility of " + elementName + ": " + e.getMessage());
+			log(Status.FAIL, "Exception while verifying visibility of " + elementName + ": " + e.getMessage());
 			e.printStackTrace();
+		} finally {
+			span.end();
 		}
 	}
 
 	public void validateElementIsInVisible(WebElement we) {
-		boolean actualStetus = we.isDisplayed();
-		if (actualStetus == true) {
-			et.log(Status.PASS, actualStetus + " is visible on the page.");
-		} else {
-			et.log(Status.FAIL, actualStetus + " is NOT visible on the page.");
+		Span span = startSpan("validateElementIsInVisible", null, we);
+		try {
+			boolean actualStetus = we.isDisplayed();
+			if (actualStetus == true) {
+				log(Status.PASS, actualStetus + " is visible on the page.");
+			} else {
+				log(Status.FAIL, actualStetus + " is NOT visible on the page.");
+			}
+		} catch (RuntimeException e) {
+			throw span.fail(e);
+		} finally {
+			span.end();
 		}
 	}
 
 	public void validateElementIsEnabled(WebElement we) {
-		boolean actualStetus = we.isEnabled();
-		if (actualStetus == true) {
-			et.log(Status.PASS, "passed. actual" + actualStetus + "&& expected- true");
-		} else {
-			et.log(Status.FAIL, "faild. actual" + actualStetus + "&& expected- true");
+		Span span = startSpan("validateElementIsEnabled", null, we);
+		try {
+			boolean actualStetus = we.isEnabled();
+			if (actualStetus == true) {
+				log(Status.PASS, "passed. actual" + actualStetus + "&& expected- true");
+			} else {
+				log(Status.FAIL, "faild. actual" + actualStetus + "&& expected- true");
+			}
+		} catch (RuntimeException e) {
+			throw span.fail(e);
+		} finally {
+			span.end();
 		}
 	}
 
 	public void validateElementIsDisabled(WebElement we) {
-		boolean actualStetus = we.isEnabled();
-		if (actualStetus == false) {
-			et.log(Status.PASS, "passed. actual" + actualStetus + "&& expected- true");
-		} else {
-			et.log(Status.FAIL, "faild. actual" + actualStetus + "&& expected- true");
+		Span span = startSpan("validateElementIsDisabled", null, we);
+		try {
+			boolean actualStetus = we.isEnabled();
+			if (actualStetus == false) {
+				log(Status.PASS, "passed. actual" + actualStetus + "&& expected- true");
+			} else {
+				log(Status.FAIL, "faild. actual" + actualStetus + "&& expected- true");
+			}
+		} catch (RuntimeException e) {
+			throw span.fail(e);
+		} finally {
+			span.end();
 		}
 	}
 
 	public void validatePageTitle(String expectedTitle) {
+		Span span = startSpan("validatePageTitle", expectedTitle);
 		try {
 			String actualTitle = driver.getTitle();
 			if (actualTitle.equalsIgnoreCase(expectedTitle)) {
-				et.log(Status.PASS, "Page title validation passed. Actual: '" + actualTitle + "' | Expected: '"
+				log(Status.PASS, "Page title validation passed. Actual: '" + actualTitle + "' | Expected: '"
 						+ expectedTitle + "'");
 			} else {
-				et.log(Status.FAIL, "Page title validation failed. Actual: '" + actualTitle + "' | Expected: '"
+				log(Status.FAIL, "Page title validation failed. Actual: '" + actualTitle + "' | Expected: '"
 						+ expectedTitle + "'");
 			}
 		} catch (Exception e) {
-			et.log(Status.FAIL, "Exception during page title validation: " + e.getMessage());
+			log(Status.FAIL, "Exception during page title validation: " + e.getMessage());
 			e.printStackTrace();
+		} finally {
+			span.end();
 		}
 	}
 
 	public void validateDropDownSelectedText(WebElement we, String expectedSelectedText) {
+		Span span = startSpan("validateDropDownSelectedText", null, we);
 		try {
 			Select select = new Select(we);
 			String actualSelectedText = select.getFirstSelectedOption().getText();
 
 			if (actualSelectedText.equalsIgnoreCase(expectedSelectedText)) {
-				et.log(Status.PASS, "Dropdown selected text validation passed. Actual: '" + actualSelectedText
+				log(Status.PASS, "Dropdown selected text validation passed. Actual: '" + actualSelectedText
 						+ "' | Expected: '" + expectedSelectedText + "'");
 
 			} else {
-				et.log(Status.FAIL, "Dropdown selected text validation failed. Actual: '" + actualSelectedText
+				log(Status.FAIL, "Dropdown selected text validation failed. Actual: '" + actualSelectedText
 						+ "' | Expected: '" + expectedSelectedText + "'");
 
 			}
 		} catch (Exception e) {
-			et.log(Status.FAIL, "Exception during dropdown selected text validation: " + e.getMessage());
+			log(Status.FAIL, "Exception during dropdown selected text validation: " + e.getMessage());
 
 			e.printStackTrace();
+		} finally {
+			span.end();
 		}
 	}
 
@@ -841,64 +1499,80 @@ public class WebUtil {
 	 */
 
 	public void alertAccept() {
+		Span span = startSpan("alertAccept", null);
 		try {
 			Alert alert = driver.switchTo().alert();
 			String alertText = alert.getText();
-			et.log(Status.INFO, "Alert text: " + alertText);
+			log(Status.INFO, "Alert text: " + alertText);
 			alert.accept();
-			et.log(Status.PASS, "Alert accepted successfully");
+			log(Status.PASS, "Alert accepted successfully");
 		} catch (NoAlertPresentException e) {
-			et.log(Status.FAIL, "No alert present to accept. Error: " + e.getMessage());
+			log(Status.FAIL, "No alert present to accept. Error: " + e.getMessage());
 		} catch (Exception e) {
-			et.log(Status.FAIL, "Failed to accept alert. Error: " + e.getMessage());
+			log(Status.FAIL, "Failed to accept alert. Error: " + e.getMessage());
 			e.printStackTrace();
+		} finally {
+			span.end();
 		}
 	}
 
 	public void alertDismiss() {
+		Span span = startSpan("alertDismiss", null);
 		try {
 			driver.switchTo().alert().dismiss();
-			et.log(Status.PASS, "Alert dismissed successfully");
+			log(Status.PASS, "Alert dismissed successfully");
 		} catch (NoAlertPresentException e) {
-			et.log(Status.FAIL, "No alert present to dismiss. Error: " + e.getMessage());
+			log(Status.FAIL, "No alert present to dismiss. Error: " + e.getMessage());
 
 		} catch (Exception e) {
-			et.log(Status.FAIL, "Failed to dismiss alert. Error: " + e.getMessage());
+			log(Status.FAIL, "Failed to dismiss alert. Error: " + e.getMessage());
 			e.printStackTrace();
+		} finally {
+			span.end();
 		}
 	}
 
 	public String getAlertText() {
-		String alertText = "";
+		Span span = startSpan("getAlertText", null);
 		try {
-			Alert alert = driver.switchTo().alert();
-			alertText = alert.getText();
-			et.log(Status.INFO, "Alert text: " + alertText);
+			String alertText = "";
+			try {
+				Alert alert = driver.switchTo().alert();
+				alertText = alert.getText();
+				log(Status.INFO, "Alert text: " + alertText);
 
-		} catch (NoAlertPresentException e) {
-			Alert alert = driver.switchTo().alert();
-			alertText = alert.getText();
-			et.log(Status.FAIL, "No alert present to getting text. Error: " + e.getMessage());
+			} catch (NoAlertPresentException e) {
+				Alert alert = driver.switchTo().alert();
+				alertText = alert.getText();
+				log(Status.FAIL, "No alert present to getting text. Error: " + e.getMessage());
 
-		} catch (Exception e) {
-			et.log(Status.FAIL, "Failed to getText alert. Error: " + e.getMessage());
+			} catch (Exception e) {
+				log(Status.FAIL, "Failed to getText alert. Error: " + e.getMessage());
 
-			e.printStackTrace();
+				e.printStackTrace();
+			}
+			return alertText;
+		} catch (RuntimeException e) {
+			throw span.fail(e);
+		} finally {
+			span.end();
 		}
-		return alertText;
 	}
 
 	public void alertSendKey(String sendText) {
+		Span span = startSpan("alertSendKey", null);
 		try {
 			Alert alert = driver.switchTo().alert();
 			alert.sendKeys(sendText);
-			et.log(Status.INFO, "Text sent to alert successfully: " + sendText);
+			log(Status.INFO, "Text sent to alert successfully: " + sendText);
 		} catch (NoAlertPresentException e) {
-			et.log(Status.FAIL, "No alert present to send keys. Error: " + e.getMessage());
+			log(Status.FAIL, "No alert present to send keys. Error: " + e.getMessage());
 
 		} catch (Exception e) {
-			et.log(Status.FAIL, "Failed to send keys to alert. Error: " + e.getMessage());
+			log(Status.FAIL, "Failed to send keys to alert. Error: " + e.getMessage());
 			e.printStackTrace();
+		} finally {
+			span.end();
 		}
 	}
 
@@ -906,146 +1580,142 @@ public class WebUtil {
 	 * ========================== Utility Methods ========================
 	 */
 
-	public void takeScreenShot(String screenshotName) {
+	/**
+	 * Captures the screen and returns; encoding, storing and linking the image
+	 * in the report happen in the background. See {@link ScreenshotPipeline}.
+	 */
+	public CompletableFuture<Path> takeScreenShot(String screenshotName) {
+		Span span = startSpan("takeScreenShot", screenshotName);
 		try {
 			TakesScreenshot ts = (TakesScreenshot) driver;
-			File sourceFile = ts.getScreenshotAs(OutputType.FILE);
-
-			String filePath = "ScreenShot/" + screenshotName + ".png";
-			File targetLocation = new File(filePath);
-
-			Files.copy(sourceFile.toPath(), targetLocation.toPath());
-
-			et.log(Status.INFO, "Screenshot taken: " + filePath);
-		} catch (IOException e) {
-			et.log(Status.FAIL, "Failed to save screenshot. Error: " + e.getMessage());
+			byte[] png = ts.getScreenshotAs(OutputType.BYTES);
+			return ScreenshotPipeline.submit(png, screenshotName, et);
+		} catch (WebDriverException e) {
+			log(Status.FAIL, "Failed to take screenshot. Error: " + e.getMessage());
+			return CompletableFuture.failedFuture(e);
+		} finally {
+			span.end();
 		}
 	}
 
 // Reading Data From Excel Sheet
+	// Workbooks are parsed once and indexed by TestCaseID; see ExcelDataStore.
 	public static int getRowNumberByTestCaseID(String excelPath, String sheetName, String testCaseID) {
-
-		int rowNumber = -1;
-
+		Span span = ActionMetrics.start("getRowNumberByTestCaseID", sheetName);
 		try {
+			int rowNumber = -1;
 
-			FileInputStream fis = new FileInputStream(excelPath);
-			Workbook workbook = WorkbookFactory.create(fis); // xls + xlsx
-			Sheet sheet = workbook.getSheet(sheetName);
-
-			int lastRow = sheet.getLastRowNum();
-
-			for (int i = 1; i <= lastRow; i++) { // start from 1 (skip header)
-
-				Row row = sheet.getRow(i);
-				if (row == null) {
-					continue;
-				}
-
-				Cell cell = row.getCell(0, Row.MissingCellPolicy.CREATE_NULL_AS_BLANK);
-				String tcIDFromExcel = cell.getStringCellValue();
-
-				if (tcIDFromExcel.equalsIgnoreCase(testCaseID)) {
-					rowNumber = i;
-					break;
-				}
+			try {
+				rowNumber = ExcelDataStore.getRowNumber(excelPath, sheetName, testCaseID);
+			} catch (Exception e) {
+				e.printStackTrace();
 			}
 
-			workbook.close();
-			fis.close();
-
-		} catch (Exception e) {
-			e.printStackTrace();
+			return rowNumber;
+		} catch (RuntimeException e) {
+			throw span.fail(e);
+		} finally {
+			span.end();
 		}
-
-		return rowNumber;
 	}
 
 	public static Map<String, String> readDataAsKeyValue(String excelPath, String sheetName, String testCaseID) {
-
-		Map<String, String> dataMap = new HashMap<>();
-
+		Span span = ActionMetrics.start("readDataAsKeyValue", sheetName);
 		try {
-			FileInputStream fis = new FileInputStream(excelPath);
-			Workbook workbook = WorkbookFactory.create(fis); // xls + xlsx
-			Sheet sheet = workbook.getSheet(sheetName);
-
-			Row headerRow = sheet.getRow(0);
-			int lastRow = sheet.getLastRowNum();
-			int targetRow = -1;
-
-			// Find row by TestCaseID (assume column 0)
-			for (int i = 1; i <= lastRow; i++) {
-				Row row = sheet.getRow(i);
-				if (row == null)
-					continue;
-
-				Cell tcCell = row.getCell(0, Row.MissingCellPolicy.CREATE_NULL_AS_BLANK);
-				if (tcCell.getStringCellValue().equalsIgnoreCase(testCaseID)) {
-					targetRow = i;
-					break;
-				}
-			}
-
-			// TestCaseID not found
-			if (targetRow == -1) {
-				workbook.close();
-				fis.close();
-				return dataMap;
-			}
-
-			Row dataRow = sheet.getRow(targetRow);
-			int cellCount = headerRow.getLastCellNum();
+			Map<String, String> dataMap = new HashMap<>();
 
-			// Header = key, Row data = value
-			for (int i = 0; i < cellCount; i++) {
-				Cell cellkeyObj = headerRow.getCell(i, Row.MissingCellPolicy.CREATE_NULL_AS_BLANK);
-				String key = cellkeyObj.getStringCellValue();
-				Cell CellvalueObj = dataRow.getCell(i, Row.MissingCellPolicy.CREATE_NULL_AS_BLANK);
-				String value = CellvalueObj.getStringCellValue();
-				dataMap.put(key, value);
+			try {
+				dataMap.putAll(ExcelDataStore.getRow(excelPath, sheetName, testCaseID));
+			} catch (Exception e) {
+				e.printStackTrace();
 			}
 
-			workbook.close();
-			fis.close();
+			return dataMap;
+		} catch (RuntimeException e) {
+			throw span.fail(e);
+		} finally {
+			span.end();
+		}
+	}
 
+	/**
+	 * Streams every data row of a large .xlsx sheet without loading the
+	 * workbook; memory stays at one row. Close the stream when done: the
+	 * action's timing runs until then, so it covers reading the rows.
+	 */
+	public static Stream<Map<String, String>> streamDataAsKeyValue(String excelPath, String sheetName) {
+		Span span = ActionMetrics.start("streamDataAsKeyValue", sheetName);
+		try {
+			Stream<Map<String, String>> rows = ExcelStreamReader.stream(excelPath, sheetName);
+			span.detach();
+			return rows.onClose(span::end);
 		} catch (Exception e) {
 			e.printStackTrace();
+			span.end();
+			return Stream.empty();
 		}
-
-		return dataMap;
 	}
 
-	public void brokenLink() {
-		List<WebElement> links = driver.findElements(By.tagName("a"));
-		System.out.println("Total links found: " + links.size());
-
-		for (WebElement link : links) {
-			String url = link.getDomAttribute("href");
-
-			if (url == null || url.isEmpty()) {
-				et.log(Status.INFO, "URL is either null or empty for link: " + link.getText());
-				continue;
-			}
-
+	/**
+	 * Checks every link on the current page concurrently. Hrefs are collected in
+	 * one script call and each distinct URL is requested once.
+	 */
+	public List<LinkResult> brokenLink() {
+		Span span = startSpan("brokenLink", null);
+		try {
+			List<LinkResult> results = new ArrayList<>();
 			try {
-				HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
-				connection.setRequestMethod("HEAD");
-				connection.connect();
-
-				int responseCode = connection.getResponseCode();
-
-				if (responseCode >= 400) {
-					et.log(Status.INFO, url + " is a broken link. Response code: " + responseCode);
-
-				} else {
+				LinkScan scan = BrokenLinkChecker.collectLinks(driver);
+				System.out.println("Total links found: " + scan.getUrls().size());
+				if (scan.getEmptyLinks() > 0) {
+					log(Status.INFO, scan.getEmptyLinks() + " links have a null or empty URL");
+				}
 
-					et.log(Status.PASS, url + " is a valid link.");
+				results = new BrokenLinkChecker().check(scan.getUrls());
+				for (LinkResult result : results) {
+					if (result.getError() != null) {
+						log(Status.FAIL,
+								"Exception while checking URL: " + result.getUrl() + " Error: " + result.getError());
+					} else if (result.isBroken()) {
+						log(Status.INFO,
+								result.getUrl() + " is a broken link. Response code: " + result.getStatusCode());
+					} else {
+						log(Status.PASS, result.getUrl() + " is a valid link.");
+					}
 				}
+			} catch (Exception e) {
+				log(Status.FAIL, "Failed to check links on the page. Error: " + e.getMessage());
+				e.printStackTrace();
+			}
+			return results;
+		} catch (RuntimeException e) {
+			throw span.fail(e);
+		} finally {
+			span.end();
+		}
+	}
 
+	/**
+	 * Crawls same-origin pages from the URL up to maxDepth link hops and checks
+	 * every link found once. Results are streamed to the JSON Lines file.
+	 */
+	public CrawlSummary crawlLinks(String url, int maxDepth, String resultsFile) {
+		Span span = startSpan("crawlLinks", url);
+		try {
+			CrawlSummary summary = null;
+			try {
+				summary = new LinkCrawler(this).setMaxDepth(maxDepth).crawl(url, Paths.get(resultsFile));
+				log(summary.getBrokenLinks() == 0 ? Status.PASS : Status.INFO,
+						"Link crawl from " + url + " finished. " + summary + ". Results: " + resultsFile);
 			} catch (Exception e) {
-				et.log(Status.FAIL, "Exception while checking URL: " + url + " Error: " + e.getMessage());
+				log(Status.FAIL, "Link crawl from " + url + " failed. Error: " + e.getMessage());
+				e.printStackTrace();
 			}
+			return summary;
+		} catch (RuntimeException e) {
+			throw span.fail(e);
+		} finally {
+			span.end();
 		}
 	}
 }
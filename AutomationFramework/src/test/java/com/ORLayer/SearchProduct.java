@@ -2,22 +2,23 @@ package com.ORLayer;
 
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
-import org.openqa.selenium.support.PageFactory;
 
+import WebUtils.PageReady;
 import WebUtils.WebUtil;
 
 public class SearchProduct {
 	
 	public SearchProduct(WebUtil we) {
-				PageFactory.initElements(we.getDriver(), this);
+		SearchProduct_Elements.bind(this, we);
 	}
 
 	// amazone search id
+	@PageReady
 	@FindBy(id = "twotabsearchtextbox")
-	private WebElement searchBoxAm;
+	WebElement searchBoxAm;
 
 	@FindBy(xpath = "//span[@class='a-price-whole']")
-	private WebElement amProduct;
+	WebElement amProduct;
 
 	public WebElement getSearchBoxAm() {
 		return searchBoxAm;
@@ -29,11 +30,12 @@ public class SearchProduct {
 
 	// flipcart search
 
+	@PageReady
 	@FindBy(name = "q")
-	private WebElement searchBoxFC;
+	WebElement searchBoxFC;
 
 	@FindBy(xpath = "//div[@class='Nx9bqj _4b5DiR']")
-	private WebElement FCProduct;
+	WebElement FCProduct;
 
 	public WebElement getSearchBoxFC() {
 		return searchBoxFC;
@@ -5,20 +5,29 @@ import org.openqa.selenium.support.PageFactory;
 
 import com.ORLayer.SearchProduct;
 
+import WebUtils.TypingMode;
 import WebUtils.WebUtil;
 
 public class ProductPage extends SearchProduct {
 	private WebUtil wbe;
+	private TypingMode typingMode;
 
 	public ProductPage(WebUtil we) {
 		super(we);
 		this.wbe = we;
+		this.typingMode = we.getTypingMode();
 
 	}
 
+	/** Typing mode for this page's text fields, defaulting to the WebUtil's. */
+	public ProductPage setTypingMode(TypingMode typingMode) {
+		this.typingMode = typingMode;
+		return this;
+	}
+
 	public void ProductAm(String Value) {
 		wbe.click(getSearchBoxAm(), "Search Box");
-		wbe.type(getSearchBoxAm(), Value, "Search Box");
+		wbe.type(getSearchBoxAm(), Value, "Search Box", typingMode);
 		getSearchBoxAm().sendKeys(Keys.ENTER);
 
 		String str = wbe.getInnerText(getAmProduct(), "Price");
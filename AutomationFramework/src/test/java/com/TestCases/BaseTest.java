@@ -1,56 +1,198 @@
 package com.TestCases;
 
-import java.time.Duration;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
-import org.openqa.selenium.chrome.ChromeDriver;
+import org.openqa.selenium.PageLoadStrategy;
+import org.testng.IHookCallBack;
+import org.testng.IHookable;
+import org.testng.ITestContext;
+import org.testng.ITestResult;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.AfterSuite;
-import org.testng.annotations.BeforeClass;
 import org.testng.annotations.BeforeMethod;
-import org.testng.annotations.BeforeSuite;
 import org.testng.annotations.BeforeTest;
 
-import com.aventstack.extentreports.ExtentReports;
 import com.aventstack.extentreports.ExtentTest;
 import com.aventstack.extentreports.Status;
-import com.aventstack.extentreports.reporter.ExtentSparkReporter;
-import com.aventstack.extentreports.reporter.configuration.Theme;
 
+import WebUtils.ActionMetrics;
+import WebUtils.DriverPool;
+import WebUtils.ExcelDataStore;
+import WebUtils.ExecutionProfile;
+import WebUtils.FailureRecorder;
+import WebUtils.PageReadiness;
+import WebUtils.PerformanceCollector;
+import WebUtils.ReportManager;
+import WebUtils.ResourceBlocker;
+import WebUtils.ScreenshotPipeline;
+import WebUtils.TraceRecorder;
+import WebUtils.WaitEngine;
 import WebUtils.WebUtil;
 
-public class BaseTest {
-	protected ExtentReports extent;
-	protected ExtentTest test;
-	protected WebUtil wu;
+public abstract class BaseTest implements IHookable {
+	private final ThreadLocal<ExtentTest> test = new ThreadLocal<>();
+	private boolean collectPerformance;
 
 	@BeforeTest
-	public void setUpSuite() {
-		ExtentSparkReporter spark = new ExtentSparkReporter("test-output/Index.html");
-		extent = new ExtentReports();
-		extent.attachReporter(spark);
-		spark.config().setTheme(Theme.DARK);
+	public void setUpSuite(ITestContext context) {
+		ReportManager.getReports();
+		ExcelDataStore.setWarningHandler(ReportManager::addTestRunnerOutput);
+
+		String maxSessions = context.getCurrentXmlTest().getParameter("maxSessions");
+		if (maxSessions != null) {
+			DriverPool.setMaxSessions(getBrowser(context), Integer.parseInt(maxSessions));
+		}
+		String profile = context.getCurrentXmlTest().getParameter("profile");
+		if (profile != null) {
+			DriverPool.setExecutionProfile(ExecutionProfile.fromName(profile));
+		}
+		String pageLoadStrategy = context.getCurrentXmlTest().getParameter("pageLoadStrategy");
+		if (pageLoadStrategy != null) {
+			DriverPool.setPageLoadStrategy(PageLoadStrategy.fromString(pageLoadStrategy));
+		}
+		String performanceBudgets = context.getCurrentXmlTest().getParameter("performanceBudgets");
+		if (performanceBudgets != null) {
+			try {
+				PerformanceCollector.loadBudgets(Paths.get(performanceBudgets));
+			} catch (IOException e) {
+				throw new IllegalStateException("Cannot read performance budgets " + performanceBudgets, e);
+			}
+			if (DriverPool.getExecutionProfile().blocksResources()) {
+				String warning = "Performance budgets run under the " + DriverPool.getExecutionProfile()
+						+ " profile measure a headless page without images or fonts; the numbers are synthetic";
+				System.err.println(warning);
+				ReportManager.addTestRunnerOutput(warning);
+			}
+		}
+		collectPerformance = performanceBudgets != null
+				|| Boolean.parseBoolean(context.getCurrentXmlTest().getParameter("collectPerformance"));
+		String recycleSessions = context.getCurrentXmlTest().getParameter("recycleSessions");
+		if (recycleSessions != null) {
+			String maxSessionUses = context.getCurrentXmlTest().getParameter("maxSessionUses");
+			DriverPool.setRecycleSessions(Boolean.parseBoolean(recycleSessions),
+					maxSessionUses == null ? 20 : Integer.parseInt(maxSessionUses));
+		}
 	}
 
 	@BeforeMethod
-	public void setUp(org.testng.ITestContext context) {
-		String testName = context.getName();
-		test = extent.createTest(testName);
+	public void setUp(ITestContext context, Method method) {
+		long start = System.nanoTime();
+		String testName = context.getName() + " - " + method.getName();
+		ActionMetrics.setCurrentTest(testName);
+		try {
+			ExtentTest et = ReportManager.createTest(testName);
+			test.set(et);
+			WebUtil wu = DriverPool.lease(getBrowser(context), 10, et);
+			String failureContext = context.getCurrentXmlTest().getParameter("failureContext");
+			if (failureContext != null && Integer.parseInt(failureContext) > 0 && wu.getFailureRecorder() == null) {
+				String screenshots = context.getCurrentXmlTest().getParameter("failureScreenshots");
+				wu.setFailureRecorder(new FailureRecorder(Integer.parseInt(failureContext),
+						Boolean.parseBoolean(screenshots), 2000));
+			}
+			if (collectPerformance && wu.getPerformanceCollector() == null) {
+				wu.setPerformanceCollector(new PerformanceCollector());
+			}
+		} finally {
+			TraceRecorder.complete("setUp " + testName, "test", start);
+		}
+	}
 
+	/**
+	 * Runs the test, then reports the last page it visited to the performance
+	 * collector and fails an otherwise passing test that went over budget.
+	 */
+	@Override
+	public void run(IHookCallBack callBack, ITestResult result) {
+		callBack.runTestMethod(result);
+		WebUtil wu = getWebUtil();
+		if (wu == null || wu.getPerformanceCollector() == null) {
+			return;
+		}
+		List<String> violations = wu.flushPerformance();
+		if (result.getThrowable() == null && !violations.isEmpty()) {
+			throw new AssertionError("Performance budget exceeded: " + String.join("; ", violations));
+		}
 	}
 
 	@AfterMethod
-	public void tearDown(WebUtil wu) {
-		if (test.getStatus() == Status.FAIL) {
-			wu.takeScreenShot("Test Case Faild");
-		} else {
-			wu.closeBrowser();
+	public void tearDown(ITestResult result) {
+		long start = System.nanoTime();
+		String testName = ActionMetrics.getCurrentTest();
+		try {
+			WebUtil wu = getWebUtil();
+			if (result.getStatus() == ITestResult.FAILURE && wu != null) {
+				if (wu.getFailureRecorder() != null) {
+					dumpFailureContext(wu, testName, result.getThrowable());
+				} else {
+					wu.takeScreenShot(testName + " failed");
+				}
+			}
+		} finally {
+			DriverPool.release();
+			test.remove();
+			ActionMetrics.clearCurrentTest();
+			TraceRecorder.complete("tearDown " + testName, "test", start);
+		}
+	}
+
+	private void dumpFailureContext(WebUtil wu, String testName, Throwable failure) {
+		try {
+			Path folder = wu.getFailureRecorder().dump(Paths.get("test-output/failure-context"), testName, failure,
+					wu.getDriver());
+			ReportManager.log(getTest(), Status.INFO, "Last actions before the failure: " + folder.toAbsolutePath());
+		} catch (IOException e) {
+			ReportManager.log(getTest(), Status.WARNING, "Could not write failure context: " + e.getMessage());
 		}
 	}
 
 	@AfterSuite
-	public void tearDownSuite(WebUtil wu) {
-		wu.quitBrowser();
-		extent.flush();
+	public void tearDownSuite() {
+		DriverPool.shutdown();
+		System.out.println(DriverPool.getStatsSummary());
+		ReportManager.addTestRunnerOutput(DriverPool.getStatsSummary());
+		if (!ScreenshotPipeline.awaitCompletion(60, TimeUnit.SECONDS)) {
+			System.err.println("Screenshots still being written after 60s; the report may miss some");
+		}
+		System.out.println(ScreenshotPipeline.getStatsSummary());
+		ReportManager.addTestRunnerOutput(ScreenshotPipeline.getStatsSummary());
+		System.out.println(ResourceBlocker.getStatsSummary());
+		ReportManager.addTestRunnerOutput(ResourceBlocker.getStatsSummary());
+		System.out.println(PageReadiness.getStatsSummary());
+		ReportManager.addTestRunnerOutput(PageReadiness.getStatsSummary());
+		System.out.println(PerformanceCollector.getStatsSummary());
+		ReportManager.addTestRunnerOutput(PerformanceCollector.getStatsSummary());
+		try {
+			WaitEngine.writeReport(Paths.get("test-output/wait-timings.csv"));
+			ActionMetrics.writeReports(Paths.get("test-output/metrics"));
+			ResourceBlocker.writeReport(Paths.get("test-output/blocked-resources.json"));
+			PerformanceCollector.writeReport(Paths.get("test-output/performance.json"));
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+		ReportManager.shutdown();
+		try {
+			TraceRecorder.write(Paths.get("test-output/trace.json"));
+		} catch (IOException e) {
+			e.printStackTrace();
+		}
+	}
+
+	protected ExtentTest getTest() {
+		return test.get();
+	}
+
+	protected WebUtil getWebUtil() {
+		return DriverPool.current();
+	}
+
+	private String getBrowser(ITestContext context) {
+		String browser = context.getCurrentXmlTest().getParameter("browser");
+		return browser == null ? "chrome" : browser;
 	}
 
 }
@@ -0,0 +1,62 @@
+package com.TestCases;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+import org.testng.annotations.Test;
+
+import WebUtils.BoundedVisitedSet;
+
+public class BoundedVisitedSetTest {
+
+	@Test
+	public void reportsEachUrlAsNewOnlyOnce() {
+		BoundedVisitedSet visited = new BoundedVisitedSet(1000, 0.001, 10);
+
+		assertTrue(visited.add("https://example.com/a"));
+		assertTrue(visited.add("https://example.com/b"));
+		assertFalse(visited.add("https://example.com/a"));
+		assertEquals(visited.size(), 2);
+	}
+
+	@Test
+	public void filterRemembersUrlsEvictedFromTheRecentList() {
+		BoundedVisitedSet visited = new BoundedVisitedSet(1000, 0.001, 2);
+		visited.add("https://example.com/a");
+		visited.add("https://example.com/b");
+		visited.add("https://example.com/c");
+
+		// "a" has left the two-entry LRU; only the Bloom filter can answer
+		assertFalse(visited.add("https://example.com/a"));
+		assertEquals(visited.size(), 3);
+	}
+
+	@Test
+	public void falsePositivesStayNearTheConfiguredRate() {
+		int urls = 10_000;
+		BoundedVisitedSet visited = new BoundedVisitedSet(urls, 0.01, 0);
+		for (int i = 0; i < urls; i++) {
+			visited.add("https://example.com/seen/" + i);
+		}
+		// add() also inserts, so probe few enough URLs that the filter stays near its design load
+		int probes = 1000;
+		int falsePositives = 0;
+		for (int i = 0; i < probes; i++) {
+			if (!visited.add("https://example.com/unseen/" + i)) {
+				falsePositives++;
+			}
+		}
+
+		assertTrue(falsePositives < probes * 0.02, falsePositives + " of " + probes + " unseen URLs reported as seen");
+		// about 9.6 bits per URL at 1%, rounded up to whole longs
+		assertTrue(visited.filterBytes() <= urls * 10 / 8 + 8, visited.filterBytes() + " bytes");
+	}
+
+	@Test
+	public void rejectsImpossibleSizing() {
+		expectThrows(IllegalArgumentException.class, () -> new BoundedVisitedSet(0, 0.01, 10));
+		expectThrows(IllegalArgumentException.class, () -> new BoundedVisitedSet(100, 1, 10));
+	}
+}
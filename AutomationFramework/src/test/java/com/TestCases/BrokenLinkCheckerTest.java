@@ -0,0 +1,88 @@
+package com.TestCases;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import WebUtils.BrokenLinkChecker;
+import WebUtils.BrokenLinkChecker.LinkResult;
+
+public class BrokenLinkCheckerTest {
+	private HttpServer server;
+	private String base;
+
+	@BeforeClass
+	public void startServer() throws IOException {
+		server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+		server.createContext("/ok", exchange -> respond(exchange, 200));
+		server.createContext("/missing", exchange -> respond(exchange, 404));
+		server.createContext("/no-head", exchange -> respond(exchange,
+				"HEAD".equals(exchange.getRequestMethod()) ? 405 : 200));
+		server.createContext("/slow", exchange -> {
+			try {
+				Thread.sleep(2000);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			respond(exchange, 200);
+		});
+		server.setExecutor(Executors.newCachedThreadPool());
+		server.start();
+		base = "http://127.0.0.1:" + server.getAddress().getPort();
+	}
+
+	@AfterClass(alwaysRun = true)
+	public void stopServer() {
+		server.stop(0);
+	}
+
+	@Test
+	public void reportsStatusPerLinkInInputOrder() {
+		BrokenLinkChecker checker = new BrokenLinkChecker(Duration.ofMillis(500), 2);
+		List<LinkResult> results = checker.check(Arrays.asList(base + "/ok", base + "/missing", base + "/no-head",
+				base + "/slow"));
+
+		assertEquals(results.size(), 4);
+		assertEquals(results.get(0).getStatusCode(), 200);
+		assertFalse(results.get(0).isBroken());
+
+		assertEquals(results.get(1).getStatusCode(), 404);
+		assertEquals(results.get(1).getMethod(), "HEAD");
+		assertTrue(results.get(1).isBroken());
+
+		assertEquals(results.get(2).getMethod(), "GET");
+		assertEquals(results.get(2).getStatusCode(), 200);
+		assertFalse(results.get(2).isBroken());
+
+		assertTrue(results.get(3).isBroken());
+		assertNotNull(results.get(3).getError());
+	}
+
+	@Test
+	public void normalizeDropsFragmentsDuplicatesAndNonHttpLinks() {
+		List<String> urls = BrokenLinkChecker.normalize(Arrays.asList("HTTPS://Example.com/a#top",
+				"https://example.com/a", "mailto:someone@example.com", "javascript:void(0)", "https://example.com"));
+
+		assertEquals(urls, Arrays.asList("https://example.com/a", "https://example.com/"));
+	}
+
+	private static void respond(HttpExchange exchange, int status) throws IOException {
+		exchange.sendResponseHeaders(status, -1);
+		exchange.close();
+	}
+}
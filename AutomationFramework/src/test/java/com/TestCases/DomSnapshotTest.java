@@ -0,0 +1,167 @@
+package com.TestCases;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.openqa.selenium.InvalidSelectorException;
+import org.openqa.selenium.NoSuchElementException;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import WebUtils.DomSnapshot;
+import WebUtils.DomSnapshot.SnapshotElement;
+import WebUtils.InMemoryWebDriver;
+import WebUtils.WebUtil;
+
+public class DomSnapshotTest {
+	private static final String URL = "https://www.amazon.in/deal";
+
+	// flag bits as the capture script sets them
+	private static final long SHOWN = 1;
+	private static final long ENABLED = 2;
+	private static final long SELECTED = 4;
+	private static final long BLOCK = 8;
+
+	private WebUtil we;
+	private final List<String> log = new ArrayList<>();
+	private DomSnapshot snapshot;
+
+	@BeforeMethod
+	public void capture() {
+		we = new WebUtil(null);
+		we.launchBrowser("inmemory", 0);
+		((InMemoryWebDriver) we.getDriver()).onScript(
+				(script, args) -> script.contains("__domSnapshotObserver") ? capturedPage() : null);
+		log.clear();
+		snapshot = DomSnapshot.capture(we, (status, details) -> log.add(status + ": " + details));
+	}
+
+	@AfterMethod(alwaysRun = true)
+	public void quit() {
+		we.quitBrowser();
+	}
+
+	@Test
+	public void xpathLookupsRunAgainstTheRebuiltDocument() {
+		assertEquals(snapshot.getUrl(), URL);
+		assertEquals(snapshot.getTitle(), "Deal of the day");
+		assertEquals(snapshot.getElementCount(), 18);
+
+		assertEquals(snapshot.find("//span[@class='price']").getText(), "13,999");
+		assertEquals(snapshot.findAll("//div[@class='card']/span").size(), 3);
+		assertEquals(snapshot.find("//*[@id='gift']").getTagName(), "input");
+		assertEquals(snapshot.find("//*[@id='gift']").getAttribute("type"), "checkbox");
+		assertNull(snapshot.find("//*[@id='gift']").getAttribute("name"));
+		assertTrue(snapshot.findAll("//table").isEmpty());
+		expectThrows(NoSuchElementException.class, () -> snapshot.find("//table"));
+		expectThrows(InvalidSelectorException.class, () -> snapshot.findAll("//div["));
+	}
+
+	@Test
+	public void attributesThatAreNotValidXmlNamesAreDropped() {
+		SnapshotElement button = snapshot.find("//button");
+
+		assertEquals(List.copyOf(button.getAttributes().keySet()), List.of("disabled"));
+		assertEquals(button.getText(), "Buy now");
+	}
+
+	@Test
+	public void visibleTextSkipsHiddenDescendantsAndBreaksLinesAtBlocks() {
+		SnapshotElement card = snapshot.find("//div[@class='card']");
+
+		assertEquals(card.getText(), "Price: 13,999\nFree delivery");
+		assertEquals(card.getTextContent(), "Price: 13,999 was 15,999 Free delivery");
+		assertEquals(snapshot.find("//h1").getText(), "Deal of the day");
+		assertEquals(snapshot.find("//body").getText(),
+				"Deal of the day\nPrice: 13,999\nFree delivery\nOne Two Buy now");
+	}
+
+	@Test
+	public void displayNoneSubtreeHasNoVisibleText() {
+		SnapshotElement gone = snapshot.find("//div[@id='gone']");
+		SnapshotElement paragraph = snapshot.find("//div[@id='gone']/p");
+
+		assertFalse(gone.isDisplayed());
+		assertFalse(paragraph.isDisplayed());
+		assertEquals(gone.getText(), "");
+		assertEquals(paragraph.getText(), "");
+		assertEquals(gone.getTextContent(), "Out of stock");
+		assertFalse(snapshot.validateElementIsVisible("//div[@id='gone']/p", "Stock note"));
+		assertEquals(log, List.of("Fail: Stock note is NOT visible on the page."));
+	}
+
+	@Test
+	public void selectedOptionAndFormStateAreRead() {
+		assertEquals(snapshot.find("//select[@id='qty']").getValue(), "2");
+		assertFalse(snapshot.find("//option[@value='1']").isSelected());
+		assertTrue(snapshot.find("//option[@value='2']").isSelected());
+		assertTrue(snapshot.find("//*[@id='gift']").isSelected());
+		assertEquals(snapshot.find("//*[@id='gift']").getValue(), "on");
+		assertNull(snapshot.find("//button").getValue());
+		assertFalse(snapshot.find("//button").isEnabled());
+
+		assertTrue(snapshot.validateDropDownSelectedText("//select[@id='qty']", "two"));
+		assertFalse(snapshot.validateDropDownSelectedText("//select[@id='qty']", "One"));
+		assertEquals(log, List.of("Pass: Dropdown selected text validation passed. Actual: 'Two' | Expected: 'two'",
+				"Fail: Dropdown selected text validation failed. Actual: 'Two' | Expected: 'One'"));
+	}
+
+	@Test
+	public void lookupsFailOnceThePageContextHasChanged() {
+		assertTrue(snapshot.isContextCurrent());
+
+		we.pageContextChanged();
+
+		assertFalse(snapshot.isContextCurrent());
+		expectThrows(IllegalStateException.class, () -> snapshot.find("//h1"));
+		assertFalse(snapshot.validateInnerText("//h1", "Deal of the day", "Heading"));
+	}
+
+	/* ==========================Capture result======================== */
+
+	/** What the capture script returns for the page, as Selenium hands it back. */
+	private static List<Object> capturedPage() {
+		Object heading = node("h1", attrs("id", "title"), SHOWN | ENABLED | BLOCK, null,
+				"\n  Deal  of\tthe day\n");
+		Object card = node("div", attrs("class", "card"), SHOWN | ENABLED | BLOCK, null,
+				node("span", attrs(), SHOWN | ENABLED, null, "Price: "),
+				node("span", attrs("class", "price"), SHOWN | ENABLED, null, "13,999"),
+				// visibility:hidden
+				node("span", attrs("class", "old-price"), ENABLED, null, " was 15,999 "),
+				node("br", attrs(), SHOWN | ENABLED, null),
+				"Free delivery");
+		// display:none on the div; the paragraph keeps its own display:block
+		Object gone = node("div", attrs("id", "gone", "style", "display:none"), ENABLED, null,
+				node("p", attrs(), ENABLED | BLOCK, null, "Out of stock"));
+		Object quantity = node("select", attrs("id", "qty"), SHOWN | ENABLED, "2",
+				node("option", attrs("value", "1"), SHOWN | ENABLED, null, "One"),
+				" ",
+				node("option", attrs("value", "2"), SHOWN | ENABLED | SELECTED, null, "Two"));
+		Object gift = node("input", attrs("type", "checkbox", "id", "gift"), SHOWN | ENABLED | SELECTED, "on");
+		Object buy = node("button", attrs("disabled", "", "@click", "buy()"), SHOWN, null, "Buy now");
+		Object script = node("script", attrs(), ENABLED, null);
+		Object body = node("body", attrs(), SHOWN | ENABLED | BLOCK, null, heading, card, gone, quantity, " ",
+				gift, " ", buy, script);
+		Object html = node("html", attrs("lang", "en"), SHOWN | ENABLED | BLOCK, null,
+				node("head", attrs(), ENABLED, null, node("title", attrs(), ENABLED, null, "Deal of the day")),
+				body);
+		return Arrays.asList(URL, "Deal of the day", "token", html);
+	}
+
+	private static List<Object> node(String tag, List<String> attributes, long flags, String value,
+			Object... children) {
+		return Arrays.asList(tag, attributes, flags, value, Arrays.asList(children));
+	}
+
+	private static List<String> attrs(String... namesAndValues) {
+		return Arrays.asList(namesAndValues);
+	}
+}
@@ -0,0 +1,114 @@
+package com.TestCases;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertNotNull;
+import static org.testng.Assert.assertNull;
+import static org.testng.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import WebUtils.ExcelSnapshot;
+
+public class ExcelSnapshotTest {
+	private static final List<String> HEADERS = Arrays.asList("TestCaseID", "Product", "Quantity");
+
+	private Path directory;
+	private String previousDirectory;
+
+	@BeforeClass
+	public void useTemporarySnapshotDirectory() throws IOException {
+		directory = Files.createTempDirectory("excel-snapshots");
+		previousDirectory = System.setProperty("excel.snapshot.dir", directory.resolve("snapshots").toString());
+	}
+
+	@AfterClass(alwaysRun = true)
+	public void restoreSnapshotDirectory() {
+		if (previousDirectory == null) {
+			System.clearProperty("excel.snapshot.dir");
+		} else {
+			System.setProperty("excel.snapshot.dir", previousDirectory);
+		}
+	}
+
+	@Test
+	public void roundTripsHeadersRowsAndRowNumbers() throws IOException {
+		Path workbook = workbook("round-trip");
+		write(workbook, "TC_01", "TC_02");
+
+		ExcelSnapshot snapshot = ExcelSnapshot.openIfFresh(workbook, "Data");
+
+		assertNotNull(snapshot);
+		assertEquals(snapshot.headers(), HEADERS);
+		assertEquals(snapshot.row("tc_02").get("Product"), "product TC_02");
+		assertEquals(snapshot.row("TC_01").get("Quantity"), "1");
+		assertEquals(snapshot.rowNumber("TC_02"), 2);
+		assertTrue(snapshot.row("TC_99").isEmpty());
+		assertEquals(snapshot.rowNumber("TC_99"), -1);
+	}
+
+	@Test
+	public void firstRowWinsForARepeatedTestCaseID() throws IOException {
+		Path workbook = workbook("duplicates");
+		write(workbook, "TC_01", "tc_01", "TC_02");
+
+		ExcelSnapshot snapshot = ExcelSnapshot.openIfFresh(workbook, "Data");
+
+		assertEquals(snapshot.rowNumber("TC_01"), 1);
+		assertEquals(snapshot.row("TC_01").get("Product"), "product TC_01");
+		assertEquals(snapshot.rowNumber("TC_02"), 3);
+	}
+
+	@Test
+	public void snapshotOfChangedWorkbookIsIgnored() throws IOException {
+		Path workbook = workbook("stale");
+		write(workbook, "TC_01");
+		Files.write(workbook, "edited".getBytes(StandardCharsets.UTF_8));
+
+		assertNull(ExcelSnapshot.openIfFresh(workbook, "Data"));
+	}
+
+	@Test
+	public void truncatedSnapshotIsIgnored() throws IOException {
+		Path workbook = workbook("truncated");
+		write(workbook, "TC_01", "TC_02");
+		Path snapshot = ExcelSnapshot.snapshotPath(workbook, "Data");
+		byte[] bytes = Files.readAllBytes(snapshot);
+		for (int length : new int[] { 50, 80, bytes.length - 10 }) {
+			Files.write(snapshot, Arrays.copyOf(bytes, length));
+			assertNull(ExcelSnapshot.openIfFresh(workbook, "Data"), "snapshot cut to " + length + " bytes");
+		}
+	}
+
+	private Path workbook(String name) throws IOException {
+		// the snapshot only records the workbook's hash, so any content will do
+		Path workbook = directory.resolve(name + ".xlsx");
+		Files.write(workbook, name.getBytes(StandardCharsets.UTF_8));
+		return workbook;
+	}
+
+	private static void write(Path workbook, String... testCaseIDs) throws IOException {
+		List<Map<String, String>> rows = new ArrayList<>();
+		int[] rowNumbers = new int[testCaseIDs.length];
+		for (int i = 0; i < testCaseIDs.length; i++) {
+			Map<String, String> row = new LinkedHashMap<>();
+			row.put("TestCaseID", testCaseIDs[i]);
+			row.put("Product", "product " + testCaseIDs[i]);
+			row.put("Quantity", String.valueOf(i + 1));
+			rows.add(row);
+			rowNumbers[i] = i + 1;
+		}
+		ExcelSnapshot.write(workbook, "Data", HEADERS, Arrays.asList(testCaseIDs), rows, rowNumbers);
+	}
+}
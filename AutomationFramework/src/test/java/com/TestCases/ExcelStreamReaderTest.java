@@ -0,0 +1,167 @@
+package com.TestCases;
+
+import static org.testng.Assert.assertEquals;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import WebUtils.ActionMetrics;
+import WebUtils.ExcelDataStore;
+import WebUtils.ExcelStreamReader;
+import WebUtils.WebUtil;
+
+public class ExcelStreamReaderTest {
+	private Path directory;
+
+	@BeforeClass
+	public void createDirectory() throws IOException {
+		directory = Files.createTempDirectory("excel-stream");
+	}
+
+	@Test
+	public void sharedStringsMatchTheWorkbookParser() throws IOException {
+		// XSSFWorkbook writes text as shared strings
+		Path workbook = write("shared.xlsx", new XSSFWorkbook());
+
+		assertMatchesDataStore(workbook);
+	}
+
+	@Test
+	public void inlineStringsMatchTheWorkbookParser() throws IOException {
+		// SXSSFWorkbook writes text as inline strings
+		Path workbook = write("inline.xlsx", new SXSSFWorkbook());
+
+		assertMatchesDataStore(workbook);
+	}
+
+	@Test
+	public void sparseCellsAndFormatsAreRead() throws IOException {
+		Path workbook = write("formats.xlsx", new XSSFWorkbook());
+
+		List<Map<String, String>> rows = read(workbook);
+
+		assertEquals(rows.size(), 3);
+		Map<String, String> first = rows.get(0);
+		assertEquals(first.get("Product"), "Phone, 128 GB");
+		assertEquals(first.get("Quantity"), "1,200");
+		assertEquals(first.get("Price"), "13999.50");
+		assertEquals(first.get("Launched"), "2024-03-05");
+		assertEquals(first.get("InStock"), "TRUE");
+		// the second row has only its ID and a cell in column AB, past the headers
+		Map<String, String> sparse = rows.get(1);
+		assertEquals(sparse.get("TestCaseID"), "TC_02");
+		assertEquals(sparse.get("Product"), "");
+		assertEquals(sparse.get("Launched"), "");
+		assertEquals(sparse.get("Notes"), "");
+		assertEquals(rows.get(2).get("Quantity"), "7");
+		assertEquals(rows.get(2).get("Notes"), "after an empty row");
+	}
+
+	@Test
+	public void streamTimingEndsWhenTheStreamIsClosed() throws IOException {
+		Path workbook = write("timed.xlsx", new XSSFWorkbook());
+		ActionMetrics.reset();
+
+		try (Stream<Map<String, String>> rows = WebUtil.streamDataAsKeyValue(workbook.toString(), "Data")) {
+			assertEquals(streamedCount(), 0L);
+			assertEquals(rows.count(), 3L);
+			assertEquals(streamedCount(), 0L);
+		}
+
+		assertEquals(streamedCount(), 1L);
+	}
+
+	private static long streamedCount() {
+		return ActionMetrics.getStats().stream()
+				.filter(stats -> stats.getOperation().equals("streamDataAsKeyValue"))
+				.mapToLong(stats -> stats.getHistogram().getCount())
+				.sum();
+	}
+
+	private static void assertMatchesDataStore(Path workbook) throws IOException {
+		String path = workbook.toString();
+		List<Map<String, String>> rows = read(workbook);
+
+		assertEquals(rows.size(), 3);
+		for (Map<String, String> row : rows) {
+			assertEquals(row, ExcelDataStore.getRow(path, "Data", row.get("TestCaseID")));
+		}
+		assertEquals(List.copyOf(rows.get(0).keySet()), ExcelDataStore.getHeaders(path, "Data"));
+	}
+
+	private static List<Map<String, String>> read(Path workbook) throws IOException {
+		try (Stream<Map<String, String>> rows = ExcelStreamReader.stream(workbook.toString(), "Data")) {
+			return rows.collect(Collectors.toList());
+		}
+	}
+
+	private Path write(String name, Workbook workbook) throws IOException {
+		try (Workbook wb = workbook) {
+			Sheet other = wb.createSheet("Other");
+			other.createRow(0).createCell(0).setCellValue("not this sheet");
+			Sheet sheet = wb.createSheet("Data");
+			CellStyle thousands = style(wb, "#,##0");
+			CellStyle twoDecimals = style(wb, "0.00");
+			CellStyle isoDate = style(wb, "yyyy-mm-dd");
+
+			Row headers = sheet.createRow(0);
+			String[] names = { "TestCaseID", "Product", "Quantity", "Price", "Launched", "InStock", "Notes" };
+			for (int i = 0; i < names.length; i++) {
+				headers.createCell(i).setCellValue(names[i]);
+			}
+
+			Row full = sheet.createRow(1);
+			full.createCell(0).setCellValue("TC_01");
+			full.createCell(1).setCellValue("Phone, 128 GB");
+			full.createCell(2).setCellValue(1200);
+			full.getCell(2).setCellStyle(thousands);
+			full.createCell(3).setCellValue(13999.5);
+			full.getCell(3).setCellStyle(twoDecimals);
+			full.createCell(4).setCellValue(LocalDate.of(2024, 3, 5));
+			full.getCell(4).setCellStyle(isoDate);
+			full.createCell(5).setCellValue(true);
+			full.createCell(6).setCellValue("<b>&amp; \"quoted\"</b>");
+
+			Row sparse = sheet.createRow(2);
+			sparse.createCell(0).setCellValue("TC_02");
+			sparse.createCell(27).setCellValue("beyond the headers");
+
+			// row 3 is left out entirely
+			Row last = sheet.createRow(4);
+			last.createCell(0).setCellValue("TC_03");
+			last.createCell(2).setCellValue(7);
+			last.createCell(6).setCellValue("after an empty row");
+
+			Path file = directory.resolve(name);
+			try (OutputStream out = Files.newOutputStream(file)) {
+				wb.write(out);
+			}
+			if (wb instanceof SXSSFWorkbook) {
+				((SXSSFWorkbook) wb).dispose();
+			}
+			return file;
+		}
+	}
+
+	private static CellStyle style(Workbook workbook, String format) {
+		CellStyle style = workbook.createCellStyle();
+		style.setDataFormat(workbook.createDataFormat().getFormat(format));
+		return style;
+	}
+}
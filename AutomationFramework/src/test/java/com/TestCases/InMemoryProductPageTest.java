@@ -0,0 +1,130 @@
+package com.TestCases;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertFalse;
+import static org.testng.Assert.assertTrue;
+import static org.testng.Assert.expectThrows;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.StaleElementReferenceException;
+import org.openqa.selenium.TimeoutException;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.Select;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.Pages.ProductPage;
+
+import WebUtils.InMemoryWebDriver;
+import WebUtils.PageReadiness;
+import WebUtils.WebUtil;
+
+public class InMemoryProductPageTest {
+	private static final String HOME = "https://www.amazon.in/";
+
+	private WebUtil we;
+	private InMemoryWebDriver driver;
+
+	@BeforeMethod
+	public void launch() {
+		we = new WebUtil(null);
+		we.launchBrowser("inmemory", 0);
+		driver = (InMemoryWebDriver) we.getDriver();
+		driver.addPageFromResource(HOME, "fixtures/amazon-home.html")
+				.addPageFromResource("https://www.amazon.in/s", "fixtures/amazon-search-results.html");
+		we.openURL(HOME);
+	}
+
+	@AfterMethod(alwaysRun = true)
+	public void quit() {
+		we.quitBrowser();
+	}
+
+	@Test
+	public void productSearchSubmitsTheFormAndReadsThePrice() {
+		ProductPage page = new ProductPage(we);
+		page.ProductAm("vivo T4x 5G");
+
+		assertEquals(driver.getCurrentUrl(), "https://www.amazon.in/s?i=aps&field-keywords=vivo+T4x+5G&ref=nb_sb_noss");
+		assertEquals(driver.getTitle(), "Amazon.in : vivo T4x 5G");
+		assertEquals(page.getAmProduct().getText(), "13,999");
+	}
+
+	@Test
+	public void locatorsOfEveryStrategyFindTheSearchBox() {
+		WebElement byId = driver.findElement(By.id("twotabsearchtextbox"));
+
+		assertEquals(driver.findElement(By.name("field-keywords")), byId);
+		assertEquals(driver.findElement(By.xpath("//form[@name='site-search']//input[@type='text']")), byId);
+		assertEquals(driver.findElement(By.cssSelector("form#nav-search-bar-form > input[name^='field']")), byId);
+		assertEquals(driver.findElement(By.cssSelector("select + input")), byId);
+		assertEquals(driver.findElement(By.tagName("form")).findElement(By.className("nav-input")).getDomAttribute("id"),
+				"nav-search-submit-button");
+		assertEquals(driver.findElement(By.partialLinkText("Cart")).getDomAttribute("href"), "/gp/cart/view.html");
+		assertTrue(driver.findElements(By.cssSelector(".does-not-exist")).isEmpty());
+	}
+
+	@Test
+	public void textFollowsWhatTheBrowserWouldRender() {
+		List<String> deals = we.getAllElementsText("//li[@class='deal']", true);
+
+		assertEquals(deals, Arrays.asList("Mobiles & Accessories", "Laptops", ""));
+		assertFalse(driver.findElement(By.xpath("//p")).isDisplayed());
+		assertFalse(driver.findElement(By.name("ref")).isDisplayed());
+		assertEquals(driver.findElement(By.id("nav-cart")).getText(), "Cart 0");
+	}
+
+	@Test
+	public void formControlsKeepTheirState() {
+		WebElement searchBox = driver.findElement(By.id("twotabsearchtextbox"));
+		searchBox.sendKeys("phone");
+		searchBox.sendKeys(" case");
+		assertEquals(searchBox.getAttribute("value"), "phone case");
+		searchBox.clear();
+		assertEquals(searchBox.getAttribute("value"), "");
+
+		Select category = new Select(driver.findElement(By.id("searchDropdownBox")));
+		category.selectByVisibleText("Books");
+		assertEquals(category.getFirstSelectedOption().getText(), "Books");
+		assertEquals(driver.findElement(By.cssSelector("option:checked")).getDomAttribute("value"), "stripbooks");
+	}
+
+	@Test
+	public void pageIsReadyOnceTheSearchBoxIsPresent() {
+		driver.addPage("https://www.amazon.in/loading", "<html><body><p>Loading</p></body></html>");
+		we.setPageReadyTimeout(Duration.ofMillis(100));
+
+		expectThrows(TimeoutException.class, () -> we.openURL("https://www.amazon.in/loading", ProductPage.class));
+		assertFalse(PageReadiness.of(ProductPage.class).isReady(driver));
+
+		we.openURL(HOME, ProductPage.class);
+		assertTrue(PageReadiness.of(ProductPage.class).isReady(driver));
+		assertEquals(driver.getCurrentUrl(), HOME);
+	}
+
+	@Test
+	public void pageLoadAssertionFailsAtOnceWithoutANavigationEntry() {
+		// the in-memory driver answers the load script like about:blank: no navigation entry
+		long start = System.nanoTime();
+
+		expectThrows(AssertionError.class, () -> we.assertPageLoadUnder(3000));
+		assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 3000);
+	}
+
+	@Test
+	public void elementsGoStaleAfterNavigation() {
+		WebElement searchBox = driver.findElement(By.id("twotabsearchtextbox"));
+		driver.findElement(By.id("nav-search-submit-button")).click();
+
+		assertEquals(driver.getCurrentUrl(), "https://www.amazon.in/s?i=aps&field-keywords=&ref=nb_sb_noss");
+		expectThrows(StaleElementReferenceException.class, searchBox::getText);
+
+		driver.navigate().back();
+		assertEquals(driver.getCurrentUrl(), HOME);
+	}
+}
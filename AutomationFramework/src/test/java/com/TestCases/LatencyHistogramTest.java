@@ -0,0 +1,81 @@
+package com.TestCases;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.testng.annotations.Test;
+
+import WebUtils.LatencyHistogram;
+
+public class LatencyHistogramTest {
+
+	@Test
+	public void countsSumMeanMaxAndErrorsAreExact() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		histogram.record(TimeUnit.MILLISECONDS.toNanos(10), false);
+		histogram.record(TimeUnit.MILLISECONDS.toNanos(30), true);
+		histogram.record(TimeUnit.MICROSECONDS.toNanos(1234), false);
+
+		assertEquals(histogram.getCount(), 3);
+		assertEquals(histogram.getErrors(), 1);
+		assertEquals(histogram.getSumMillis(), 41.234, 1e-9);
+		assertEquals(histogram.getMeanMillis(), 41.234 / 3, 1e-9);
+		assertEquals(histogram.getMaxMillis(), 30.0, 1e-9);
+	}
+
+	@Test
+	public void emptyHistogramReadsAsZero() {
+		LatencyHistogram histogram = new LatencyHistogram();
+
+		assertEquals(histogram.getMeanMillis(), 0.0);
+		assertEquals(histogram.getPercentileMillis(50), 0.0);
+	}
+
+	@Test
+	public void valuesBelowEightMicrosecondsAreExact() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int micros = 0; micros < 8; micros++) {
+			histogram.record(TimeUnit.MICROSECONDS.toNanos(micros), false);
+		}
+		// a negative duration, e.g. from a clock step, counts as zero
+		histogram.record(-5, false);
+
+		assertEquals(histogram.getPercentileMillis(10), 0.0);
+		// nine samples: 0, 0, 1, ..., 7; the fifth is 3 us
+		assertEquals(histogram.getPercentileMillis(50), 0.003);
+		assertEquals(histogram.getPercentileMillis(100), 0.007);
+	}
+
+	@Test
+	public void percentileIsNeverBelowTheValueNorMoreThanAnEighthAbove() {
+		long[] samples = { 8, 9, 15, 16, 17, 100, 1023, 1024, 1025, 4095, 123_456, 9_999_999, 1L << 40 };
+		for (long micros : samples) {
+			LatencyHistogram histogram = new LatencyHistogram();
+			histogram.record(TimeUnit.MICROSECONDS.toNanos(micros), false);
+			// a larger sample keeps the max cap from hiding the bucket's upper bound
+			histogram.record(TimeUnit.MICROSECONDS.toNanos(micros * 4), false);
+
+			long reported = Math.round(histogram.getPercentileMillis(50) * 1000);
+			assertTrue(reported >= micros && reported <= micros * 1.125, micros + " us read back as " + reported);
+		}
+	}
+
+	@Test
+	public void percentilesOfAUniformSpreadStayWithinBucketError() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int millis = 1; millis <= 1000; millis++) {
+			histogram.record(TimeUnit.MILLISECONDS.toNanos(millis), false);
+		}
+
+		assertWithinBucket(histogram.getPercentileMillis(50), 500);
+		assertWithinBucket(histogram.getPercentileMillis(90), 900);
+		assertWithinBucket(histogram.getPercentileMillis(99), 990);
+		assertEquals(histogram.getPercentileMillis(100), 1000.0);
+	}
+
+	private static void assertWithinBucket(double actual, double expected) {
+		assertTrue(actual >= expected && actual <= expected * 1.125, actual + " ms for an expected " + expected + " ms");
+	}
+}
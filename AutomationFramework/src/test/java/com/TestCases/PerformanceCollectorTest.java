@@ -0,0 +1,71 @@
+package com.TestCases;
+
+import static org.testng.Assert.assertEquals;
+import static org.testng.Assert.expectThrows;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import WebUtils.PerformanceCollector;
+
+public class PerformanceCollectorTest {
+	private Path directory;
+
+	@BeforeClass
+	public void loadTestBudgets() throws IOException {
+		directory = Files.createTempDirectory("performance-budgets");
+		PerformanceCollector.loadBudgets(write("budgets.json", "{"
+				+ "\"default\": {\"lcpMs\": 2500, \"cls\": 0.1, \"loadMs\": 8000},"
+				+ "\"https://shop.example/*\": {\"loadMs\": 6000},"
+				+ "\"https://shop.example/s*\": {\"lcpMs\": 4000, \"requests\": 150},"
+				+ "\"https://*.example/help\": {\"cls\": 0.25}"
+				+ "}"));
+	}
+
+	@AfterClass(alwaysRun = true)
+	public void clearBudgets() throws IOException {
+		// budgets are shared by every collector in the run
+		PerformanceCollector.loadBudgets(write("none.json", "{}"));
+	}
+
+	@Test
+	public void unmatchedUrlGetsTheDefault() {
+		assertEquals(PerformanceCollector.budgetFor("https://other.example.org/"),
+				Map.of("lcpMs", 2500L, "cls", 0.1, "loadMs", 8000L));
+	}
+
+	@Test
+	public void longestPatternOverridesTheDefaultMetricByMetric() {
+		assertEquals(PerformanceCollector.budgetFor("https://shop.example/s?k=phone"),
+				Map.of("lcpMs", 4000L, "cls", 0.1, "loadMs", 8000L, "requests", 150L));
+		// only the longest pattern applies; the shorter one's loadMs is not inherited
+		assertEquals(PerformanceCollector.budgetFor("https://shop.example/cart"),
+				Map.of("lcpMs", 2500L, "cls", 0.1, "loadMs", 6000L));
+	}
+
+	@Test
+	public void wildcardMatchesAnythingAndTheRestIsLiteral() {
+		assertEquals(PerformanceCollector.budgetFor("https://www.example/help").get("cls"), 0.25);
+		assertEquals(PerformanceCollector.budgetFor("https://www.example/help/faq").get("cls"), 0.1);
+		// the dot in the pattern is not a regex wildcard
+		assertEquals(PerformanceCollector.budgetFor("https://wwwXexample/help").get("cls"), 0.1);
+	}
+
+	@Test
+	public void rejectsUnknownMetrics() throws IOException {
+		Path file = write("typo.json", "{\"default\": {\"lcp\": 2500}}");
+
+		expectThrows(IllegalArgumentException.class, () -> PerformanceCollector.loadBudgets(file));
+	}
+
+	private Path write(String name, String json) throws IOException {
+		return Files.write(directory.resolve(name), json.getBytes(StandardCharsets.UTF_8));
+	}
+}
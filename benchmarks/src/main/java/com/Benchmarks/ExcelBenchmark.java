@@ -0,0 +1,92 @@
+package com.Benchmarks;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import WebUtils.ExcelDataStore;
+import WebUtils.WebUtil;
+
+/**
+ * WebUtil.readDataAsKeyValue on a generated workbook of the given size, once
+ * with the sheet already cached and once after dropping the in-memory cache.
+ * The uncached read maps the sheet's snapshot file; run with
+ * -jvmArgs -Dexcel.snapshot=false to measure a full POI parse instead.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Thread)
+public class ExcelBenchmark {
+
+	private static final String SHEET = "TestData";
+	private static final int COLUMNS = 10;
+
+	@Param({ "100", "5000" })
+	int rows;
+
+	private Path workbook;
+	private String path;
+	private String testCaseID;
+
+	@Setup
+	public void writeWorkbook() throws IOException {
+		workbook = Files.createTempFile("excel-bench", ".xlsx");
+		path = workbook.toString();
+		testCaseID = "TC" + (rows / 2);
+		try (XSSFWorkbook wb = new XSSFWorkbook(); OutputStream out = Files.newOutputStream(workbook)) {
+			Sheet sheet = wb.createSheet(SHEET);
+			Row header = sheet.createRow(0);
+			header.createCell(0).setCellValue("TestCaseID");
+			for (int c = 1; c < COLUMNS; c++) {
+				header.createCell(c).setCellValue("Field" + c);
+			}
+			for (int r = 1; r <= rows; r++) {
+				Row row = sheet.createRow(r);
+				row.createCell(0).setCellValue("TC" + r);
+				for (int c = 1; c < COLUMNS; c++) {
+					row.createCell(c).setCellValue("value " + r + "-" + c);
+				}
+			}
+			wb.write(out);
+		}
+	}
+
+	@TearDown
+	public void deleteWorkbook() throws IOException {
+		ExcelDataStore.clear();
+		Files.deleteIfExists(workbook);
+	}
+
+	@Benchmark
+	public Map<String, String> readCached() {
+		return WebUtil.readDataAsKeyValue(path, SHEET, testCaseID);
+	}
+
+	@Benchmark
+	public Map<String, String> readUncached() {
+		ExcelDataStore.invalidate(path);
+		return WebUtil.readDataAsKeyValue(path, SHEET, testCaseID);
+	}
+}
@@ -0,0 +1,119 @@
+package com.Benchmarks;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+/**
+ * Deterministic in-memory WebDriver for measuring framework overhead.
+ *
+ * Locators are answered from a fixed table keyed by the locator itself and
+ * scripts by a handler the benchmark sets, so nothing is parsed or evaluated
+ * and every call takes the same time. Anything a benchmark does not need
+ * throws UnsupportedOperationException.
+ */
+public final class FakeWebDriver implements WebDriver, JavascriptExecutor {
+
+	private final Map<By, List<WebElement>> elements = new HashMap<>();
+	private Function<Object[], Object> scriptHandler = args -> null;
+	private String url = "about:blank";
+
+	/** Makes findElement(s) with this locator return the given elements. */
+	public FakeWebDriver with(By locator, WebElement... found) {
+		elements.put(locator, Arrays.asList(found));
+		return this;
+	}
+
+	/** Answers every executeScript call with the handler's result for its arguments. */
+	public FakeWebDriver onScript(Function<Object[], Object> handler) {
+		this.scriptHandler = handler;
+		return this;
+	}
+
+	@Override
+	public List<WebElement> findElements(By by) {
+		return elements.getOrDefault(by, Collections.emptyList());
+	}
+
+	@Override
+	public WebElement findElement(By by) {
+		List<WebElement> found = findElements(by);
+		if (found.isEmpty()) {
+			throw new NoSuchElementException("No fake element for " + by);
+		}
+		return found.get(0);
+	}
+
+	@Override
+	public Object executeScript(String script, Object... args) {
+		return scriptHandler.apply(args);
+	}
+
+	@Override
+	public Object executeAsyncScript(String script, Object... args) {
+		return scriptHandler.apply(args);
+	}
+
+	@Override
+	public void get(String url) {
+		this.url = url;
+	}
+
+	@Override
+	public String getCurrentUrl() {
+		return url;
+	}
+
+	@Override
+	public String getTitle() {
+		return "Benchmark";
+	}
+
+	@Override
+	public String getPageSource() {
+		return "<html></html>";
+	}
+
+	@Override
+	public void close() {
+	}
+
+	@Override
+	public void quit() {
+	}
+
+	@Override
+	public Set<String> getWindowHandles() {
+		return Collections.singleton(getWindowHandle());
+	}
+
+	@Override
+	public String getWindowHandle() {
+		return "main";
+	}
+
+	@Override
+	public TargetLocator switchTo() {
+		throw new UnsupportedOperationException("switchTo");
+	}
+
+	@Override
+	public Navigation navigate() {
+		throw new UnsupportedOperationException("navigate");
+	}
+
+	@Override
+	public Options manage() {
+		throw new UnsupportedOperationException("manage");
+	}
+}
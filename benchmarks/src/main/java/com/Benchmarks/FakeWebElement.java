@@ -0,0 +1,132 @@
+package com.Benchmarks;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.Dimension;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.Point;
+import org.openqa.selenium.Rectangle;
+import org.openqa.selenium.WebElement;
+
+/**
+ * Element with fixed tag, text and attributes. Interactions only update the
+ * value and a click counter, so every call costs the same.
+ */
+public final class FakeWebElement implements WebElement {
+
+	private final String tagName;
+	private final String text;
+	private final Map<String, String> attributes = new HashMap<>();
+	private final StringBuilder value = new StringBuilder();
+	private long clicks;
+
+	public FakeWebElement(String tagName, String text) {
+		this.tagName = tagName;
+		this.text = text;
+	}
+
+	public FakeWebElement attribute(String name, String attributeValue) {
+		attributes.put(name, attributeValue);
+		return this;
+	}
+
+	public long getClicks() {
+		return clicks;
+	}
+
+	@Override
+	public void click() {
+		clicks++;
+	}
+
+	@Override
+	public void submit() {
+	}
+
+	@Override
+	public void sendKeys(CharSequence... keysToSend) {
+		for (CharSequence keys : keysToSend) {
+			value.append(keys);
+		}
+	}
+
+	@Override
+	public void clear() {
+		value.setLength(0);
+	}
+
+	@Override
+	public String getTagName() {
+		return tagName;
+	}
+
+	@Override
+	public String getDomAttribute(String name) {
+		return "value".equals(name) ? value.toString() : attributes.get(name);
+	}
+
+	@Override
+	public String getAttribute(String name) {
+		return getDomAttribute(name);
+	}
+
+	@Override
+	public boolean isSelected() {
+		return false;
+	}
+
+	@Override
+	public boolean isEnabled() {
+		return true;
+	}
+
+	@Override
+	public String getText() {
+		return text;
+	}
+
+	@Override
+	public List<WebElement> findElements(By by) {
+		return Collections.emptyList();
+	}
+
+	@Override
+	public WebElement findElement(By by) {
+		throw new NoSuchElementException("Fake elements have no children: " + by);
+	}
+
+	@Override
+	public boolean isDisplayed() {
+		return true;
+	}
+
+	@Override
+	public Point getLocation() {
+		return new Point(0, 0);
+	}
+
+	@Override
+	public Dimension getSize() {
+		return new Dimension(100, 20);
+	}
+
+	@Override
+	public Rectangle getRect() {
+		return new Rectangle(getLocation(), getSize());
+	}
+
+	@Override
+	public String getCssValue(String propertyName) {
+		return "";
+	}
+
+	@Override
+	public <X> X getScreenshotAs(OutputType<X> target) {
+		throw new UnsupportedOperationException("Fake elements cannot take screenshots");
+	}
+}
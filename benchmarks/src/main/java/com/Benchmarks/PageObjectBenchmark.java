@@ -0,0 +1,80 @@
+package com.Benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.support.PageFactory;
+
+import com.ORLayer.SearchProduct;
+
+import WebUtils.CachingFieldDecorator;
+import WebUtils.ActionMetrics;
+import WebUtils.TraceRecorder;
+import WebUtils.WebUtil;
+
+/**
+ * Initialising com.ORLayer.SearchProduct: the generated binder its
+ * constructor uses, against Selenium's reflective PageFactory and the
+ * reflective caching decorator on the same page object, and the first use of
+ * an element after the generated binder. Tracing is off here;
+ * {@link PageObjectTracingBenchmark} runs the same code with it on.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dtrace.enabled=false")
+@State(Scope.Thread)
+public class PageObjectBenchmark {
+
+	private FakeWebDriver driver;
+	private WebUtil webUtil;
+	private SearchProduct page;
+
+	@Setup
+	public void setUp() {
+		driver = new FakeWebDriver().with(By.id("twotabsearchtextbox"), new FakeWebElement("input", ""));
+		webUtil = new WebUtil(driver, null);
+		page = new SearchProduct(webUtil);
+	}
+
+	/** Starts every iteration from empty recorders, so no iteration runs against a full trace buffer. */
+	@Setup(Level.Iteration)
+	public void resetRecorders() {
+		TraceRecorder.reset();
+		ActionMetrics.reset();
+	}
+
+	@Benchmark
+	public SearchProduct generatedBinder() {
+		return new SearchProduct(webUtil);
+	}
+
+	@Benchmark
+	public SearchProduct seleniumPageFactory() {
+		PageFactory.initElements(driver, page);
+		return page;
+	}
+
+	@Benchmark
+	public SearchProduct cachingFieldDecorator() {
+		CachingFieldDecorator.initElements(webUtil, page);
+		return page;
+	}
+
+	@Benchmark
+	public String generatedBinderFirstUse() {
+		return new SearchProduct(webUtil).getSearchBoxAm().getTagName();
+	}
+}
@@ -0,0 +1,76 @@
+package com.Benchmarks;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+
+import WebUtils.ReportManager;
+
+/**
+ * Time a test thread spends in ReportManager.log, alone and with four threads
+ * logging at once, including any wait for queue space.
+ *
+ * Entries go to an ExtentTest of a throwaway ExtentReports that is replaced
+ * every iteration, so millions of entries do not pile up in the suite report.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ReportLoggingBenchmark {
+
+	private volatile ExtentTest test;
+
+	@Setup(Level.Trial)
+	public void startReport() throws IOException {
+		System.setProperty("report.path",
+				Files.createTempDirectory("report-bench").resolve("Index.html").toString());
+		ReportManager.getReports();
+	}
+
+	@Setup(Level.Iteration)
+	public void newTest() {
+		test = new ExtentReports().createTest("benchmark");
+	}
+
+	@TearDown(Level.Iteration)
+	public void drain() {
+		ReportManager.flush();
+	}
+
+	@TearDown(Level.Trial)
+	public void stopReport() {
+		ReportManager.shutdown();
+	}
+
+	@Benchmark
+	public void log() {
+		ReportManager.log(test, Status.INFO, "Search box clicked successfully");
+	}
+
+	@Benchmark
+	@Threads(4)
+	public void logFromFourThreads() {
+		ReportManager.log(test, Status.INFO, "Search box clicked successfully");
+	}
+}
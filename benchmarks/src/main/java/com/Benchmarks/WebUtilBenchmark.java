@@ -0,0 +1,89 @@
+package com.Benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebElement;
+
+import WebUtils.ActionMetrics;
+import WebUtils.TraceRecorder;
+import WebUtils.WebUtil;
+
+/**
+ * Cost of WebUtil's element actions with the browser taken out: metrics,
+ * waiting and result handling around an instant driver call. No ExtentTest is
+ * attached; report logging is measured in {@link ReportLoggingBenchmark}.
+ * Tracing is off here; {@link WebUtilTracingBenchmark} runs the same actions
+ * with it on, so the difference is what tracing costs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Dtrace.enabled=false")
+@State(Scope.Thread)
+public class WebUtilBenchmark {
+
+	private static final String SEARCH_XPATH = "//input[@id='twotabsearchtextbox']";
+	private static final String PRICE_XPATH = "//span[@class='a-price-whole']";
+
+	@Param({ "10", "200" })
+	int resultCount;
+
+	private WebUtil webUtil;
+	private WebElement searchBox;
+
+	@Setup
+	public void setUp() {
+		searchBox = new FakeWebElement("input", "").attribute("id", "twotabsearchtextbox");
+		WebElement[] prices = new WebElement[resultCount];
+		List<List<Object>> rows = new ArrayList<>();
+		for (int i = 0; i < resultCount; i++) {
+			String price = String.valueOf(100 + i);
+			prices[i] = new FakeWebElement("span", price).attribute("class", "a-price-whole");
+			List<Object> row = new ArrayList<>();
+			row.add(price);
+			rows.add(row);
+		}
+		// answers BulkExtractor's script: one [text] row per match
+		FakeWebDriver driver = new FakeWebDriver().with(By.xpath(SEARCH_XPATH), searchBox)
+				.with(By.xpath(PRICE_XPATH), prices).onScript(args -> rows);
+		webUtil = new WebUtil(driver, null);
+	}
+
+	/** Starts every iteration from empty recorders, so no iteration runs against a full trace buffer. */
+	@Setup(Level.Iteration)
+	public void resetRecorders() {
+		TraceRecorder.reset();
+		ActionMetrics.reset();
+	}
+
+	@Benchmark
+	public WebElement searchElement() {
+		return webUtil.searchElement(SEARCH_XPATH, "Search box");
+	}
+
+	@Benchmark
+	public void click() {
+		webUtil.click(searchBox, "Search box");
+	}
+
+	@Benchmark
+	public List<String> getAllElementsText() {
+		return webUtil.getAllElementsText(PRICE_XPATH);
+	}
+}
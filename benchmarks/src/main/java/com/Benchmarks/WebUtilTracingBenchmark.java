@@ -0,0 +1,18 @@
+package com.Benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link WebUtilBenchmark} with the {@link WebUtils.TraceRecorder} on. The event
+ * cap is lifted so no iteration ends up untraced; iterations are short and
+ * start from an empty buffer, so the events kept between resets stay small.
+ */
+@Warmup(iterations = 5, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 200, timeUnit = TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = { "-Dtrace.enabled=true", "-Dtrace.maxEvents=2147483647" })
+public class WebUtilTracingBenchmark extends WebUtilBenchmark {
+}